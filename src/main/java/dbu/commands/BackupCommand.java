@@ -12,11 +12,16 @@ import org.springframework.shell.standard.ShellOption;
 
 import dbu.enums.CompressType;
 import dbu.enums.DatabaseType;
+import dbu.enums.EngineType;
+import dbu.enums.StorageType;
 import dbu.exceptions.BackupExecutionException;
 import dbu.models.BackupConfig;
 import dbu.models.ConnectionParams;
 import dbu.services.backup.BackupService;
+import dbu.services.backup.StreamingBackupService;
+import dbu.services.catalog.BackupCatalogService;
 import dbu.services.scheduler.SchedulerService;
+import dbu.services.storage.StorageService;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +36,10 @@ public class BackupCommand {
 
     private final SchedulerService backupJobScheduler;
 
+    private final Map<String, StorageService> storageExecutors;
+
+    private final BackupCatalogService backupCatalog;
+
     @ShellMethod(key = "backup", value = "Backup the database")
     public void backup(
             @ShellOption(value = { "-t", "--database-type" }) DatabaseType databaseType,
@@ -40,8 +49,24 @@ public class BackupCommand {
             @ShellOption(value = { "-u", "--user" }) String user,
             @ShellOption(value = { "-w", "--password" }) String password,
             @ShellOption(value = { "-c", "--compress" }, defaultValue = "NONE") CompressType compressType,
+            @ShellOption(value = { "-l",
+                    "--level" }, defaultValue = ShellOption.NULL, help = "Compression level (GZIP 0-9, ZSTD 1-22, LZ4 0-17; LZ4 above 0 uses HC)") Integer compressLevel,
+            @ShellOption(value = {
+                    "--compress-threads" }, defaultValue = "1", help = "Worker threads for block-parallel GZIP, multi-threaded ZSTD and SEEKABLE") @Min(1) int compressThreads,
+            @ShellOption(value = {
+                    "--block-size" }, defaultValue = "131072", help = "Block size in bytes for block-parallel GZIP and SEEKABLE") @Min(32768) int compressBlockSize,
             @ShellOption(value = { "-o", "--output" }) String backupFilePath,
-            @ShellOption(value = { "-C", "--cron" }, defaultValue = "") String cronSchedule) {
+            @ShellOption(value = { "-C", "--cron" }, defaultValue = "") String cronSchedule,
+            @ShellOption(value = { "-j",
+                    "--jobs" }, defaultValue = "1", help = "Parallel dump jobs (PostgreSQL directory format, MongoDB collections)") @Min(1) int jobs,
+            @ShellOption(value = { "-e",
+                    "--engine" }, defaultValue = "TOOL", help = "Dump engine: TOOL (mysqldump, pg_dump, mongodump) or NATIVE (JDBC or MongoDB driver)") EngineType engine,
+            @ShellOption(value = { "-s",
+                    "--stream" }, defaultValue = "false", help = "Pipe the dump straight into the compressor without a raw dump file") boolean streaming,
+            @ShellOption(value = { "-U",
+                    "--upload" }, defaultValue = ShellOption.NULL, help = "Stream the compressed dump straight to cloud storage (AWS, AZURE, GCP)") StorageType uploadStorageType,
+            @ShellOption(value = { "-k",
+                    "--key" }, defaultValue = ShellOption.NULL, help = "Object key for --upload (defaults to the generated backup file name)") String uploadKey) {
 
         logger.info("Received backup command for database '{}' of type '{}'", databaseName, databaseType);
 
@@ -56,13 +81,22 @@ public class BackupCommand {
         BackupConfig config = new BackupConfig();
         config.setConnectionParams(params);
         config.setCompressType(compressType);
+        config.setCompressLevel(compressLevel);
+        config.setCompressThreads(compressThreads);
+        config.setCompressBlockSize(compressBlockSize);
         config.setBackupFilePath(backupFilePath);
-
-        String keyService = databaseType.name().toLowerCase() + "Backup";
+        config.setStreaming(streaming);
+        config.setJobs(jobs);
+        config.setEngine(engine);
+        config.setUploadStorageType(uploadStorageType);
+        config.setUploadKey(uploadKey);
+
+        String keyService = databaseType.name().toLowerCase() + (engine == EngineType.NATIVE ? "Native" : "")
+                + "Backup";
         BackupService executor = backupExecutors.get(keyService);
 
         if (executor == null) {
-            String error = "No backup service found for database type: " + databaseType;
+            String error = "No " + engine + " backup service found for database type: " + databaseType;
             logger.error(error);
             System.err.println(error);
             return;
@@ -89,10 +123,37 @@ public class BackupCommand {
                 return;
             }
 
+            if (uploadStorageType != null) {
+                if (!(executor instanceof StreamingBackupService streamingExecutor)) {
+                    String error = "Streaming upload is not supported for database type: " + databaseType;
+                    logger.error(error);
+                    System.err.println(error);
+                    return;
+                }
+
+                StorageService storageService = storageExecutors
+                        .get(uploadStorageType.name().toLowerCase() + "Storage");
+                if (storageService == null) {
+                    String error = "No storage service found for type: " + uploadStorageType;
+                    logger.error(error);
+                    System.err.println(error);
+                    return;
+                }
+
+                logger.info("Starting dump-to-storage backup for database '{}' to {}", databaseName,
+                        uploadStorageType);
+                String url = streamingExecutor.backupToStorage(config, storageService);
+                String successMsg = "Database backup streamed to storage successfully: " + url;
+                logger.info(successMsg);
+                System.out.println(successMsg);
+                return;
+            }
+
             logger.info("Starting immediate backup for database '{}'", databaseName);
             Path resultPath = executor.backup(config);
 
             if (resultPath != null) {
+                backupCatalog.recordBackup(config, resultPath);
                 String successMsg = "Database backup completed successfully: " + resultPath.toString();
                 logger.info(successMsg);
                 System.out.println(successMsg);
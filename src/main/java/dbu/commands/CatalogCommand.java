@@ -0,0 +1,149 @@
+package dbu.commands;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import dbu.enums.DatabaseType;
+import dbu.enums.StorageType;
+import dbu.exceptions.StorageExecutionException;
+import dbu.models.BackupRecord;
+import dbu.services.catalog.BackupCatalogService;
+import dbu.services.storage.StorageService;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+
+@ShellComponent
+@RequiredArgsConstructor
+public class CatalogCommand {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCommand.class);
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BackupCatalogService backupCatalog;
+
+    private final Map<String, StorageService> storageExecutors;
+
+    @ShellMethod(key = "catalog-search", value = "Search the backup catalog")
+    public void search(
+            @ShellOption(value = { "-d", "--database" }, defaultValue = ShellOption.NULL) String databaseName,
+            @ShellOption(value = { "-t",
+                    "--database-type" }, defaultValue = ShellOption.NULL) DatabaseType databaseType,
+            @ShellOption(value = { "-s",
+                    "--storage-type" }, defaultValue = ShellOption.NULL, help = "Only backups stored in AWS, AZURE or GCP") StorageType storageType,
+            @ShellOption(value = { "-f",
+                    "--from" }, defaultValue = ShellOption.NULL, help = "Earliest backup time (yyyy-MM-dd or yyyy-MM-ddTHH:mm[:ss])") String from,
+            @ShellOption(value = { "-T",
+                    "--to" }, defaultValue = ShellOption.NULL, help = "Latest backup time (yyyy-MM-dd or yyyy-MM-ddTHH:mm[:ss])") String to,
+            @ShellOption(value = { "-n", "--limit" }, defaultValue = "50") @Min(1) int limit) {
+
+        try {
+            logger.info("Searching backup catalog: database={}, type={}, storage={}, from={}, to={}", databaseName,
+                    databaseType, storageType, from, to);
+            List<BackupRecord> records = backupCatalog.search(databaseName, databaseType, storageType,
+                    parseTime(from, false), parseTime(to, true), limit);
+
+            if (records.isEmpty()) {
+                System.out.println("No backups found in the catalog.");
+                return;
+            }
+            printRecords(records);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date: " + e.getParsedString());
+        } catch (DataAccessException e) {
+            logger.error("Catalog search failed: {}", e.getMessage(), e);
+            System.err.println("Catalog search failed: " + e.getMessage());
+        }
+    }
+
+    @ShellMethod(key = "catalog-latest", value = "Show the latest backup of a database")
+    public void latest(
+            @ShellOption(value = { "-d", "--database" }) String databaseName,
+            @ShellOption(value = { "-b",
+                    "--before" }, defaultValue = ShellOption.NULL, help = "Latest backup taken at or before this time (yyyy-MM-dd or yyyy-MM-ddTHH:mm[:ss])") String before) {
+
+        try {
+            Optional<BackupRecord> record = backupCatalog.findLatest(databaseName, parseTime(before, true));
+            if (record.isEmpty()) {
+                System.out.println("No backup of database '" + databaseName + "' found in the catalog.");
+                return;
+            }
+            printRecords(List.of(record.get()));
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date: " + e.getParsedString());
+        } catch (DataAccessException e) {
+            logger.error("Catalog lookup failed: {}", e.getMessage(), e);
+            System.err.println("Catalog lookup failed: " + e.getMessage());
+        }
+    }
+
+    @ShellMethod(key = "catalog-sync", value = "Bring the backup catalog up to date with cloud storage")
+    public void sync(
+            @ShellOption(value = { "-s",
+                    "--storage-type" }, help = "Storage type (AWS, AZURE, GCP)") StorageType storageType) {
+
+        StorageService storageService = storageExecutors.get(storageType.name().toLowerCase() + "Storage");
+        if (storageService == null) {
+            System.err.println("No storage service found for type: " + storageType);
+            return;
+        }
+
+        try {
+            BackupCatalogService.SyncResult result = backupCatalog.sync(storageType, storageService);
+            System.out.printf("Catalog synced with %s: %d added, %d updated, %d removed%n", storageType,
+                    result.added(), result.updated(), result.removed());
+        } catch (StorageExecutionException | DataAccessException e) {
+            logger.error("Catalog sync with {} failed: {}", storageType, e.getMessage(), e);
+            System.err.println("Catalog sync failed: " + e.getMessage());
+        }
+    }
+
+    private void printRecords(List<BackupRecord> records) {
+        System.out.println("=".repeat(118));
+        System.out.printf("%-20s %-12s %-10s %-20s %-10s %-40s%n", "Database", "Type", "Codec", "Created", "Size",
+                "Location");
+        System.out.println("-".repeat(118));
+        for (BackupRecord record : records) {
+            System.out.printf("%-20s %-12s %-10s %-20s %-10s %-40s%n",
+                    record.getDatabaseName() != null ? record.getDatabaseName() : "?",
+                    record.getDatabaseType() != null ? record.getDatabaseType() : "?",
+                    record.getCompressType() != null ? record.getCompressType() : "?",
+                    record.getCreatedAt() != null ? record.getCreatedAt().format(DISPLAY_FORMAT) : "N/A",
+                    record.getSize() != null ? record.getSize() : "?",
+                    location(record));
+        }
+        System.out.println("=".repeat(118));
+        System.out.printf("Total: %d backup(s)%n", records.size());
+    }
+
+    private String location(BackupRecord record) {
+        if (record.getStorageKey() == null) {
+            return record.getLocalPath();
+        }
+        String remote = record.getStorageType() + ":" + record.getStorageKey();
+        return record.getLocalPath() != null ? remote + " (local: " + record.getLocalPath() + ")" : remote;
+    }
+
+    // A bare date covers the whole day: its start for lower bounds, its end for upper bounds.
+    private LocalDateTime parseTime(String value, boolean endOfDay) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length() == 10) {
+            LocalDate date = LocalDate.parse(value);
+            return endOfDay ? date.atTime(23, 59, 59) : date.atStartOfDay();
+        }
+        return LocalDateTime.parse(value);
+    }
+}
@@ -1,7 +1,11 @@
 package dbu.commands;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,10 +14,17 @@ import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 
 import dbu.enums.DatabaseType;
+import dbu.enums.EngineType;
+import dbu.enums.StorageType;
 import dbu.exceptions.RestoreExecutionException;
+import dbu.exceptions.StorageExecutionException;
 import dbu.models.ConnectionParams;
 import dbu.models.RestoreConfig;
 import dbu.services.restore.RestoreService;
+import dbu.services.storage.BackupDownloadCache;
+import dbu.services.storage.StorageService;
+import dbu.utils.RangeReader;
+import dbu.utils.SeekableZstdReader;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +36,8 @@ public class RestoreCommand {
     private static final Logger logger = LoggerFactory.getLogger(RestoreCommand.class);
 
     private final Map<String, RestoreService> restoreExecutors;
+    private final Map<String, StorageService> storageExecutors;
+    private final BackupDownloadCache downloadCache;
 
     @ShellMethod(key = "restore", value = "Restore a database from backup")
     public void restore(
@@ -35,7 +48,17 @@ public class RestoreCommand {
             @ShellOption(value = { "-d", "--database" }) String databaseName,
             @ShellOption(value = { "-u", "--user" }) String user,
             @ShellOption(value = { "-w", "--password" }) String password,
-            @ShellOption(value = { "-i", "--input-path" }) String backupFilePath) {
+            @ShellOption(value = { "-i", "--input-path" }) String backupFilePath,
+            @ShellOption(value = { "-j",
+                    "--jobs" }, defaultValue = "1", help = "Parallel restore jobs (PostgreSQL directory-format dumps, MongoDB insertion workers)") @Min(1) int jobs,
+            @ShellOption(value = { "-e",
+                    "--engine" }, defaultValue = "TOOL", help = "Restore engine: TOOL (mysql, psql/pg_restore, mongorestore) or NATIVE (JDBC)") EngineType engine,
+            @ShellOption(value = { "--table",
+                    "--collection" }, defaultValue = ShellOption.NULL, help = "Restore only this table or collection (SEEKABLE backups)") String objectName,
+            @ShellOption(value = { "-S",
+                    "--storage-type" }, defaultValue = ShellOption.NULL, help = "Read the backup from cloud storage (AWS, AZURE, GCP); --input-path is then the object key") StorageType storageType,
+            @ShellOption(value = {
+                    "--revalidate" }, defaultValue = "false", help = "Check the object's manifest in storage before using a cached download, for keys that may have been overwritten") boolean revalidate) {
 
         ConnectionParams params = new ConnectionParams();
         params.setHost(host);
@@ -48,18 +71,34 @@ public class RestoreCommand {
         RestoreConfig config = new RestoreConfig();
         config.setConnectionParams(params);
         config.setBackupFilePath(backupFilePath);
+        config.setJobs(jobs);
+        config.setEngine(engine);
+        config.setObjectName(objectName);
 
-        String keyService = databaseType.name().toLowerCase(Locale.ROOT) + "Restore";
+        String keyService = databaseType.name().toLowerCase(Locale.ROOT)
+                + (engine == EngineType.NATIVE ? "Native" : "") + "Restore";
         RestoreService executor = restoreExecutors.get(keyService);
 
         if (executor == null) {
-            System.err.println("No restore service found for database type: " + databaseType);
+            System.err.println("No " + engine + " restore service found for database type: " + databaseType);
             logger.error("Restore service not found: {}", keyService);
             return;
         }
 
+        StorageService storageService = null;
+        if (storageType != null) {
+            storageService = storageExecutors.get(storageType.name().toLowerCase(Locale.ROOT) + "Storage");
+            if (storageService == null) {
+                System.err.println("No storage service found for type: " + storageType);
+                logger.error("Storage service not found for type: {}", storageType);
+                return;
+            }
+        }
+
         try {
-            boolean result = executor.restore(config);
+            boolean result = objectName != null
+                    ? restoreObject(executor, config, storageType, storageService, revalidate)
+                    : executor.restore(withLocalBackup(config, storageType, storageService, revalidate));
             if (result) {
                 System.out.println("Database restore successful.");
                 logger.info("Database restore successful for type {}", databaseType);
@@ -67,9 +106,52 @@ public class RestoreCommand {
                 System.err.println("Restore service executed but returned false.");
                 logger.warn("Restore service for {} returned false", databaseType);
             }
-        } catch (RestoreExecutionException e) {
+        } catch (RestoreExecutionException | StorageExecutionException e) {
             System.err.println("Restore failed: " + e.getMessage());
             logger.error("Restore failed for {}: {}", databaseType, e.getMessage(), e);
+        } finally {
+            if (!config.getBackupFilePath().equals(backupFilePath)) {
+                downloadCache.release(Paths.get(config.getBackupFilePath()));
+            }
+        }
+    }
+
+    // Only the index and the ranges of the requested object are read: from disk, from a cached download, or
+    // with ranged GETs.
+    private boolean restoreObject(RestoreService executor, RestoreConfig config, StorageType storageType,
+            StorageService storageService, boolean revalidate) throws RestoreExecutionException {
+        int threads = Math.max(config.getJobs(), Runtime.getRuntime().availableProcessors());
+        try (SeekableZstdReader backup = SeekableZstdReader.open(openRangeReader(config, storageType,
+                storageService, revalidate), threads)) {
+            logger.info("Restoring '{}' from seekable backup {} ({} indexed entries)", config.getObjectName(),
+                    config.getBackupFilePath(), backup.index().entries().size());
+            return executor.restoreObject(config, backup);
+        } catch (IOException e) {
+            throw new RestoreExecutionException("Cannot read backup index: " + e.getMessage(), e);
+        }
+    }
+
+    private RangeReader openRangeReader(RestoreConfig config, StorageType storageType,
+            StorageService storageService, boolean revalidate) throws IOException {
+        if (storageService == null) {
+            return RangeReader.of(Paths.get(config.getBackupFilePath()));
+        }
+        Optional<Path> cached = downloadCache.findCached(storageType, storageService, config.getBackupFilePath(),
+                revalidate);
+        return cached.isPresent()
+                ? RangeReader.of(cached.get())
+                : storageService.openRangeReader(config.getBackupFilePath());
+    }
+
+    // A full restore from cloud storage needs the backup locally; warm backups come from the download cache.
+    private RestoreConfig withLocalBackup(RestoreConfig config, StorageType storageType,
+            StorageService storageService, boolean revalidate) {
+        if (storageService == null) {
+            return config;
         }
+        Path backupFile = downloadCache.fetch(storageType, storageService, config.getBackupFilePath(), revalidate);
+        logger.info("Using local copy {} of backup {}", backupFile, config.getBackupFilePath());
+        config.setBackupFilePath(backupFile.toString());
+        return config;
     }
 }
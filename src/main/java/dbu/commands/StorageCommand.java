@@ -3,8 +3,9 @@ package dbu.commands;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,7 +16,11 @@ import org.springframework.shell.standard.ShellOption;
 import dbu.enums.StorageType;
 import dbu.exceptions.StorageExecutionException;
 import dbu.models.StorageFileInfo;
+import dbu.services.storage.CacheStats;
+import dbu.services.storage.CachingStorageService;
+import dbu.services.storage.StorageListings;
 import dbu.services.storage.StorageService;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 
 @ShellComponent
@@ -111,44 +116,85 @@ public class StorageCommand {
         }
     }
 
-   @ShellMethod(key = { "list" }, value = "List all files in cloud storage")
+    @ShellMethod(key = { "list" }, value = "List files in cloud storage")
     public void listFiles(
             @ShellOption(value = { "-s", "--storage-type" }, help = "Storage type (AWS, AZURE, GCP)")
-            StorageType storageType) {
+            StorageType storageType,
+            @ShellOption(value = { "-p", "--prefix" }, defaultValue = ShellOption.NULL, help = "Only keys starting with this prefix")
+            String prefix,
+            @ShellOption(value = { "-d", "--delimiter" }, defaultValue = ShellOption.NULL, help = "Group keys past this delimiter, e.g. / to list one folder level")
+            String delimiter,
+            @ShellOption(value = { "-j", "--parallel" }, defaultValue = "1", help = "Parallel listings, one per top-level folder under the prefix")
+            @Min(1) int parallel) {
+
+        // Rows are printed as pages arrive, so the table starts before a large bucket is fully listed.
+        try (Stream<StorageFileInfo> files = delimiter == null
+                ? StorageListings.sharded(resolverExecutor(storageType), prefix, parallel)
+                : resolverExecutor(storageType).streamFiles(prefix, delimiter)) {
+            logger.info("Listing files in storage '{}' (prefix '{}', delimiter '{}', {} parallel)", storageType,
+                    prefix, delimiter, parallel);
 
-        try {
-            logger.info("Listing files in storage '{}'", storageType);
-
-            List<StorageFileInfo> files = resolverExecutor(storageType).listFiles();
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            long count = 0;
+            Iterator<StorageFileInfo> iterator = files.iterator();
+            while (iterator.hasNext()) {
+                StorageFileInfo file = iterator.next();
+                if (count++ == 0) {
+                    // Tiêu đề bảng
+                    System.out.printf("%-40s %-12s %-20s%n", "File Name", "Size", "Last Modified");
+                    System.out.println("──────────────────────────────────────────────────────────────────────────────");
+                }
+                // Nội dung bảng
+                System.out.printf(
+                        "%-40s %-12s %-20s%n",
+                        file.getName(),
+                        file.isPrefix() ? "<prefix>" : readableSize(file.getSize()),
+                        file.getLastModified() != null ? file.getLastModified().format(formatter) : "N/A");
+                System.out.flush();
+            }
 
-            if (files.isEmpty()) {
+            if (count == 0) {
                 System.out.println("No files found in storage.");
                 return;
             }
-
-            // Tiêu đề bảng
-            System.out.printf("%-40s %-12s %-20s%n", "File Name", "Size", "Last Modified");
-            System.out.println("──────────────────────────────────────────────────────────────────────────────");
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-            // Nội dung bảng
-            files.forEach(file -> System.out.printf(
-                    "%-40s %-12s %-20s%n",
-                    file.getName(),
-                    readableSize(file.getSize()),
-                    file.getLastModified() != null ? file.getLastModified().format(formatter) : "N/A"
-            ));
-
             System.out.println("──────────────────────────────────────────────────────────────────────────────");
-            System.out.printf("Total: %d file(s)%n", files.size());
+            System.out.printf("Total: %d file(s)%n", count);
 
         } catch (StorageExecutionException e) {
             logger.error("Failed to list files in storage '{}': {}", storageType, e.getMessage(), e);
             System.err.println("Failed to list files: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
         }
     }
 
+    @ShellMethod(key = { "cache-stats" }, value = "Show storage metadata cache hits and misses")
+    public void cacheStats(
+            @ShellOption(value = { "-c", "--clear" }, defaultValue = "false", help = "Empty the caches afterwards")
+            boolean clear) {
+
+        System.out.printf("%-8s %-10s %-10s %-10s %-10s %-8s %-8s%n", "Storage", "Cache", "Hits", "Misses",
+                "Evictions", "Size", "Hit %");
+        System.out.println("──────────────────────────────────────────────────────────────────────────────");
+        for (StorageType storageType : StorageType.values()) {
+            if (!(storageExecutors.get(storageType.name().toLowerCase() + "Storage")
+                    instanceof CachingStorageService cache)) {
+                continue;
+            }
+            printCacheStats(storageType, "exists", cache.existenceStats());
+            printCacheStats(storageType, "listing", cache.listingStats());
+            if (clear) {
+                cache.clear();
+            }
+        }
+        System.out.println("──────────────────────────────────────────────────────────────────────────────");
+    }
+
+    private void printCacheStats(StorageType storageType, String name, CacheStats stats) {
+        System.out.printf("%-8s %-10s %-10d %-10d %-10d %-8d %-8.1f%n", storageType, name, stats.hits(),
+                stats.misses(), stats.evictions(), stats.size(), stats.hitRatio() * 100);
+    }
+
     private String readableSize(long size) {
         if (size < 1024) return size + " B";
         int exp = (int) (Math.log(size) / Math.log(1024));
@@ -1,5 +1,7 @@
 package dbu.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import lombok.Getter;
@@ -11,6 +13,17 @@ import lombok.Setter;
 public class AppProperties {
     
     private Cloud cloud = new Cloud();
+    private DownloadCache downloadCache = new DownloadCache();
+
+    @Getter
+    @Setter
+    public static class DownloadCache {
+        private boolean enabled = true;
+        private String directory = System.getProperty("user.home") + "/.dbu/download-cache";
+        private long maxSize = 20L * 1024 * 1024 * 1024;
+        private boolean verifyOnHit = true;
+        private boolean keepDecompressed = false;
+    }
 
     @Getter
     @Setter
@@ -18,6 +31,7 @@ public class AppProperties {
         private Aws aws = new Aws();
         private Azure azure = new Azure();
         private Gcp gcp = new Gcp();
+        private Cache cache = new Cache();
 
         @Getter
         @Setter
@@ -26,6 +40,10 @@ public class AppProperties {
             private String secretKey;
             private String bucketName;
             private String region;
+            private long partSize = 16L * 1024 * 1024;
+            private int uploadConcurrency = 4;
+            private int downloadConcurrency = 4;
+            private int maxAttempts = 3;
         }
 
         @Getter
@@ -33,6 +51,9 @@ public class AppProperties {
         public static class Azure {
             private String connectionString;
             private String containerName;
+            private long blockSize = 8L * 1024 * 1024;
+            private int maxConcurrency = 8;
+            private long maxSingleUploadSize = 32L * 1024 * 1024;
         }
 
         @Getter
@@ -41,6 +62,19 @@ public class AppProperties {
             private String credentialsPath;
             private String bucketName;
             private String projectId;
+            private int chunkSize = 16 * 1024 * 1024;
+            private long compositeThreshold = 1024L * 1024 * 1024;
+            private int compositeConcurrency = 4;
+        }
+
+        @Getter
+        @Setter
+        public static class Cache {
+            private boolean enabled = true;
+            private Duration ttl = Duration.ofSeconds(30);
+            private int maxEntries = 10_000;
+            private int maxListings = 100;
+            private int maxListingEntries = 100_000;
         }
     }
  
@@ -0,0 +1,31 @@
+package dbu.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import dbu.services.storage.CachingStorageService;
+import dbu.services.storage.StorageService;
+
+// Every storage bean is wrapped in the metadata cache under its own name, so the storage maps that
+// commands and jobs inject pick it up without further changes.
+@Configuration
+public class StorageCacheConfig {
+
+    @Bean
+    static BeanPostProcessor storageCachePostProcessor(ObjectProvider<AppProperties> props) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof StorageService storageService && !(bean instanceof CachingStorageService)) {
+                    AppProperties.Cloud.Cache cache = props.getObject().getCloud().getCache();
+                    if (cache.isEnabled()) {
+                        return new CachingStorageService(storageService, cache);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,5 +1,5 @@
 package dbu.enums;
 
 public enum CompressType {
-	NONE, GZIP, ZIP, TARGZ
+	NONE, GZIP, ZIP, TARGZ, ZSTD, LZ4, SEEKABLE
 }
@@ -0,0 +1,5 @@
+package dbu.enums;
+
+public enum EngineType {
+	TOOL, NATIVE
+}
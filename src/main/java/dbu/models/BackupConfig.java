@@ -3,6 +3,9 @@ package dbu.models;
 import java.io.Serializable;
 
 import dbu.enums.CompressType;
+import dbu.enums.EngineType;
+import dbu.enums.StorageType;
+import dbu.utils.ParallelGzipOutputStream;
 import lombok.Data;
 
 @Data
@@ -11,5 +14,13 @@ public class BackupConfig implements Serializable {
 	private ConnectionParams connectionParams;
 	private String backupFilePath;
 	private CompressType compressType;
+	private int compressThreads = 1;
+	private int compressBlockSize = ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE;
+	private Integer compressLevel;
 	private String cronSchedule;
+	private boolean streaming;
+	private int jobs = 1;
+	private EngineType engine = EngineType.TOOL;
+	private StorageType uploadStorageType;
+	private String uploadKey;
 }
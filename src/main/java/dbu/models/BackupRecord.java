@@ -0,0 +1,52 @@
+package dbu.models;
+
+import java.time.LocalDateTime;
+
+import dbu.enums.CompressType;
+import dbu.enums.DatabaseType;
+import dbu.enums.StorageType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "backup_catalog", indexes = {
+		@Index(name = "idx_backup_catalog_database_created", columnList = "databaseName, createdAt"),
+		@Index(name = "idx_backup_catalog_storage_key", columnList = "storageType, storageKey"),
+		@Index(name = "idx_backup_catalog_local_path", columnList = "localPath"),
+		@Index(name = "idx_backup_catalog_sha256", columnList = "sha256") })
+@Data
+@NoArgsConstructor
+public class BackupRecord {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private String databaseName;
+	@Enumerated(EnumType.STRING)
+	private DatabaseType databaseType;
+	@Enumerated(EnumType.STRING)
+	private CompressType compressType;
+	private String fileName;
+	@Column(length = 512)
+	private String localPath;
+	@Enumerated(EnumType.STRING)
+	private StorageType storageType;
+	@Column(length = 512)
+	private String storageKey;
+	private Long size;
+	@Column(length = 64)
+	private String sha256;
+	@Column(length = 8)
+	private String crc32c;
+	private LocalDateTime createdAt;
+	private LocalDateTime uploadedAt;
+	private LocalDateTime storageLastModified;
+}
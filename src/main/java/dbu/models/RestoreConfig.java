@@ -1,9 +1,13 @@
 package dbu.models;
 
+import dbu.enums.EngineType;
 import lombok.Data;
 
 @Data
 public class RestoreConfig {
 	private ConnectionParams connectionParams;
 	private String backupFilePath;
+	private int jobs = 1;
+	private EngineType engine = EngineType.TOOL;
+	private String objectName;
 }
@@ -10,5 +10,14 @@ public class StorageFileInfo {
     private String name;
     private long size;
     private LocalDateTime lastModified;
-}
+    // A common prefix returned by a delimited listing, rather than an object.
+    private boolean prefix;
+
+    public StorageFileInfo(String name, long size, LocalDateTime lastModified) {
+        this(name, size, lastModified, false);
+    }
 
+    public static StorageFileInfo ofPrefix(String name) {
+        return new StorageFileInfo(name, 0L, null, true);
+    }
+}
@@ -0,0 +1,42 @@
+package dbu.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import dbu.enums.DatabaseType;
+import dbu.enums.StorageType;
+import dbu.models.BackupRecord;
+
+public interface BackupRecordRepository extends JpaRepository<BackupRecord, Long> {
+
+    Optional<BackupRecord> findFirstByDatabaseNameAndCreatedAtLessThanEqualOrderByCreatedAtDesc(String databaseName,
+            LocalDateTime before);
+
+    Optional<BackupRecord> findFirstByLocalPath(String localPath);
+
+    Optional<BackupRecord> findFirstByStorageTypeAndStorageKey(StorageType storageType, String storageKey);
+
+    Optional<BackupRecord> findFirstBySha256AndStorageKeyIsNull(String sha256);
+
+    List<BackupRecord> findByStorageType(StorageType storageType);
+
+    @Query("select r from BackupRecord r"
+            + " where (:databaseName is null or r.databaseName = :databaseName)"
+            + " and (:databaseType is null or r.databaseType = :databaseType)"
+            + " and (:storageType is null or r.storageType = :storageType)"
+            + " and (:from is null or r.createdAt >= :from)"
+            + " and (:to is null or r.createdAt <= :to)"
+            + " order by r.createdAt desc")
+    List<BackupRecord> search(@Param("databaseName") String databaseName,
+            @Param("databaseType") DatabaseType databaseType,
+            @Param("storageType") StorageType storageType,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+}
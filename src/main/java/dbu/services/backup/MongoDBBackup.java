@@ -1,6 +1,7 @@
 package dbu.services.backup;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import dbu.exceptions.BackupExecutionException;
 import dbu.models.BackupConfig;
+import dbu.utils.BackupManifest;
 import dbu.utils.BackupPathUtils;
 import dbu.utils.CompressUtils;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +26,15 @@ public class MongoDBBackup implements BackupService {
 
 	@Override
 	public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
-		return performBackup(backupConfig, backupConfig.getConnectionParams().getDatabaseName());
+		String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+		if (backupConfig.isStreaming()) {
+			if (CompressUtils.supportsStreaming(backupConfig.getCompressType())) {
+				return performArchiveBackup(backupConfig, databaseName);
+			}
+			logger.warn("Compression type {} cannot be streamed, falling back to staged backup",
+					backupConfig.getCompressType());
+		}
+		return performBackup(backupConfig, databaseName);
 	}
 
 	private Path performBackup(BackupConfig backupConfig, String databaseName) throws BackupExecutionException {
@@ -47,10 +57,15 @@ public class MongoDBBackup implements BackupService {
 			command.add("--password=" + backupConfig.getConnectionParams().getPassword());
 			command.add("--db=" + databaseName);
 			command.add("--out=" + backupPath);
+			if (backupConfig.getJobs() > 1) {
+				command.add("--numParallelCollections=" + backupConfig.getJobs());
+			}
 
 			logger.debug("Executing mongodump with command: {}", String.join(" ", command));
 
 			ProcessBuilder pb = new ProcessBuilder(command);
+			pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+			pb.redirectError(ProcessBuilder.Redirect.INHERIT);
 			Process process = pb.start();
 			int exitCode = process.waitFor();
 
@@ -75,13 +90,78 @@ public class MongoDBBackup implements BackupService {
 		}
 	}
 
+	// Dumps the whole database as a single mongodump archive on stdout and compresses it on the fly,
+	// so no per-collection BSON files are written or walked again.
+	private Path performArchiveBackup(BackupConfig backupConfig, String databaseName)
+			throws BackupExecutionException {
+		Path outputPath = null;
+		try {
+			logger.info("Starting streaming MongoDB archive backup for database: {}", databaseName);
+
+			String prefix = "backup_" + databaseName.toLowerCase();
+			outputPath = BackupPathUtils.createBackupPath(backupConfig, prefix,
+					CompressUtils.streamingExtension(backupConfig.getCompressType(), ".archive"));
+
+			List<String> command = new ArrayList<>();
+			command.add("mongodump");
+			command.add("--host=" + backupConfig.getConnectionParams().getHost());
+			command.add("--port=" + backupConfig.getConnectionParams().getPort());
+			command.add("--username=" + backupConfig.getConnectionParams().getUsername());
+			command.add("--password=" + backupConfig.getConnectionParams().getPassword());
+			command.add("--db=" + databaseName);
+			command.add("--archive");
+			command.add("--numParallelCollections=" + Math.max(1, backupConfig.getJobs()));
+
+			logger.debug("Executing streaming mongodump with command: {}", String.join(" ", command));
+
+			// mongodump reports progress on stderr for every collection; an undrained pipe would block it.
+			ProcessBuilder pb = new ProcessBuilder(command);
+			pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+			Process process = pb.start();
+			try (InputStream archiveStream = process.getInputStream()) {
+				CompressUtils.compressStream(archiveStream, outputPath, backupConfig, prefix + ".archive");
+			}
+			int exitCode = process.waitFor();
+
+			if (exitCode != 0) {
+				Files.deleteIfExists(outputPath);
+				Files.deleteIfExists(BackupManifest.sidecar(outputPath));
+				String error = "mongodump failed with exit code: " + exitCode;
+				logger.error(error);
+				throw new BackupExecutionException(error);
+			}
+
+			logger.info("Streaming mongodump completed successfully. Backup file: {}", outputPath);
+			return outputPath;
+
+		} catch (IOException | InterruptedException e) {
+			Thread.currentThread().interrupt();
+			deleteQuietly(outputPath);
+			String error = "Backup failed for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		}
+	}
+
+	private void deleteQuietly(Path path) {
+		if (path == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			logger.warn("Could not remove partial backup file: {}", path, e);
+		}
+	}
+
 	private Path compressBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
 		Path compressedPath;
 		switch (backupConfig.getCompressType()) {
 			case GZIP -> {
-				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".gzip");
+				// mongodump writes a directory, which plain GZIP cannot hold, so it is tarred first.
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
 				logger.debug("Compressing backup using GZIP to: {}", compressedPath);
-				CompressUtils.compressGzip(backupPath, compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
 			}
 			case ZIP -> {
 				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
@@ -93,6 +173,21 @@ public class MongoDBBackup implements BackupService {
 				logger.debug("Compressing backup using TAR.GZ to: {}", compressedPath);
 				CompressUtils.compressTarGz(backupPath, compressedPath);
 			}
+			case ZSTD -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.zst");
+				logger.debug("Compressing backup using ZSTD to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case LZ4 -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.lz4");
+				logger.debug("Compressing backup using LZ4 to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case SEEKABLE -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.szst");
+				logger.debug("Compressing backup using SEEKABLE to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
 			default -> {
 				logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
 				compressedPath = backupPath;
@@ -0,0 +1,309 @@
+package dbu.services.backup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+
+import dbu.enums.CompressType;
+import dbu.exceptions.BackupExecutionException;
+import dbu.models.BackupConfig;
+import dbu.models.ConnectionParams;
+import dbu.utils.BackupPathUtils;
+import dbu.utils.CompressUtils;
+import lombok.RequiredArgsConstructor;
+
+// Driver-based alternative to mongodump. Large collections are split into _id ranges from sampled
+// split points and read with parallel cursors; documents are written as raw BSON bytes, never
+// decoded. The output uses the mongodump directory layout (<db>/<collection>.bson[.gz] plus
+// .metadata.json[.gz]) so mongorestore can load it directly.
+@Service("mongodbNativeBackup")
+@RequiredArgsConstructor
+public class MongoDBNativeBackup implements BackupService {
+
+	private static final Logger logger = LoggerFactory.getLogger(MongoDBNativeBackup.class);
+
+	private static final long DOCUMENTS_PER_RANGE = 1_000_000;
+	private static final int MAX_RANGES_PER_COLLECTION = 64;
+	private static final int SAMPLES_PER_SPLIT = 10;
+	private static final int BATCH_SIZE = 10_000;
+	private static final int SEGMENT_BUFFER_SIZE = 1 << 16;
+	private static final Document ID_INDEX = new Document("_id", 1);
+
+	@Override
+	public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
+		String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+		int jobs = Math.max(1, backupConfig.getJobs());
+		ExecutorService executor = Executors.newFixedThreadPool(jobs);
+
+		try (MongoClient client = MongoClients.create(clientSettings(backupConfig.getConnectionParams()))) {
+			logger.info("Starting native MongoDB backup for database: {} with {} reader(s)", databaseName, jobs);
+
+			Path backupPath = BackupPathUtils.createBackupPath(backupConfig,
+					"backup_" + databaseName.toLowerCase(), "");
+			Path databaseDir = Files.createDirectories(backupPath.resolve(databaseName));
+			logger.debug("Created backup directory at: {}", backupPath);
+
+			// Only GZIP is readable by mongorestore, so other codecs package the raw dump afterwards.
+			boolean gzipSegments = backupConfig.getCompressType() == CompressType.GZIP;
+			String extension = gzipSegments ? ".gz" : "";
+
+			MongoDatabase database = client.getDatabase(databaseName);
+			List<CollectionDump> dumps = new ArrayList<>();
+			for (Document info : database.listCollections().filter(Filters.eq("type", "collection"))) {
+				String name = info.getString("name");
+				if (name.startsWith("system.")) {
+					continue;
+				}
+				MongoCollection<RawBsonDocument> collection = database.getCollection(name, RawBsonDocument.class);
+				writeMetadata(collection, info, databaseDir.resolve(name + ".metadata.json" + extension),
+						gzipSegments ? backupConfig : null);
+
+				long count = collection.estimatedDocumentCount();
+				List<BsonValue> splitPoints = jobs > 1 ? sampleSplitPoints(collection, count, jobs)
+						: List.of();
+				dumps.add(new CollectionDump(collection, databaseDir.resolve(name + ".bson" + extension), count,
+						splitPoints));
+			}
+
+			// Biggest collections first, so their ranges are spread across all readers from the start.
+			dumps.sort(Comparator.comparingLong(CollectionDump::documentCount).reversed());
+			List<Future<Long>> ranges = new ArrayList<>();
+			for (CollectionDump dump : dumps) {
+				for (int i = 0; i <= dump.splitPoints().size(); i++) {
+					BsonValue lower = i == 0 ? null : dump.splitPoints().get(i - 1);
+					BsonValue upper = i == dump.splitPoints().size() ? null : dump.splitPoints().get(i);
+					Path segment = segmentPath(dump.output(), i);
+					BackupConfig codec = gzipSegments ? backupConfig : null;
+					ranges.add(executor.submit(() -> dumpRange(dump.collection(), lower, upper, segment, codec)));
+				}
+			}
+			logger.info("Dumping {} collection(s) as {} range(s)", dumps.size(), ranges.size());
+
+			long documents = 0;
+			for (Future<Long> range : ranges) {
+				documents += range.get();
+			}
+			for (CollectionDump dump : dumps) {
+				mergeSegments(dump);
+			}
+			logger.info("Native dump completed: {} document(s) written to {}", documents, backupPath);
+
+			Path compressedPath = gzipSegments ? backupPath
+					: compressBackup(backupConfig, backupPath, "backup_" + databaseName.toLowerCase());
+
+			logger.info("Backup completed successfully at: {}", compressedPath);
+			return compressedPath;
+
+		} catch (MongoException e) {
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		} catch (ExecutionException e) {
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getCause().getMessage();
+			logger.error(error, e.getCause());
+			throw new BackupExecutionException(error, e.getCause());
+		} catch (IOException | InterruptedException e) {
+			Thread.currentThread().interrupt();
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private MongoClientSettings clientSettings(ConnectionParams params) {
+		String uri = String.format("mongodb://%s:%s@%s:%d/%s",
+				params.getUsername(),
+				params.getPassword(),
+				params.getHost(),
+				params.getPort(),
+				params.getDatabaseName());
+		return MongoClientSettings.builder()
+				.applyConnectionString(new ConnectionString(uri))
+				.build();
+	}
+
+	private List<BsonValue> sampleSplitPoints(MongoCollection<RawBsonDocument> collection, long count, int jobs) {
+		int rangeCount = (int) Math.min(MAX_RANGES_PER_COLLECTION,
+				Math.min((long) jobs * 4, (count + DOCUMENTS_PER_RANGE - 1) / DOCUMENTS_PER_RANGE));
+		if (rangeCount <= 1) {
+			return List.of();
+		}
+
+		List<BsonValue> samples = new ArrayList<>();
+		for (RawBsonDocument doc : collection.aggregate(List.of(
+				Aggregates.sample(rangeCount * SAMPLES_PER_SPLIT),
+				Aggregates.project(Projections.include("_id")),
+				Aggregates.sort(Sorts.ascending("_id"))))
+				.allowDiskUse(true)) {
+			samples.add(doc.get("_id"));
+		}
+		List<BsonValue> splitPoints = pickSplitPoints(samples, rangeCount);
+		logger.debug("Collection '{}' (~{} documents) split into {} range(s)",
+				collection.getNamespace().getCollectionName(), count, splitPoints.size() + 1);
+		return splitPoints;
+	}
+
+	// Picks evenly spaced, distinct boundaries from the sorted sample.
+	static List<BsonValue> pickSplitPoints(List<BsonValue> sortedSamples, int rangeCount) {
+		List<BsonValue> splitPoints = new ArrayList<>();
+		if (rangeCount <= 1 || sortedSamples.isEmpty()) {
+			return splitPoints;
+		}
+		double step = (double) sortedSamples.size() / rangeCount;
+		for (int i = 1; i < rangeCount; i++) {
+			BsonValue candidate = sortedSamples.get((int) Math.min(sortedSamples.size() - 1, Math.round(i * step)));
+			if (splitPoints.isEmpty() || !splitPoints.get(splitPoints.size() - 1).equals(candidate)) {
+				splitPoints.add(candidate);
+			}
+		}
+		return splitPoints;
+	}
+
+	// min()/max() walk the _id index bounds directly, so ranges cover every BSON type without the
+	// type bracketing a $gte/$lt filter would apply.
+	private long dumpRange(MongoCollection<RawBsonDocument> collection, BsonValue lower, BsonValue upper,
+			Path segment, BackupConfig codec) throws IOException {
+		FindIterable<RawBsonDocument> find = collection.find().hint(ID_INDEX).batchSize(BATCH_SIZE);
+		if (lower != null) {
+			find = find.min(new BsonDocument("_id", lower));
+		}
+		if (upper != null) {
+			find = find.max(new BsonDocument("_id", upper));
+		}
+
+		long documents = 0;
+		try (OutputStream out = openSegment(segment, codec);
+				MongoCursor<RawBsonDocument> cursor = find.iterator()) {
+			while (cursor.hasNext()) {
+				ByteBuffer buffer = cursor.next().getByteBuffer().asNIO();
+				if (buffer.hasArray()) {
+					out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+				} else {
+					byte[] bytes = new byte[buffer.remaining()];
+					buffer.get(bytes);
+					out.write(bytes);
+				}
+				documents++;
+			}
+		}
+		logger.debug("Wrote {} document(s) to {}", documents, segment);
+		return documents;
+	}
+
+	private void writeMetadata(MongoCollection<RawBsonDocument> collection, Document info, Path output,
+			BackupConfig codec) throws IOException {
+		List<Document> indexes = new ArrayList<>();
+		collection.listIndexes().into(indexes);
+
+		Document metadata = new Document("options", info.get("options", new Document()))
+				.append("indexes", indexes)
+				.append("collectionName", info.getString("name"))
+				.append("type", "collection");
+
+		try (OutputStream out = openSegment(output, codec)) {
+			out.write(metadata.toJson(JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build())
+					.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private OutputStream openSegment(Path segment, BackupConfig codec) throws IOException {
+		OutputStream out = new BufferedOutputStream(Files.newOutputStream(segment), SEGMENT_BUFFER_SIZE);
+		return codec != null ? CompressUtils.newCompressorStream(out, codec) : out;
+	}
+
+	private Path segmentPath(Path output, int index) {
+		return index == 0 ? output : output.resolveSibling(output.getFileName() + String.format(".part%04d", index));
+	}
+
+	// Raw BSON and gzip members both concatenate, so later ranges are appended to the first segment.
+	private void mergeSegments(CollectionDump dump) throws IOException {
+		if (dump.splitPoints().isEmpty()) {
+			return;
+		}
+		try (OutputStream out = Files.newOutputStream(dump.output(), StandardOpenOption.APPEND)) {
+			for (int i = 1; i <= dump.splitPoints().size(); i++) {
+				Path segment = segmentPath(dump.output(), i);
+				Files.copy(segment, out);
+				Files.delete(segment);
+			}
+		}
+	}
+
+	private Path compressBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
+		Path compressedPath;
+		switch (backupConfig.getCompressType()) {
+			case ZIP -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
+				logger.debug("Compressing backup using ZIP to: {}", compressedPath);
+				CompressUtils.compressZip(backupPath, compressedPath);
+			}
+			case TARGZ -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
+				logger.debug("Compressing backup using TAR.GZ to: {}", compressedPath);
+				CompressUtils.compressTarGz(backupPath, compressedPath);
+			}
+			case ZSTD -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.zst");
+				logger.debug("Compressing backup using ZSTD to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case LZ4 -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.lz4");
+				logger.debug("Compressing backup using LZ4 to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case SEEKABLE -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.szst");
+				logger.debug("Compressing backup using SEEKABLE to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			default -> {
+				logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
+				compressedPath = backupPath;
+			}
+		}
+		return compressedPath;
+	}
+
+	private record CollectionDump(MongoCollection<RawBsonDocument> collection, Path output, long documentCount,
+			List<BsonValue> splitPoints) {
+	}
+}
@@ -1,6 +1,8 @@
 package dbu.services.backup;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import dbu.exceptions.BackupExecutionException;
 import dbu.models.BackupConfig;
+import dbu.utils.BackupManifest;
 import dbu.utils.BackupPathUtils;
 import dbu.utils.CompressUtils;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +26,15 @@ public class MySQLBackup implements BackupService {
 
 	@Override
 	public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
-		return performBackup(backupConfig, backupConfig.getConnectionParams().getDatabaseName());
+		String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+		if (backupConfig.isStreaming()) {
+			if (CompressUtils.supportsStreaming(backupConfig.getCompressType())) {
+				return performStreamingBackup(backupConfig, databaseName);
+			}
+			logger.warn("Compression type {} cannot be streamed, falling back to staged backup",
+					backupConfig.getCompressType());
+		}
+		return performBackup(backupConfig, databaseName);
 	}
 
 	private Path performBackup(BackupConfig backupConfig, String databaseName) throws BackupExecutionException {
@@ -73,13 +84,88 @@ public class MySQLBackup implements BackupService {
 		}
 	}
 
+	private Path performStreamingBackup(BackupConfig backupConfig, String databaseName)
+			throws BackupExecutionException {
+		Path outputPath = null;
+		Process process = null;
+		try {
+			logger.info("Starting streaming MySQL backup for database: {}", databaseName);
+
+			String prefix = "backup_" + databaseName.toLowerCase();
+			outputPath = BackupPathUtils.createBackupPath(backupConfig, prefix,
+					CompressUtils.streamingExtension(backupConfig.getCompressType(), ".sql"));
+
+			List<String> command = new ArrayList<>();
+			command.add("mysqldump");
+			command.add("--user=" + backupConfig.getConnectionParams().getUsername());
+			command.add("--password=" + backupConfig.getConnectionParams().getPassword());
+			command.add("--host=" + backupConfig.getConnectionParams().getHost());
+			command.add("--port=" + backupConfig.getConnectionParams().getPort());
+			command.add("--databases");
+			command.add(databaseName);
+			command.add("--source-data=2");
+			command.add("--single-transaction");
+			command.add("--quick");
+
+			logger.debug("Executing streaming mysqldump with command: {}", String.join(" ", command));
+
+			// mysqldump warnings go to stderr; an undrained pipe would block it.
+			ProcessBuilder pb = new ProcessBuilder(command);
+			pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+			process = pb.start();
+			try (InputStream dumpStream = process.getInputStream()) {
+				CompressUtils.compressStream(dumpStream, outputPath, backupConfig,
+						prefix + ".sql");
+			}
+			int exitCode = process.waitFor();
+
+			if (exitCode != 0) {
+				deleteQuietly(outputPath);
+				String error = "mysqldump failed with exit code: " + exitCode;
+				logger.error(error);
+				throw new BackupExecutionException(error);
+			}
+
+			logger.info("Streaming mysqldump completed successfully. Backup file: {}", outputPath);
+			return outputPath;
+
+		} catch (IOException | InterruptedException e) {
+			Thread.currentThread().interrupt();
+			deleteQuietly(outputPath);
+			String error = "Backup error for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		} finally {
+			if (process != null && process.isAlive()) {
+				process.destroy();
+			}
+		}
+	}
+
+	// Removes a partial backup together with its manifest sidecar.
+	private void deleteQuietly(Path path) {
+		if (path == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(BackupManifest.sidecar(path));
+		} catch (IOException e) {
+			logger.warn("Could not remove partial backup file: {}", path, e);
+		}
+	}
+
 	private Path compressBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
 		Path compressedPath;
 		switch (backupConfig.getCompressType()) {
 			case GZIP -> {
 				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".gzip");
 				logger.debug("Compressing backup using GZIP to: {}", compressedPath);
-				CompressUtils.compressGzip(backupPath, compressedPath);
+				if (backupConfig.getCompressThreads() > 1 || backupConfig.getCompressLevel() != null) {
+					CompressUtils.compress(backupPath, compressedPath, backupConfig);
+				} else {
+					CompressUtils.compressGzip(backupPath, compressedPath);
+				}
 			}
 			case ZIP -> {
 				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
@@ -91,6 +177,21 @@ public class MySQLBackup implements BackupService {
 				logger.debug("Compressing backup using TAR.GZ to: {}", compressedPath);
 				CompressUtils.compressTarGz(backupPath, compressedPath);
 			}
+			case ZSTD -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zst");
+				logger.debug("Compressing backup using ZSTD to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case LZ4 -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".lz4");
+				logger.debug("Compressing backup using LZ4 to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case SEEKABLE -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".szst");
+				logger.debug("Compressing backup using SEEKABLE to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
 			default -> {
 				logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
 				compressedPath = backupPath;
@@ -0,0 +1,502 @@
+package dbu.services.backup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dbu.exceptions.BackupExecutionException;
+import dbu.models.BackupConfig;
+import dbu.models.ConnectionParams;
+import dbu.utils.BackupPathUtils;
+import dbu.utils.CompressUtils;
+import lombok.RequiredArgsConstructor;
+
+// Pure JDBC alternative to mysqldump. Every worker connection joins the same consistent snapshot,
+// large tables with a single integer primary key are split into key ranges, and the chunks are
+// streamed row by row into multi-row INSERT files under data/, next to schema.sql.
+@Service("mysqlNativeBackup")
+@RequiredArgsConstructor
+public class MySQLNativeBackup implements BackupService {
+
+	private static final Logger logger = LoggerFactory.getLogger(MySQLNativeBackup.class);
+
+	static final String SCHEMA_FILE = "schema.sql";
+	static final String DATA_DIRECTORY = "data";
+
+	private static final long ROWS_PER_CHUNK = 500_000;
+	private static final int MAX_CHUNKS_PER_TABLE = 256;
+	private static final int MAX_STATEMENT_LENGTH = 1024 * 1024;
+	private static final String SESSION_HEADER = "SET NAMES utf8mb4;\nSET time_zone = '+00:00';\n"
+			+ "SET FOREIGN_KEY_CHECKS = 0;\nSET UNIQUE_CHECKS = 0;\n\n";
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	@Override
+	public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
+		String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+		int jobs = Math.max(1, backupConfig.getJobs());
+		List<Connection> workers = new ArrayList<>();
+		ExecutorService executor = null;
+		try {
+			logger.info("Starting native MySQL backup for database: {} with {} connection(s)", databaseName, jobs);
+
+			Path backupPath = BackupPathUtils.createBackupPath(backupConfig,
+					"backup_" + databaseName.toLowerCase(), "");
+			Files.createDirectories(backupPath.resolve(DATA_DIRECTORY));
+			logger.debug("Created backup directory at: {}", backupPath);
+
+			openSnapshotConnections(backupConfig.getConnectionParams(), jobs, workers);
+
+			Connection primary = workers.get(0);
+			List<String> tables = listObjects(primary, databaseName, "BASE TABLE");
+			writeSchema(primary, databaseName, tables, backupPath.resolve(SCHEMA_FILE));
+
+			Queue<Chunk> chunks = new ConcurrentLinkedQueue<>(planChunks(primary, databaseName, tables));
+			logger.info("Dumping {} table(s) as {} chunk(s)", tables.size(), chunks.size());
+
+			executor = Executors.newFixedThreadPool(workers.size());
+			List<Future<Long>> results = new ArrayList<>();
+			for (Connection connection : workers) {
+				results.add(executor.submit(() -> drainChunks(connection, chunks, backupPath)));
+			}
+
+			long rows = 0;
+			for (Future<Long> result : results) {
+				rows += result.get();
+			}
+			logger.info("Native dump completed: {} row(s) written to {}", rows, backupPath);
+
+			Path compressedPath = compressBackup(backupConfig, backupPath, "backup_" + databaseName.toLowerCase());
+
+			logger.info("Backup compressed successfully at: {}", compressedPath);
+			return compressedPath;
+
+		} catch (SQLException e) {
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		} catch (ExecutionException e) {
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getCause().getMessage();
+			logger.error(error, e.getCause());
+			throw new BackupExecutionException(error, e.getCause());
+		} catch (IOException | InterruptedException e) {
+			Thread.currentThread().interrupt();
+			String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+			logger.error(error, e);
+			throw new BackupExecutionException(error, e);
+		} finally {
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			workers.forEach(this::closeQuietly);
+		}
+	}
+
+	// FLUSH TABLES WITH READ LOCK blocks writes just long enough for every worker to open its snapshot,
+	// so all connections see exactly the same data. Without the lock (missing RELOAD privilege) separate
+	// snapshots could differ, so the dump falls back to a single connection.
+	private void openSnapshotConnections(ConnectionParams params, int jobs, List<Connection> workers)
+			throws SQLException {
+		try (Connection coordinator = openConnection(params)) {
+			boolean locked = false;
+			if (jobs > 1) {
+				try (Statement statement = coordinator.createStatement()) {
+					statement.execute("FLUSH TABLES WITH READ LOCK");
+					locked = true;
+				} catch (SQLException e) {
+					logger.warn("Could not acquire a global read lock ({}); dumping with a single connection",
+							e.getMessage());
+				}
+			}
+			int connections = locked ? jobs : 1;
+
+			try {
+				for (int i = 0; i < connections; i++) {
+					Connection connection = openConnection(params);
+					workers.add(connection);
+					try (Statement statement = connection.createStatement()) {
+						statement.execute("SET SESSION TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+						statement.execute("SET SESSION time_zone = '+00:00'");
+						statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+					}
+				}
+			} finally {
+				if (locked) {
+					try (Statement statement = coordinator.createStatement()) {
+						statement.execute("UNLOCK TABLES");
+					}
+				}
+			}
+		}
+	}
+
+	private Connection openConnection(ConnectionParams params) throws SQLException {
+		// Keep TINYINT(1) and YEAR as plain numbers so they are written back verbatim.
+		String uri = String.format(
+				"jdbc:mysql://%s:%d/%s?tinyInt1isBit=false&yearIsDateType=false&characterEncoding=UTF-8",
+				params.getHost(), params.getPort(), params.getDatabaseName());
+		return DriverManager.getConnection(uri, params.getUsername(), params.getPassword());
+	}
+
+	private List<String> listObjects(Connection connection, String databaseName, String tableType)
+			throws SQLException {
+		List<String> names = new ArrayList<>();
+		try (PreparedStatement statement = connection.prepareStatement(
+				"SELECT TABLE_NAME FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = ? "
+						+ "ORDER BY TABLE_NAME")) {
+			statement.setString(1, databaseName);
+			statement.setString(2, tableType);
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					names.add(rs.getString(1));
+				}
+			}
+		}
+		return names;
+	}
+
+	private void writeSchema(Connection connection, String databaseName, List<String> tables, Path schemaFile)
+			throws SQLException, IOException {
+		try (Writer writer = Files.newBufferedWriter(schemaFile, StandardCharsets.UTF_8);
+				Statement statement = connection.createStatement()) {
+			writer.write(SESSION_HEADER);
+			for (String table : tables) {
+				try (ResultSet rs = statement.executeQuery("SHOW CREATE TABLE " + quoteIdentifier(table))) {
+					rs.next();
+					writer.write("DROP TABLE IF EXISTS " + quoteIdentifier(table) + ";\n");
+					writer.write(rs.getString(2) + ";\n\n");
+				}
+			}
+			for (String view : listObjects(connection, databaseName, "VIEW")) {
+				try (ResultSet rs = statement.executeQuery("SHOW CREATE VIEW " + quoteIdentifier(view))) {
+					rs.next();
+					writer.write("DROP VIEW IF EXISTS " + quoteIdentifier(view) + ";\n");
+					writer.write(rs.getString(2) + ";\n\n");
+				}
+			}
+		}
+	}
+
+	private List<Chunk> planChunks(Connection connection, String databaseName, List<String> tables)
+			throws SQLException {
+		List<Chunk> chunks = new ArrayList<>();
+		for (String table : tables) {
+			List<String> columns = new ArrayList<>();
+			List<String> primaryKey = new ArrayList<>();
+			String keyType = null;
+			try (PreparedStatement statement = connection.prepareStatement(
+					"SELECT COLUMN_NAME, COLUMN_KEY, DATA_TYPE, EXTRA, GENERATION_EXPRESSION FROM information_schema.COLUMNS "
+							+ "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION")) {
+				statement.setString(1, databaseName);
+				statement.setString(2, table);
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) {
+						if (isGeneratedColumn(rs)) {
+							continue;
+						}
+						columns.add(rs.getString("COLUMN_NAME"));
+						if ("PRI".equals(rs.getString("COLUMN_KEY"))) {
+							primaryKey.add(rs.getString("COLUMN_NAME"));
+							keyType = rs.getString("DATA_TYPE");
+						}
+					}
+				}
+			}
+
+			long estimatedRows = estimateRows(connection, databaseName, table);
+			String columnList = String.join(", ", columns.stream().map(MySQLNativeBackup::quoteIdentifier).toList());
+			int chunkCount = (int) Math.min(MAX_CHUNKS_PER_TABLE, (estimatedRows + ROWS_PER_CHUNK - 1) / ROWS_PER_CHUNK);
+
+			if (chunkCount > 1 && primaryKey.size() == 1 && isIntegerType(keyType)) {
+				String key = quoteIdentifier(primaryKey.get(0));
+				try (Statement statement = connection.createStatement();
+						ResultSet rs = statement.executeQuery(
+								"SELECT MIN(" + key + "), MAX(" + key + ") FROM " + quoteIdentifier(table))) {
+					rs.next();
+					// BIGINT UNSIGNED keys above Long.MAX_VALUE cannot be bound as ranges; such tables stay whole.
+					BigInteger min = rs.getObject(1) != null ? new BigInteger(rs.getString(1)) : null;
+					BigInteger max = rs.getObject(2) != null ? new BigInteger(rs.getString(2)) : null;
+					if (min != null && max != null && min.bitLength() < Long.SIZE && max.bitLength() < Long.SIZE) {
+						List<long[]> ranges = splitRange(min.longValue(), max.longValue(), chunkCount);
+						for (int i = 0; i < ranges.size(); i++) {
+							long[] range = ranges.get(i);
+							chunks.add(new Chunk(table, columnList, i, key, range[0], range[1],
+									estimatedRows / ranges.size()));
+						}
+						continue;
+					}
+				}
+			}
+			chunks.add(new Chunk(table, columnList, 0, null, 0, 0, estimatedRows));
+		}
+		// Largest chunks first so one big table does not start last and dominate the runtime.
+		chunks.sort(Comparator.comparingLong(Chunk::estimatedRows).reversed());
+		return chunks;
+	}
+
+	private long estimateRows(Connection connection, String databaseName, String table) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(
+				"SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?")) {
+			statement.setString(1, databaseName);
+			statement.setString(2, table);
+			try (ResultSet rs = statement.executeQuery()) {
+				return rs.next() ? rs.getLong(1) : 0;
+			}
+		}
+	}
+
+	// Splits the inclusive key range [min, max] into at most `count` contiguous inclusive ranges. A range
+	// wider than a long can count is kept as one chunk.
+	static List<long[]> splitRange(long min, long max, int count) {
+		List<long[]> ranges = new ArrayList<>();
+		long span;
+		try {
+			span = Math.addExact(Math.subtractExact(max, min), 1);
+		} catch (ArithmeticException e) {
+			span = -1;
+		}
+		if (span <= 0 || count <= 1) {
+			ranges.add(new long[] { min, max });
+			return ranges;
+		}
+		long step = Math.max(1, span / count + (span % count == 0 ? 0 : 1));
+		long lower = min;
+		while (true) {
+			long upper = max - lower < step ? max : lower + step - 1;
+			ranges.add(new long[] { lower, upper });
+			if (upper == max) {
+				return ranges;
+			}
+			lower = upper + 1;
+		}
+	}
+
+	private long drainChunks(Connection connection, Queue<Chunk> chunks, Path backupPath)
+			throws SQLException, IOException {
+		long rows = 0;
+		Chunk chunk;
+		while ((chunk = chunks.poll()) != null) {
+			rows += dumpChunk(connection, chunk, backupPath);
+		}
+		return rows;
+	}
+
+	private long dumpChunk(Connection connection, Chunk chunk, Path backupPath) throws SQLException, IOException {
+		String sql = "SELECT " + chunk.columnList() + " FROM " + quoteIdentifier(chunk.table());
+		if (chunk.keyColumn() != null) {
+			sql += " WHERE " + chunk.keyColumn() + " BETWEEN ? AND ?";
+		}
+		Path chunkFile = backupPath.resolve(DATA_DIRECTORY)
+				.resolve(String.format("%s.%04d.sql", fileName(chunk.table()), chunk.index()));
+
+		long rows = 0;
+		try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY);
+				BufferedWriter writer = Files.newBufferedWriter(chunkFile, StandardCharsets.UTF_8)) {
+			// Integer.MIN_VALUE makes Connector/J stream rows one at a time instead of buffering the result.
+			statement.setFetchSize(Integer.MIN_VALUE);
+			if (chunk.keyColumn() != null) {
+				statement.setLong(1, chunk.lower());
+				statement.setLong(2, chunk.upper());
+			}
+
+			writer.write(SESSION_HEADER);
+			String insertPrefix = "INSERT INTO " + quoteIdentifier(chunk.table()) + " (" + chunk.columnList()
+					+ ") VALUES\n";
+			StringBuilder batch = new StringBuilder();
+
+			try (ResultSet rs = statement.executeQuery()) {
+				int columnCount = rs.getMetaData().getColumnCount();
+				int[] types = new int[columnCount];
+				for (int i = 0; i < columnCount; i++) {
+					types[i] = rs.getMetaData().getColumnType(i + 1);
+				}
+
+				while (rs.next()) {
+					batch.append(batch.length() == 0 ? insertPrefix : ",\n").append('(');
+					for (int i = 0; i < columnCount; i++) {
+						if (i > 0) {
+							batch.append(',');
+						}
+						appendLiteral(batch, rs, i + 1, types[i]);
+					}
+					batch.append(')');
+					rows++;
+
+					if (batch.length() >= MAX_STATEMENT_LENGTH) {
+						writer.append(batch).append(";\n");
+						batch.setLength(0);
+					}
+				}
+			}
+			if (batch.length() > 0) {
+				writer.append(batch).append(";\n");
+			}
+		}
+		logger.debug("Dumped {} row(s) of table '{}' chunk {} to {}", rows, chunk.table(), chunk.index(), chunkFile);
+		return rows;
+	}
+
+	static void appendLiteral(StringBuilder sb, ResultSet rs, int column, int sqlType) throws SQLException {
+		switch (sqlType) {
+			case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB, Types.BIT -> {
+				byte[] bytes = rs.getBytes(column);
+				if (bytes == null) {
+					sb.append("NULL");
+				} else if (bytes.length == 0) {
+					sb.append("''");
+				} else {
+					sb.append("0x");
+					for (byte b : bytes) {
+						sb.append(HEX[(b >> 4) & 0x0f]).append(HEX[b & 0x0f]);
+					}
+				}
+			}
+			case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.DECIMAL, Types.NUMERIC,
+					Types.REAL, Types.FLOAT, Types.DOUBLE -> {
+				String value = rs.getString(column);
+				sb.append(value == null ? "NULL" : value);
+			}
+			default -> {
+				String value = rs.getString(column);
+				if (value == null) {
+					sb.append("NULL");
+				} else {
+					appendQuoted(sb, value);
+				}
+			}
+		}
+	}
+
+	private static void appendQuoted(StringBuilder sb, String value) {
+		sb.append('\'');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\0' -> sb.append("\\0");
+				case '\n' -> sb.append("\\n");
+				case '\r' -> sb.append("\\r");
+				case '\u001a' -> sb.append("\\Z");
+				case '\'' -> sb.append("\\'");
+				case '\\' -> sb.append("\\\\");
+				default -> sb.append(c);
+			}
+		}
+		sb.append('\'');
+	}
+
+	private static String quoteIdentifier(String identifier) {
+		return "`" + identifier.replace("`", "``") + "`";
+	}
+
+	// Encodes a table name for use as a file name the way MySQL names its own files: characters other than
+	// ASCII letters, digits and '_' become @ and four hex digits, so `a/b` is written as a@002fb.
+	static String fileName(String table) {
+		StringBuilder sb = new StringBuilder(table.length());
+		for (int i = 0; i < table.length(); i++) {
+			char c = table.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_') {
+				sb.append(c);
+			} else {
+				sb.append('@').append(String.format("%04x", (int) c));
+			}
+		}
+		return sb.toString();
+	}
+
+	// Generated columns are recomputed by the server and cannot be inserted. MySQL 8 also reports
+	// DEFAULT_GENERATED in EXTRA for DEFAULT CURRENT_TIMESTAMP columns, which hold real data and are kept.
+	static boolean isGeneratedColumn(ResultSet column) throws SQLException {
+		String expression = column.getString("GENERATION_EXPRESSION");
+		if (expression != null && !expression.isBlank()) {
+			return true;
+		}
+		String extra = column.getString("EXTRA");
+		extra = extra == null ? "" : extra.toUpperCase(Locale.ROOT);
+		return extra.contains("VIRTUAL GENERATED") || extra.contains("STORED GENERATED");
+	}
+
+	private static boolean isIntegerType(String dataType) {
+		return dataType != null && switch (dataType.toLowerCase()) {
+			case "tinyint", "smallint", "mediumint", "int", "integer", "bigint" -> true;
+			default -> false;
+		};
+	}
+
+	private void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			logger.warn("Failed to close MySQL connection: {}", e.getMessage());
+		}
+	}
+
+	private Path compressBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
+		Path compressedPath;
+		switch (backupConfig.getCompressType()) {
+			case GZIP -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
+				logger.debug("Compressing backup directory using GZIP to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case ZIP -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
+				logger.debug("Compressing backup using ZIP to: {}", compressedPath);
+				CompressUtils.compressZip(backupPath, compressedPath);
+			}
+			case TARGZ -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
+				logger.debug("Compressing backup using TAR.GZ to: {}", compressedPath);
+				CompressUtils.compressTarGz(backupPath, compressedPath);
+			}
+			case ZSTD -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.zst");
+				logger.debug("Compressing backup using ZSTD to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case LZ4 -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.lz4");
+				logger.debug("Compressing backup using LZ4 to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			case SEEKABLE -> {
+				compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.szst");
+				logger.debug("Compressing backup using SEEKABLE to: {}", compressedPath);
+				CompressUtils.compress(backupPath, compressedPath, backupConfig);
+			}
+			default -> {
+				logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
+				compressedPath = backupPath;
+			}
+		}
+		return compressedPath;
+	}
+
+	private record Chunk(String table, String columnList, int index, String keyColumn, long lower, long upper,
+			long estimatedRows) {
+	}
+}
@@ -1,26 +1,40 @@
 package dbu.services.backup;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import dbu.enums.CompressType;
 import dbu.exceptions.BackupExecutionException;
+import dbu.exceptions.StorageExecutionException;
 import dbu.models.BackupConfig;
+import dbu.services.storage.StorageService;
+import dbu.utils.BackupManifest;
 import dbu.utils.BackupPathUtils;
 import dbu.utils.CompressUtils;
 import lombok.RequiredArgsConstructor;
 
 @Service("postgresqlBackup")
 @RequiredArgsConstructor
-public class PostgreSQLBackup implements BackupService {
+public class PostgreSQLBackup implements BackupService, StreamingBackupService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostgreSQLBackup.class);
 
+    private static final int PIPE_BUFFER_SIZE = 1 << 20;
+
     @Override
     public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
         return performBackup(backupConfig, backupConfig.getConnectionParams().getDatabaseName());
@@ -31,17 +45,18 @@ public class PostgreSQLBackup implements BackupService {
         try {
             logger.info("Starting PostgreSQL backup for database: {}", databaseName);
 
+            boolean parallel = backupConfig.getJobs() > 1;
             backupPath = BackupPathUtils.createBackupPath(
                     backupConfig,
                     "backup_" + databaseName.toLowerCase(),
-                    ".sql");
-
-            List<String> command = new ArrayList<>();
-            command.add("pg_dump");
-            command.add("--username=" + backupConfig.getConnectionParams().getUsername());
-            command.add("--host=" + backupConfig.getConnectionParams().getHost());
-            command.add("--port=" + backupConfig.getConnectionParams().getPort());
-            command.add("--dbname=" + databaseName);
+                    parallel ? "" : ".sql");
+
+            List<String> command = buildDumpCommand(backupConfig, databaseName);
+            if (parallel) {
+                // Parallel dumps are only supported by the directory format; pg_dump creates the directory.
+                command.add("--format=directory");
+                command.add("--jobs=" + backupConfig.getJobs());
+            }
             command.add("--file=" + backupPath.toString());
 
             logger.debug("Executing pg_dump with command: {}", String.join(" ", command));
@@ -73,13 +88,129 @@ public class PostgreSQLBackup implements BackupService {
         }
     }
 
+    @Override
+    public String backupToStorage(BackupConfig backupConfig, StorageService storageService)
+            throws BackupExecutionException {
+        String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+        CompressType compressType = backupConfig.getCompressType();
+        if (!CompressUtils.supportsStreaming(compressType)) {
+            throw new BackupExecutionException(
+                    "Compression type " + compressType + " cannot be streamed to cloud storage");
+        }
+
+        String prefix = "backup_" + databaseName.toLowerCase();
+        String key = backupConfig.getUploadKey() != null && !backupConfig.getUploadKey().isBlank()
+                ? backupConfig.getUploadKey()
+                : BackupPathUtils.createBackupFileName(prefix, CompressUtils.streamingExtension(compressType, ".sql"));
+
+        if (backupConfig.getJobs() > 1) {
+            // Parallel pg_dump needs the directory format, which cannot be written to a single stream.
+            logger.warn("--jobs={} is ignored when uploading: pg_dump streams a plain dump with one job",
+                    backupConfig.getJobs());
+        }
+
+        ExecutorService compressor = Executors.newSingleThreadExecutor();
+        Process process = null;
+        String url = null;
+        try {
+            logger.info("Starting PostgreSQL dump-to-storage pipeline for database '{}' with key '{}'",
+                    databaseName, key);
+
+            List<String> command = buildDumpCommand(backupConfig, databaseName);
+            logger.debug("Executing pg_dump with command: {}", String.join(" ", command));
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.environment().put("PGPASSWORD", backupConfig.getConnectionParams().getPassword());
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            process = pb.start();
+            InputStream dumpStream = process.getInputStream();
+
+            // pg_dump -> compressor -> bounded pipe -> multipart upload, all running concurrently.
+            PipedInputStream uploadSource = new PipedInputStream(PIPE_BUFFER_SIZE);
+            PipedOutputStream compressedSink = new PipedOutputStream(uploadSource);
+            Future<?> compression = compressor.submit(() -> {
+                CompressUtils.compressStream(dumpStream, compressedSink, backupConfig, prefix + ".sql");
+                return null;
+            });
+
+            try (uploadSource) {
+                url = storageService.uploadStream(key, uploadSource);
+            }
+            compression.get();
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                deleteUploadedObject(storageService, key);
+                String error = "pg_dump failed with exit code: " + exitCode;
+                logger.error(error);
+                throw new BackupExecutionException(error);
+            }
+
+            logger.info("pg_dump streamed and uploaded successfully: {}", url);
+            return url;
+
+        } catch (ExecutionException e) {
+            if (url != null) {
+                deleteUploadedObject(storageService, key);
+            }
+            String error = "Compression failed while streaming database: " + databaseName + " - "
+                    + e.getCause().getMessage();
+            logger.error(error, e);
+            throw new BackupExecutionException(error, e.getCause());
+        } catch (StorageExecutionException e) {
+            String error = "Upload failed while streaming database: " + databaseName + " - " + e.getMessage();
+            logger.error(error, e);
+            throw new BackupExecutionException(error, e);
+        } catch (IOException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String error = "PostgreSQL backup failed for database: " + databaseName + " - " + e.getMessage();
+            logger.error(error, e);
+            throw new BackupExecutionException(error, e);
+        } finally {
+            compressor.shutdownNow();
+            if (process != null && process.isAlive()) {
+                process.destroy();
+            }
+        }
+    }
+
+    private List<String> buildDumpCommand(BackupConfig backupConfig, String databaseName) {
+        List<String> command = new ArrayList<>();
+        command.add("pg_dump");
+        command.add("--username=" + backupConfig.getConnectionParams().getUsername());
+        command.add("--host=" + backupConfig.getConnectionParams().getHost());
+        command.add("--port=" + backupConfig.getConnectionParams().getPort());
+        command.add("--dbname=" + databaseName);
+        return command;
+    }
+
+    private void deleteUploadedObject(StorageService storageService, String key) {
+        try {
+            storageService.deleteFile(key);
+            storageService.deleteFile(key + BackupManifest.EXTENSION);
+            logger.info("Removed incomplete upload '{}'", key);
+        } catch (StorageExecutionException e) {
+            logger.warn("Failed to remove incomplete upload '{}': {}", key, e.getMessage());
+        }
+    }
+
     private Path compressBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
         Path compressedPath;
         switch (backupConfig.getCompressType()) {
             case GZIP -> {
-                compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".gzip");
-                logger.debug("Compressing backup using GZIP to: {}", compressedPath);
-                CompressUtils.compressGzip(backupPath, compressedPath);
+                if (Files.isDirectory(backupPath)) {
+                    compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
+                    logger.debug("Compressing backup directory using GZIP to: {}", compressedPath);
+                    CompressUtils.compress(backupPath, compressedPath, backupConfig);
+                } else {
+                    compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".gzip");
+                    logger.debug("Compressing backup using GZIP to: {}", compressedPath);
+                    if (backupConfig.getCompressThreads() > 1 || backupConfig.getCompressLevel() != null) {
+                        CompressUtils.compress(backupPath, compressedPath, backupConfig);
+                    } else {
+                        CompressUtils.compressGzip(backupPath, compressedPath);
+                    }
+                }
             }
             case ZIP -> {
                 compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
@@ -91,6 +222,24 @@ public class PostgreSQLBackup implements BackupService {
                 logger.debug("Compressing backup using TAR.GZ to: {}", compressedPath);
                 CompressUtils.compressTarGz(backupPath, compressedPath);
             }
+            case ZSTD -> {
+                compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix,
+                        Files.isDirectory(backupPath) ? ".tar.zst" : ".zst");
+                logger.debug("Compressing backup using ZSTD to: {}", compressedPath);
+                CompressUtils.compress(backupPath, compressedPath, backupConfig);
+            }
+            case LZ4 -> {
+                compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix,
+                        Files.isDirectory(backupPath) ? ".tar.lz4" : ".lz4");
+                logger.debug("Compressing backup using LZ4 to: {}", compressedPath);
+                CompressUtils.compress(backupPath, compressedPath, backupConfig);
+            }
+            case SEEKABLE -> {
+                compressedPath = BackupPathUtils.createBackupPath(backupConfig, prefix,
+                        Files.isDirectory(backupPath) ? ".tar.szst" : ".szst");
+                logger.debug("Compressing backup using SEEKABLE to: {}", compressedPath);
+                CompressUtils.compress(backupPath, compressedPath, backupConfig);
+            }
             default -> {
                 logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
                 compressedPath = backupPath;
@@ -0,0 +1,402 @@
+package dbu.services.backup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dbu.enums.CompressType;
+import dbu.exceptions.BackupExecutionException;
+import dbu.models.BackupConfig;
+import dbu.models.ConnectionParams;
+import dbu.utils.BackupPathUtils;
+import dbu.utils.CompressUtils;
+import lombok.RequiredArgsConstructor;
+
+// COPY-based alternative to pg_dump. A coordinator exports its snapshot, every worker imports it, and
+// each table is streamed with COPY ... TO STDOUT into its own (optionally compressed) segment under
+// data/. The schema is split like pg_dump sections: pre-data.sql before the data, post-data.sql after.
+@Service("postgresqlNativeBackup")
+@RequiredArgsConstructor
+public class PostgreSQLNativeBackup implements BackupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgreSQLNativeBackup.class);
+
+    static final String PRE_DATA_FILE = "pre-data.sql";
+    static final String POST_DATA_FILE = "post-data.sql";
+    static final String TOC_FILE = "toc.tsv";
+    static final String DATA_DIRECTORY = "data";
+
+    private static final int SEGMENT_BUFFER_SIZE = 1 << 16;
+    private static final String USER_NAMESPACES =
+            "n.nspname <> 'information_schema' AND n.nspname NOT LIKE 'pg\\_%'";
+
+    @Override
+    public Path backup(BackupConfig backupConfig) throws BackupExecutionException {
+        String databaseName = backupConfig.getConnectionParams().getDatabaseName();
+        int jobs = Math.max(1, backupConfig.getJobs());
+        List<Connection> workers = new ArrayList<>();
+        ExecutorService executor = null;
+
+        try (Connection coordinator = openConnection(backupConfig.getConnectionParams())) {
+            logger.info("Starting native PostgreSQL backup for database: {} with {} worker(s)", databaseName, jobs);
+
+            Path backupPath = BackupPathUtils.createBackupPath(backupConfig,
+                    "backup_" + databaseName.toLowerCase(), "");
+            Files.createDirectories(backupPath.resolve(DATA_DIRECTORY));
+            logger.debug("Created backup directory at: {}", backupPath);
+
+            String snapshotId = exportSnapshot(coordinator);
+            logger.debug("Exported snapshot: {}", snapshotId);
+            for (int i = 0; i < jobs; i++) {
+                workers.add(importSnapshot(backupConfig.getConnectionParams(), snapshotId));
+            }
+
+            List<TableSegment> tables = listTables(coordinator);
+            writePreData(coordinator, tables, backupPath.resolve(PRE_DATA_FILE));
+            writePostData(coordinator, tables, backupPath.resolve(POST_DATA_FILE));
+
+            // Segments are compressed while copying, so stream codecs need no packaging pass afterwards.
+            boolean compressSegments = isSegmentCodec(backupConfig.getCompressType());
+            Queue<TableSegment> pending = new ConcurrentLinkedQueue<>(tables);
+            executor = Executors.newFixedThreadPool(workers.size());
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (Connection worker : workers) {
+                results.add(executor.submit(() -> drainTables(worker, pending, backupPath, backupConfig,
+                        compressSegments)));
+            }
+
+            List<String> tocLines = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                tocLines.addAll(result.get());
+            }
+            tocLines.sort(null);
+            Files.write(backupPath.resolve(TOC_FILE), tocLines, StandardCharsets.UTF_8);
+            logger.info("Native dump completed: {} table(s) written to {}", tables.size(), backupPath);
+
+            Path resultPath = compressSegments ? backupPath
+                    : packageBackup(backupConfig, backupPath, "backup_" + databaseName.toLowerCase());
+
+            logger.info("Backup completed successfully at: {}", resultPath);
+            return resultPath;
+
+        } catch (SQLException e) {
+            String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+            logger.error(error, e);
+            throw new BackupExecutionException(error, e);
+        } catch (ExecutionException e) {
+            String error = "Native backup failed for database: " + databaseName + " - " + e.getCause().getMessage();
+            logger.error(error, e.getCause());
+            throw new BackupExecutionException(error, e.getCause());
+        } catch (IOException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String error = "Native backup failed for database: " + databaseName + " - " + e.getMessage();
+            logger.error(error, e);
+            throw new BackupExecutionException(error, e);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            workers.forEach(this::closeQuietly);
+        }
+    }
+
+    private Connection openConnection(ConnectionParams params) throws SQLException {
+        String uri = String.format("jdbc:postgresql://%s:%d/%s",
+                params.getHost(), params.getPort(), params.getDatabaseName());
+        return DriverManager.getConnection(uri, params.getUsername(), params.getPassword());
+    }
+
+    // The exporting transaction must stay open until every worker has imported the snapshot.
+    private String exportSnapshot(Connection coordinator) throws SQLException {
+        coordinator.setAutoCommit(false);
+        try (Statement statement = coordinator.createStatement()) {
+            statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+            try (ResultSet rs = statement.executeQuery("SELECT pg_catalog.pg_export_snapshot()")) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private Connection importSnapshot(ConnectionParams params, String snapshotId) throws SQLException {
+        Connection connection = openConnection(params);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ, READ ONLY");
+            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshotId.replace("'", "''") + "'");
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    // Largest tables first, so the longest copy starts immediately instead of trailing at the end.
+    private List<TableSegment> listTables(Connection connection) throws SQLException {
+        List<TableSegment> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT c.oid, n.nspname, c.relname FROM pg_catalog.pg_class c "
+                                + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                                + "WHERE c.relkind = 'r' AND NOT c.relispartition AND " + USER_NAMESPACES
+                                + " ORDER BY c.relpages DESC, n.nspname, c.relname")) {
+            while (rs.next()) {
+                tables.add(new TableSegment(tables.size() + 1, rs.getLong(1), rs.getString(2), rs.getString(3),
+                        new ArrayList<>(), new ArrayList<>()));
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT a.attname, pg_catalog.format_type(a.atttypid, a.atttypmod), a.attnotnull, "
+                        + "pg_catalog.pg_get_expr(d.adbin, d.adrelid), a.attidentity, a.attgenerated "
+                        + "FROM pg_catalog.pg_attribute a LEFT JOIN pg_catalog.pg_attrdef d "
+                        + "ON d.adrelid = a.attrelid AND d.adnum = a.attnum "
+                        + "WHERE a.attrelid = ? AND a.attnum > 0 AND NOT a.attisdropped ORDER BY a.attnum")) {
+            for (TableSegment table : tables) {
+                statement.setLong(1, table.oid());
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        String name = quoteIdentifier(rs.getString(1));
+                        StringBuilder definition = new StringBuilder(name).append(' ').append(rs.getString(2));
+                        String identity = rs.getString(5);
+                        String generated = rs.getString(6);
+                        if ("s".equals(generated)) {
+                            definition.append(" GENERATED ALWAYS AS (").append(rs.getString(4)).append(") STORED");
+                        } else if ("a".equals(identity)) {
+                            definition.append(" GENERATED ALWAYS AS IDENTITY");
+                        } else if ("d".equals(identity)) {
+                            definition.append(" GENERATED BY DEFAULT AS IDENTITY");
+                        } else if (rs.getString(4) != null) {
+                            definition.append(" DEFAULT ").append(rs.getString(4));
+                        }
+                        if (rs.getBoolean(3)) {
+                            definition.append(" NOT NULL");
+                        }
+                        table.columnDefinitions().add(definition.toString());
+                        // Generated columns are recomputed on restore and cannot be copied in.
+                        if (!"s".equals(generated)) {
+                            table.copyColumns().add(name);
+                        }
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    private void writePreData(Connection connection, List<TableSegment> tables, Path preDataFile)
+            throws SQLException, IOException {
+        try (Writer writer = Files.newBufferedWriter(preDataFile, StandardCharsets.UTF_8);
+                Statement statement = connection.createStatement()) {
+            Set<String> schemas = new LinkedHashSet<>();
+            tables.forEach(table -> schemas.add(table.schema()));
+            for (String schema : schemas) {
+                if (!"public".equals(schema)) {
+                    writer.write("CREATE SCHEMA IF NOT EXISTS " + quoteIdentifier(schema) + ";\n");
+                }
+            }
+
+            // Identity sequences are created together with their table.
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT n.nspname, c.relname, s.seqtypid::regtype, s.seqstart, s.seqincrement, s.seqmin, "
+                            + "s.seqmax, s.seqcache, s.seqcycle FROM pg_catalog.pg_sequence s "
+                            + "JOIN pg_catalog.pg_class c ON c.oid = s.seqrelid "
+                            + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                            + "WHERE " + USER_NAMESPACES + " AND NOT EXISTS (SELECT 1 FROM pg_catalog.pg_depend d "
+                            + "WHERE d.objid = c.oid AND d.deptype = 'i') ORDER BY n.nspname, c.relname")) {
+                while (rs.next()) {
+                    writer.write("CREATE SEQUENCE IF NOT EXISTS " + qualifiedName(rs.getString(1), rs.getString(2))
+                            + " AS " + rs.getString(3) + " START WITH " + rs.getLong(4) + " INCREMENT BY "
+                            + rs.getLong(5) + " MINVALUE " + rs.getLong(6) + " MAXVALUE " + rs.getLong(7)
+                            + " CACHE " + rs.getLong(8) + (rs.getBoolean(9) ? " CYCLE" : " NO CYCLE") + ";\n");
+                }
+            }
+
+            for (TableSegment table : tables) {
+                writer.write("\nCREATE TABLE " + table.qualifiedName() + " (\n    "
+                        + String.join(",\n    ", table.columnDefinitions()) + "\n);\n");
+            }
+        }
+    }
+
+    // Indexes and constraints are built after the data is loaded; foreign keys come last because
+    // they depend on the referenced primary and unique keys.
+    private void writePostData(Connection connection, List<TableSegment> tables, Path postDataFile)
+            throws SQLException, IOException {
+        List<String> indexes = new ArrayList<>();
+        List<String> constraints = new ArrayList<>();
+        List<String> foreignKeys = new ArrayList<>();
+
+        try (PreparedStatement indexStatement = connection.prepareStatement(
+                "SELECT pg_catalog.pg_get_indexdef(i.indexrelid) FROM pg_catalog.pg_index i "
+                        + "WHERE i.indrelid = ? AND NOT EXISTS (SELECT 1 FROM pg_catalog.pg_constraint c "
+                        + "WHERE c.conindid = i.indexrelid AND c.contype IN ('p', 'u', 'x'))");
+                PreparedStatement constraintStatement = connection.prepareStatement(
+                        "SELECT conname, contype, pg_catalog.pg_get_constraintdef(oid) "
+                                + "FROM pg_catalog.pg_constraint WHERE conrelid = ? "
+                                + "AND contype IN ('p', 'u', 'x', 'c', 'f') ORDER BY conname")) {
+            for (TableSegment table : tables) {
+                indexStatement.setLong(1, table.oid());
+                try (ResultSet rs = indexStatement.executeQuery()) {
+                    while (rs.next()) {
+                        indexes.add(rs.getString(1) + ";");
+                    }
+                }
+
+                constraintStatement.setLong(1, table.oid());
+                try (ResultSet rs = constraintStatement.executeQuery()) {
+                    while (rs.next()) {
+                        String statement = "ALTER TABLE ONLY " + table.qualifiedName() + " ADD CONSTRAINT "
+                                + quoteIdentifier(rs.getString(1)) + " " + rs.getString(3) + ";";
+                        if ("f".equals(rs.getString(2))) {
+                            foreignKeys.add(statement);
+                        } else {
+                            constraints.add(statement);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<String> sequenceValues = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT schemaname, sequencename, last_value FROM pg_catalog.pg_sequences "
+                                + "WHERE last_value IS NOT NULL ORDER BY schemaname, sequencename")) {
+            while (rs.next()) {
+                String sequence = qualifiedName(rs.getString(1), rs.getString(2));
+                sequenceValues.add("SELECT pg_catalog.setval('" + sequence.replace("'", "''") + "', "
+                        + rs.getLong(3) + ", true);");
+            }
+        }
+
+        try (Writer writer = Files.newBufferedWriter(postDataFile, StandardCharsets.UTF_8)) {
+            for (List<String> section : List.of(constraints, indexes, foreignKeys, sequenceValues)) {
+                for (String statement : section) {
+                    writer.write(statement + "\n");
+                }
+            }
+        }
+    }
+
+    private List<String> drainTables(Connection connection, Queue<TableSegment> pending, Path backupPath,
+            BackupConfig backupConfig, boolean compressSegments) throws SQLException, IOException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        String extension = compressSegments ? segmentExtension(backupConfig.getCompressType()) : "";
+        List<String> tocLines = new ArrayList<>();
+
+        TableSegment table;
+        while ((table = pending.poll()) != null) {
+            String segmentName = String.format("%04d.copy%s", table.index(), extension);
+            Path segment = backupPath.resolve(DATA_DIRECTORY).resolve(segmentName);
+            long rows = copyTable(copyManager, table, segment, compressSegments ? backupConfig : null);
+            tocLines.add(String.join("\t", String.format("%04d", table.index()), table.schema(), table.name(),
+                    String.join(",", table.copyColumns()), DATA_DIRECTORY + "/" + segmentName, String.valueOf(rows)));
+        }
+        return tocLines;
+    }
+
+    // Streams one table through COPY into its segment; a null config writes the segment uncompressed.
+    static long copyTable(CopyManager copyManager, TableSegment table, Path segment, BackupConfig backupConfig)
+            throws SQLException, IOException {
+        String sql = "COPY " + table.qualifiedName() + " (" + String.join(", ", table.copyColumns())
+                + ") TO STDOUT";
+        OutputStream fileStream = new BufferedOutputStream(Files.newOutputStream(segment), SEGMENT_BUFFER_SIZE);
+        try (OutputStream out = backupConfig != null
+                ? CompressUtils.newCompressorStream(fileStream, backupConfig)
+                : fileStream) {
+            long rows = copyManager.copyOut(sql, out);
+            logger.debug("Copied {} row(s) of table {} to {}", rows, table.qualifiedName(), segment);
+            return rows;
+        }
+    }
+
+    static String segmentExtension(CompressType compressType) {
+        return switch (compressType) {
+            case GZIP -> ".gz";
+            case ZSTD -> ".zst";
+            case LZ4 -> ".lz4";
+            default -> "";
+        };
+    }
+
+    private static boolean isSegmentCodec(CompressType compressType) {
+        return !segmentExtension(compressType).isEmpty();
+    }
+
+    static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String qualifiedName(String schema, String name) {
+        return quoteIdentifier(schema) + "." + quoteIdentifier(name);
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close PostgreSQL connection: {}", e.getMessage());
+        }
+    }
+
+    private Path packageBackup(BackupConfig backupConfig, Path backupPath, String prefix) throws IOException {
+        Path packagedPath;
+        switch (backupConfig.getCompressType()) {
+            case ZIP -> {
+                packagedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".zip");
+                logger.debug("Packaging backup using ZIP to: {}", packagedPath);
+                CompressUtils.compressZip(backupPath, packagedPath);
+            }
+            case TARGZ -> {
+                packagedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.gz");
+                logger.debug("Packaging backup using TAR.GZ to: {}", packagedPath);
+                CompressUtils.compressTarGz(backupPath, packagedPath);
+            }
+            case SEEKABLE -> {
+                packagedPath = BackupPathUtils.createBackupPath(backupConfig, prefix, ".tar.szst");
+                logger.debug("Packaging backup using SEEKABLE to: {}", packagedPath);
+                CompressUtils.compress(backupPath, packagedPath, backupConfig);
+            }
+            default -> {
+                logger.warn("No compression type specified. Returning raw backup path: {}", backupPath);
+                packagedPath = backupPath;
+            }
+        }
+        return packagedPath;
+    }
+
+    record TableSegment(int index, long oid, String schema, String name, List<String> columnDefinitions,
+            List<String> copyColumns) {
+
+        String qualifiedName() {
+            return PostgreSQLNativeBackup.qualifiedName(schema, name);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dbu.services.backup;
+
+import dbu.exceptions.BackupExecutionException;
+import dbu.models.BackupConfig;
+import dbu.services.storage.StorageService;
+
+public interface StreamingBackupService {
+	String backupToStorage(BackupConfig backupConfig, StorageService storageService) throws BackupExecutionException;
+}
@@ -0,0 +1,257 @@
+package dbu.services.catalog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import dbu.enums.CompressType;
+import dbu.enums.DatabaseType;
+import dbu.enums.StorageType;
+import dbu.models.BackupConfig;
+import dbu.models.BackupRecord;
+import dbu.models.StorageFileInfo;
+import dbu.repositories.BackupRecordRepository;
+import dbu.services.storage.StorageService;
+import dbu.utils.BackupManifest;
+import dbu.utils.RangeReader;
+import lombok.RequiredArgsConstructor;
+
+// Persistent catalog of every backup produced and uploaded, so lookups such as "latest backup of a
+// database before a given time" are answered from an indexed table instead of listing buckets.
+@Service
+@RequiredArgsConstructor
+public class BackupCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupCatalogService.class);
+
+    // Backup file names are backup_<database>_<yyyy-MM-dd_HH-mm-ss><extension>, see BackupPathUtils.
+    private static final Pattern BACKUP_NAME = Pattern.compile(
+            "^backup_(.+)_(\\d{4}-\\d{2}-\\d{2}_\\d{2}-\\d{2}-\\d{2})(\\..*)?$");
+    private static final DateTimeFormatter NAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    private final BackupRecordRepository repository;
+
+    // Catalog failures are logged and never fail the backup that produced the file.
+    public BackupRecord recordBackup(BackupConfig backupConfig, Path backupFile) {
+        try {
+            Path absolute = backupFile.toAbsolutePath().normalize();
+            BackupRecord record = repository.findFirstByLocalPath(absolute.toString()).orElseGet(BackupRecord::new);
+            record.setDatabaseName(backupConfig.getConnectionParams().getDatabaseName());
+            record.setDatabaseType(backupConfig.getConnectionParams().getDatabaseType());
+            record.setCompressType(backupConfig.getCompressType());
+            record.setFileName(absolute.getFileName().toString());
+            record.setLocalPath(absolute.toString());
+            record.setCreatedAt(LocalDateTime.now());
+            if (Files.isRegularFile(absolute)) {
+                record.setSize(Files.size(absolute));
+            }
+            BackupManifest manifest = BackupManifest.read(absolute);
+            if (manifest != null) {
+                record.setSha256(manifest.sha256());
+                record.setCrc32c(manifest.crc32c());
+            }
+            BackupRecord saved = repository.save(record);
+            logger.info("Catalogued backup {} of database '{}'", absolute, record.getDatabaseName());
+            return saved;
+        } catch (IOException | DataAccessException e) {
+            logger.warn("Failed to catalogue backup {}: {}", backupFile, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // An upload of a catalogued local backup is matched by its digest; anything else becomes a new entry
+    // described by its object key.
+    @EventListener
+    public void onBackupUploaded(BackupUploadedEvent event) {
+        if (event.key().endsWith(BackupManifest.EXTENSION)) {
+            return;
+        }
+        try {
+            BackupRecord record = repository.findFirstByStorageTypeAndStorageKey(event.storageType(), event.key())
+                    .or(() -> event.sha256() != null
+                            ? repository.findFirstBySha256AndStorageKeyIsNull(event.sha256())
+                            : Optional.empty())
+                    .orElseGet(() -> fromKey(event.key()));
+            record.setStorageType(event.storageType());
+            record.setStorageKey(event.key());
+            record.setUploadedAt(LocalDateTime.now());
+            if (event.size() != null) {
+                record.setSize(event.size());
+            }
+            if (event.sha256() != null) {
+                record.setSha256(event.sha256());
+                record.setCrc32c(event.crc32c());
+            }
+            repository.save(record);
+            logger.info("Catalogued upload of '{}' to {}", event.key(), event.storageType());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to catalogue upload of '{}': {}", event.key(), e.getMessage(), e);
+        }
+    }
+
+    // Digest of a stored object as last catalogued, so local copies can be found without asking the provider.
+    public Optional<String> findSha256(StorageType storageType, String key) {
+        try {
+            return repository.findFirstByStorageTypeAndStorageKey(storageType, key).map(BackupRecord::getSha256);
+        } catch (DataAccessException e) {
+            logger.warn("Catalog lookup of '{}' failed: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public Optional<BackupRecord> findLatest(String databaseName, LocalDateTime before) {
+        return repository.findFirstByDatabaseNameAndCreatedAtLessThanEqualOrderByCreatedAtDesc(databaseName,
+                before != null ? before : LocalDateTime.now());
+    }
+
+    public List<BackupRecord> search(String databaseName, DatabaseType databaseType, StorageType storageType,
+            LocalDateTime from, LocalDateTime to, int limit) {
+        return repository.search(databaseName, databaseType, storageType, from, to,
+                PageRequest.of(0, Math.max(1, limit)));
+    }
+
+    // Incremental: only objects that are new or whose size or modification time changed are written, and
+    // entries whose object disappeared lose their storage location (or are dropped if nothing else is left).
+    @Transactional
+    public SyncResult sync(StorageType storageType, StorageService storageService) {
+        Map<String, BackupRecord> known = new HashMap<>();
+        for (BackupRecord record : repository.findByStorageType(storageType)) {
+            known.put(record.getStorageKey(), record);
+        }
+
+        // A failed listing throws before anything is written, so it can never look like deleted objects.
+        List<StorageFileInfo> files;
+        try (Stream<StorageFileInfo> listing = storageService.streamFiles(null, null)) {
+            files = listing.toList();
+        }
+        Set<String> listedKeys = new HashSet<>();
+        files.forEach(file -> listedKeys.add(file.getName()));
+
+        int added = 0;
+        int updated = 0;
+        for (StorageFileInfo file : files) {
+            if (file.getName().endsWith(BackupManifest.EXTENSION)) {
+                continue;
+            }
+            BackupRecord record = known.get(file.getName());
+            if (record != null && isUnchanged(record, file)) {
+                continue;
+            }
+            if (record == null) {
+                record = fromKey(file.getName());
+                record.setStorageType(storageType);
+                record.setStorageKey(file.getName());
+                added++;
+            } else {
+                updated++;
+            }
+            record.setSize(file.getSize());
+            record.setStorageLastModified(file.getLastModified());
+            String manifestKey = file.getName() + BackupManifest.EXTENSION;
+            if (listedKeys.contains(manifestKey)) {
+                applyManifest(record, storageService, manifestKey);
+            }
+            repository.save(record);
+        }
+
+        int removed = 0;
+        for (BackupRecord record : known.values()) {
+            if (listedKeys.contains(record.getStorageKey())) {
+                continue;
+            }
+            if (record.getLocalPath() != null) {
+                record.setStorageType(null);
+                record.setStorageKey(null);
+                record.setStorageLastModified(null);
+                repository.save(record);
+            } else {
+                repository.delete(record);
+            }
+            removed++;
+        }
+
+        logger.info("Catalog sync with {}: {} added, {} updated, {} removed", storageType, added, updated, removed);
+        return new SyncResult(added, updated, removed);
+    }
+
+    private static boolean isUnchanged(BackupRecord record, StorageFileInfo file) {
+        return record.getSize() != null && record.getSize() == file.getSize()
+                && file.getLastModified() != null
+                && file.getLastModified().equals(record.getStorageLastModified());
+    }
+
+    private void applyManifest(BackupRecord record, StorageService storageService, String manifestKey) {
+        try (RangeReader reader = storageService.openRangeReader(manifestKey)) {
+            BackupManifest manifest = BackupManifest.parse(
+                    new String(reader.read(0, (int) reader.size()), StandardCharsets.UTF_8));
+            record.setSha256(manifest.sha256());
+            record.setCrc32c(manifest.crc32c());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read manifest '{}': {}", manifestKey, e.getMessage());
+        }
+    }
+
+    // Objects uploaded outside this tool keep what their name reveals; the database type is unknown.
+    static BackupRecord fromKey(String key) {
+        BackupRecord record = new BackupRecord();
+        String fileName = Path.of(key).getFileName().toString();
+        record.setFileName(fileName);
+        record.setCompressType(compressTypeOf(fileName));
+        Matcher matcher = BACKUP_NAME.matcher(fileName);
+        if (matcher.matches()) {
+            record.setDatabaseName(matcher.group(1));
+            try {
+                record.setCreatedAt(LocalDateTime.parse(matcher.group(2), NAME_TIMESTAMP));
+            } catch (DateTimeParseException e) {
+                logger.debug("Unparseable timestamp in backup name '{}'", fileName);
+            }
+        }
+        if (record.getCreatedAt() == null) {
+            record.setCreatedAt(LocalDateTime.now());
+        }
+        return record;
+    }
+
+    static CompressType compressTypeOf(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".zip")) {
+            return CompressType.ZIP;
+        } else if (name.endsWith(".tar.gz")) {
+            return CompressType.TARGZ;
+        } else if (name.endsWith(".gz") || name.endsWith(".gzip")) {
+            return CompressType.GZIP;
+        } else if (name.endsWith(".szst")) {
+            return CompressType.SEEKABLE;
+        } else if (name.endsWith(".zst")) {
+            return CompressType.ZSTD;
+        } else if (name.endsWith(".lz4")) {
+            return CompressType.LZ4;
+        }
+        return CompressType.NONE;
+    }
+
+    public record SyncResult(int added, int updated, int removed) {
+    }
+}
@@ -0,0 +1,15 @@
+package dbu.services.catalog;
+
+import dbu.enums.StorageType;
+import dbu.utils.BackupManifest;
+
+// Published by the storage services after every successful upload. Size and digests are null when the
+// uploader does not know them.
+public record BackupUploadedEvent(StorageType storageType, String key, Long size, String sha256, String crc32c) {
+
+    public static BackupUploadedEvent of(StorageType storageType, String key, BackupManifest manifest, Long size) {
+        return manifest != null
+                ? new BackupUploadedEvent(storageType, key, manifest.size(), manifest.sha256(), manifest.crc32c())
+                : new BackupUploadedEvent(storageType, key, size, null, null);
+    }
+}
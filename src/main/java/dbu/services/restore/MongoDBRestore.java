@@ -1,11 +1,18 @@
 package dbu.services.restore;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -13,6 +20,9 @@ import org.springframework.stereotype.Service;
 import dbu.exceptions.RestoreExecutionException;
 import dbu.models.RestoreConfig;
 import dbu.utils.DecompressUtils;
+import dbu.utils.ProcessUtils;
+import dbu.utils.SeekableIndex;
+import dbu.utils.SeekableZstdReader;
 import lombok.RequiredArgsConstructor;
 
 @Service("mongodbRestore")
@@ -21,6 +31,12 @@ public class MongoDBRestore implements RestoreService {
 
     private static final Logger logger = LoggerFactory.getLogger(MongoDBRestore.class);
 
+    private static final String ARCHIVE_EXTENSION = ".archive";
+    private static final List<String> STREAMED_ARCHIVE_EXTENSIONS = List.of(ARCHIVE_EXTENSION,
+            ARCHIVE_EXTENSION + ".zst", ARCHIVE_EXTENSION + ".lz4", ARCHIVE_EXTENSION + ".szst");
+    private static final List<String> MULTI_FILE_EXTENSIONS = List.of(".tar.gz", ".tar.zst", ".tar.lz4", ".tar.szst",
+            ".zip");
+
     @Override
     public boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException {
         return performRestore(restoreConfig);
@@ -34,7 +50,25 @@ public class MongoDBRestore implements RestoreService {
                     restoreConfig.getConnectionParams().getDatabaseName());
 
             Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
-            extractedPath = DecompressUtils.decompressIfNeeded(backupFile);
+            String name = backupFile.getFileName().toString().toLowerCase(Locale.ROOT);
+            boolean gzipArchive = name.endsWith(ARCHIVE_EXTENSION + ".gzip") || name.endsWith(ARCHIVE_EXTENSION + ".gz");
+
+            // Streamed archives are decompressed on the fly into mongorestore's stdin.
+            InputStream archiveStream = null;
+
+            // mongorestore reads gzip archives natively, so those are handed over without a decompression pass.
+            if (gzipArchive) {
+                extractedPath = backupFile;
+            } else if (STREAMED_ARCHIVE_EXTENSIONS.stream().anyMatch(name::endsWith)) {
+                extractedPath = backupFile;
+                archiveStream = DecompressUtils.openDecompressedStream(backupFile);
+            } else if (Files.isDirectory(backupFile)) {
+                extractedPath = resolveDumpLocation(backupFile);
+            } else if (MULTI_FILE_EXTENSIONS.stream().anyMatch(name::endsWith)) {
+                extractedPath = resolveDumpLocation(DecompressUtils.extractArchive(backupFile));
+            } else {
+                extractedPath = DecompressUtils.decompressIfNeeded(backupFile);
+            }
 
             logger.debug("Decompressed path: {}", extractedPath.toAbsolutePath());
 
@@ -44,14 +78,44 @@ public class MongoDBRestore implements RestoreService {
             command.add("--port=" + restoreConfig.getConnectionParams().getPort());
             command.add("--username=" + restoreConfig.getConnectionParams().getUsername());
             command.add("--password=" + restoreConfig.getConnectionParams().getPassword());
-            command.add("--db=" + restoreConfig.getConnectionParams().getDatabaseName());
-            command.add(extractedPath.toString());
+            if (restoreConfig.getJobs() > 1) {
+                command.add("--numParallelCollections=" + restoreConfig.getJobs());
+                command.add("--numInsertionWorkersPerCollection=" + restoreConfig.getJobs());
+            }
+            if (archiveStream != null || gzipArchive || isArchive(extractedPath)) {
+                command.add(archiveStream != null ? "--archive" : "--archive=" + extractedPath);
+                if (gzipArchive) {
+                    command.add("--gzip");
+                }
+                command.add("--nsFrom=$db$.$coll$");
+                command.add("--nsTo=" + restoreConfig.getConnectionParams().getDatabaseName() + ".$coll$");
+            } else {
+                command.add("--db=" + restoreConfig.getConnectionParams().getDatabaseName());
+                if (hasGzipCollections(extractedPath)) {
+                    command.add("--gzip");
+                }
+                command.add(extractedPath.toString());
+            }
 
             logger.debug("Executing mongorestore command: {}", String.join(" ", command));
 
             ProcessBuilder pb = new ProcessBuilder(command);
-            Process process = pb.start();
-            int exitCode = process.waitFor();
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            int exitCode;
+            if (archiveStream != null) {
+                Process process;
+                try {
+                    process = pb.start();
+                } catch (IOException e) {
+                    archiveStream.close();
+                    throw e;
+                }
+                exitCode = ProcessUtils.pipeAndWait(process, archiveStream);
+            } else {
+                Process process = pb.start();
+                exitCode = process.waitFor();
+            }
 
             if (exitCode != 0) {
                 String error = "mongorestore failed with exit code: " + exitCode;
@@ -75,4 +139,165 @@ public class MongoDBRestore implements RestoreService {
             throw new RestoreExecutionException("Unexpected restore error: " + e.getMessage(), e);
         }
     }
+
+    // Collection dumps (<db>/<coll>.bson and its .metadata.json) are read from their own ranges of a
+    // seekable dump directory; a seekable mongodump archive is streamed and filtered with --nsInclude.
+    @Override
+    public boolean restoreObject(RestoreConfig restoreConfig, SeekableZstdReader backup)
+            throws RestoreExecutionException {
+        String collection = restoreConfig.getObjectName();
+        Path scratchDir = null;
+        try {
+            logger.info("Starting MongoDB restore of collection '{}' into database: {}", collection,
+                    restoreConfig.getConnectionParams().getDatabaseName());
+
+            List<SeekableIndex.Entry> entries = backup.index().entries().stream()
+                    .filter(entry -> isCollectionFile(entry.name(), collection))
+                    .toList();
+            List<SeekableIndex.Entry> archives = backup.index().entries().stream()
+                    .filter(entry -> entry.name().endsWith(ARCHIVE_EXTENSION))
+                    .toList();
+            if (entries.isEmpty() && archives.isEmpty()) {
+                throw new RestoreExecutionException("Collection '" + collection
+                        + "' is not in the backup index; partial restore needs a SEEKABLE backup");
+            }
+
+            List<String> command = new ArrayList<>();
+            command.add("mongorestore");
+            command.add("--host=" + restoreConfig.getConnectionParams().getHost());
+            command.add("--port=" + restoreConfig.getConnectionParams().getPort());
+            command.add("--username=" + restoreConfig.getConnectionParams().getUsername());
+            command.add("--password=" + restoreConfig.getConnectionParams().getPassword());
+            if (restoreConfig.getJobs() > 1) {
+                command.add("--numInsertionWorkersPerCollection=" + restoreConfig.getJobs());
+            }
+
+            InputStream archiveStream = null;
+            if (entries.isEmpty()) {
+                archiveStream = backup.openEntries(archives);
+                String namespace = collection.indexOf('.') < 0 ? "*." + collection : collection;
+                command.add("--archive");
+                command.add("--nsInclude=" + namespace);
+                command.add("--nsFrom=$db$.$coll$");
+                command.add("--nsTo=" + restoreConfig.getConnectionParams().getDatabaseName() + ".$coll$");
+            } else {
+                scratchDir = Files.createTempDirectory("dbu-collection-");
+                Path bsonFile = extractCollection(backup, entries, scratchDir);
+                command.add("--db=" + restoreConfig.getConnectionParams().getDatabaseName());
+                command.add("--collection=" + collectionName(collection));
+                if (bsonFile.getFileName().toString().endsWith(".gz")) {
+                    command.add("--gzip");
+                }
+                command.add(bsonFile.toString());
+            }
+
+            logger.debug("Executing mongorestore command: {}", String.join(" ", command));
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            int exitCode;
+            if (archiveStream != null) {
+                Process process;
+                try {
+                    process = pb.start();
+                } catch (IOException e) {
+                    archiveStream.close();
+                    throw e;
+                }
+                exitCode = ProcessUtils.pipeAndWait(process, archiveStream);
+            } else {
+                exitCode = pb.start().waitFor();
+            }
+
+            if (exitCode != 0) {
+                String error = "mongorestore failed with exit code: " + exitCode;
+                logger.error(error);
+                throw new RestoreExecutionException(error);
+            }
+
+            logger.info("MongoDB restore of collection '{}' completed successfully", collection);
+            return true;
+
+        } catch (IOException e) {
+            logger.error("IO exception during MongoDB collection restore", e);
+            throw new RestoreExecutionException("Restore IO error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("MongoDB collection restore interrupted", e);
+            throw new RestoreExecutionException("Restore interrupted: " + e.getMessage(), e);
+        } finally {
+            if (scratchDir != null) {
+                deleteQuietly(scratchDir);
+            }
+        }
+    }
+
+    // Accepts "coll" (any database) or "db.coll".
+    private boolean isCollectionFile(String entryName, String collection) {
+        String file = collection.indexOf('.') < 0
+                ? "/" + collection
+                : "/" + collection.substring(0, collection.indexOf('.')) + "/" + collectionName(collection);
+        return List.of(".bson", ".bson.gz", ".metadata.json", ".metadata.json.gz").stream()
+                .anyMatch(suffix -> ("/" + entryName).endsWith(file + suffix));
+    }
+
+    private String collectionName(String collection) {
+        return collection.substring(collection.indexOf('.') + 1);
+    }
+
+    // The entries are tar fragments; their concatenation is read as a tar stream into a scratch directory.
+    private Path extractCollection(SeekableZstdReader backup, List<SeekableIndex.Entry> entries, Path targetDir)
+            throws IOException, RestoreExecutionException {
+        Path bsonFile = null;
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(backup.openEntries(entries))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextEntry()) != null) {
+                Path target = targetDir.resolve(Path.of(entry.getName()).getFileName().toString());
+                Files.copy(tar, target);
+                if (target.getFileName().toString().matches(".*\\.bson(\\.gz)?")) {
+                    bsonFile = target;
+                }
+            }
+        }
+        if (bsonFile == null) {
+            throw new RestoreExecutionException("No BSON data found for the collection in the backup index");
+        }
+        return bsonFile;
+    }
+
+    private void deleteQuietly(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to delete scratch directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private boolean isArchive(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(ARCHIVE_EXTENSION)
+                && !Files.isDirectory(path);
+    }
+
+    // Native dumps compress each collection file (.bson.gz), which mongorestore reads with --gzip.
+    private boolean hasGzipCollections(Path dumpDir) throws IOException {
+        if (!Files.isDirectory(dumpDir)) {
+            return false;
+        }
+        try (Stream<Path> children = Files.list(dumpDir)) {
+            return children.anyMatch(child -> child.getFileName().toString().endsWith(".bson.gz"));
+        }
+    }
+
+    // An extracted archive holds either a single mongodump archive (streamed ZIP backups) or the
+    // mongodump output directory, whose only child is the per-database directory.
+    private Path resolveDumpLocation(Path extractedDir) throws IOException {
+        try (Stream<Path> children = Files.list(extractedDir)) {
+            List<Path> entries = children.toList();
+            if (entries.size() == 1 && (isArchive(entries.get(0)) || Files.isDirectory(entries.get(0)))) {
+                return entries.get(0);
+            }
+        }
+        return extractedDir;
+    }
 }
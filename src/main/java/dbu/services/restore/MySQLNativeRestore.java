@@ -0,0 +1,441 @@
+package dbu.services.restore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dbu.exceptions.RestoreExecutionException;
+import dbu.models.ConnectionParams;
+import dbu.models.RestoreConfig;
+import dbu.utils.DecompressUtils;
+import dbu.utils.SqlStatementSplitter;
+import lombok.RequiredArgsConstructor;
+
+// JDBC alternative to replaying a dump through one mysql session. Statements are routed to per-table
+// worker connections (hash-partitioned, so each table keeps its order), INSERTs are sent in JDBC
+// batches with unique and foreign-key checks off, secondary indexes and foreign keys are stripped
+// from CREATE TABLE and added once the data is in, and views, triggers and routines run last.
+@Service("mysqlNativeRestore")
+@RequiredArgsConstructor
+public class MySQLNativeRestore implements RestoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MySQLNativeRestore.class);
+
+    private static final int BATCH_STATEMENTS = 32;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final String SCHEMA_FILE = "schema.sql";
+    private static final String DATA_DIRECTORY = "data";
+    private static final String IDENTIFIER = "(`(?:[^`]|``)+`|[\\w$]+)";
+    private static final String SESSION_INIT = "SET SESSION unique_checks = 0, foreign_key_checks = 0";
+
+    private static final Pattern INSERT = Pattern.compile(
+            "^(?:INSERT|REPLACE)\\s+(?:(?:LOW_PRIORITY|DELAYED|HIGH_PRIORITY|IGNORE)\\s+)*INTO\\s+" + IDENTIFIER,
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE_DDL = Pattern.compile(
+            "^(CREATE\\s+TABLE(?:\\s+IF\\s+NOT\\s+EXISTS)?|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?|ALTER\\s+TABLE"
+                    + "|TRUNCATE(?:\\s+TABLE)?)\\s+" + IDENTIFIER,
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern SESSION = Pattern.compile("^(?:/\\*!\\d*\\s*)?SET\\s", Pattern.CASE_INSENSITIVE);
+    // Database switches are dropped so the dump lands in the target database; table locks and
+    // DISABLE/ENABLE KEYS would only serialise the parallel load.
+    private static final Pattern SKIPPED = Pattern.compile(
+            "^(?:/\\*!\\d*\\s*)?(?:USE\\s|CREATE\\s+DATABASE|DROP\\s+DATABASE|LOCK\\s+TABLES|UNLOCK\\s+TABLES"
+                    + "|ALTER\\s+TABLE\\s+\\S+\\s+(?:DISABLE|ENABLE)\\s+KEYS)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern FIRST_KEY_COLUMN = Pattern.compile("\\(\\s*`((?:[^`]|``)+)`");
+
+    private static final SqlTask END = new SqlTask(null, null, false);
+
+    @Override
+    public boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException {
+        String databaseName = restoreConfig.getConnectionParams().getDatabaseName();
+        int jobs = Math.max(1, restoreConfig.getJobs());
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+
+        try {
+            logger.info("Starting native MySQL restore for database: {} with {} connection(s)", databaseName, jobs);
+            for (int i = 0; i < jobs; i++) {
+                connections.add(openConnection(restoreConfig.getConnectionParams()));
+            }
+
+            RestorePlan plan = new RestorePlan();
+            Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
+            Path dumpDir = isArchiveOrDirectory(backupFile) ? DecompressUtils.extractArchive(backupFile) : null;
+
+            if (dumpDir != null && Files.exists(dumpDir.resolve(SCHEMA_FILE))) {
+                logger.debug("Restoring native dump directory: {}", dumpDir);
+                try (InputStream schema = Files.newInputStream(dumpDir.resolve(SCHEMA_FILE))) {
+                    replay(schema, connections, executor, plan);
+                }
+                loadChunkFiles(dumpDir.resolve(DATA_DIRECTORY), connections, executor, plan);
+            } else {
+                Path sqlSource = dumpDir != null ? singleSqlFile(dumpDir) : backupFile;
+                logger.debug("Streaming SQL dump from: {}", sqlSource);
+                try (InputStream sql = DecompressUtils.openDecompressedStream(sqlSource)) {
+                    replay(sql, connections, executor, plan);
+                }
+            }
+            logger.info("Data loaded, building secondary indexes for {} table(s)", plan.indexes.size());
+
+            runPerTable(plan.indexes, plan, connections, executor);
+            runPerTable(plan.foreignKeys, plan, connections, executor);
+
+            Connection control = connections.get(0);
+            try (Statement statement = control.createStatement()) {
+                for (String sql : plan.deferred) {
+                    statement.execute(sql);
+                }
+            }
+            control.commit();
+
+            logger.info("Native MySQL restore completed successfully for database: {}", databaseName);
+            return true;
+
+        } catch (SQLException e) {
+            logger.error("SQL error during native MySQL restore", e);
+            throw new RestoreExecutionException("Restore SQL error: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            logger.error("Worker failed during native MySQL restore", e.getCause());
+            throw new RestoreExecutionException("Restore SQL error: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            logger.error("IO exception during native MySQL restore", e);
+            throw new RestoreExecutionException("Restore IO error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Native MySQL restore interrupted", e);
+            throw new RestoreExecutionException("Restore interrupted: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            connections.forEach(this::closeQuietly);
+        }
+    }
+
+    private Connection openConnection(ConnectionParams params) throws SQLException {
+        String uri = String.format("jdbc:mysql://%s:%d/%s?rewriteBatchedStatements=true&characterEncoding=UTF-8",
+                params.getHost(), params.getPort(), params.getDatabaseName());
+        Connection connection = DriverManager.getConnection(uri, params.getUsername(), params.getPassword());
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SESSION_INIT);
+        }
+        return connection;
+    }
+
+    private boolean isArchiveOrDirectory(Path backupFile) {
+        String name = backupFile.getFileName().toString().toLowerCase(Locale.ROOT);
+        return Files.isDirectory(backupFile) || name.endsWith(".zip") || name.endsWith(".tar.gz")
+                || name.endsWith(".tar.zst") || name.endsWith(".tar.lz4") || name.endsWith(".tar.szst");
+    }
+
+    private Path singleSqlFile(Path dumpDir) throws IOException {
+        try (Stream<Path> files = Files.walk(dumpDir)) {
+            List<Path> sqlFiles = files.filter(Files::isRegularFile).toList();
+            if (sqlFiles.size() != 1) {
+                throw new IOException("Expected a native dump or a single SQL file in: " + dumpDir);
+            }
+            return sqlFiles.get(0);
+        }
+    }
+
+    // Reads the script once, sending each table's statements to the same worker in order. Session
+    // settings go to every worker and to the deferred list, so later statements see the same session.
+    private void replay(InputStream input, List<Connection> connections, ExecutorService executor,
+            RestorePlan plan) throws IOException, InterruptedException, ExecutionException {
+        List<BlockingQueue<SqlTask>> queues = new ArrayList<>();
+        List<Future<?>> workers = new ArrayList<>();
+        for (Connection connection : connections) {
+            BlockingQueue<SqlTask> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            workers.add(executor.submit(() -> {
+                runWorker(connection, queue, plan);
+                return null;
+            }));
+        }
+
+        try (SqlStatementSplitter splitter = new SqlStatementSplitter(
+                new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String sql;
+            while ((sql = splitter.next()) != null) {
+                Matcher insert = INSERT.matcher(sql);
+                Matcher ddl = TABLE_DDL.matcher(sql);
+                if (SKIPPED.matcher(sql).find()) {
+                    continue;
+                } else if (SESSION.matcher(sql).find()) {
+                    for (BlockingQueue<SqlTask> queue : queues) {
+                        dispatch(queue, new SqlTask(sql, null, false), workers);
+                    }
+                    plan.deferred.add(sql);
+                } else if (insert.find()) {
+                    String table = unquote(insert.group(1));
+                    dispatch(queues.get(Math.floorMod(table.hashCode(), queues.size())),
+                            new SqlTask(sql, table, true), workers);
+                } else if (ddl.find()) {
+                    String table = unquote(ddl.group(2));
+                    if (ddl.group(1).toUpperCase(Locale.ROOT).startsWith("CREATE")) {
+                        sql = deferSecondaryIndexes(sql, table, plan);
+                    }
+                    dispatch(queues.get(Math.floorMod(table.hashCode(), queues.size())),
+                            new SqlTask(sql, table, false), workers);
+                } else {
+                    plan.deferred.add(sql);
+                }
+            }
+        } finally {
+            for (BlockingQueue<SqlTask> queue : queues) {
+                dispatch(queue, END, workers);
+            }
+        }
+
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private void dispatch(BlockingQueue<SqlTask> queue, SqlTask task, List<Future<?>> workers)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(task, 1, TimeUnit.SECONDS)) {
+            for (Future<?> worker : workers) {
+                if (worker.isDone()) {
+                    worker.get();
+                }
+            }
+        }
+    }
+
+    private void runWorker(Connection connection, BlockingQueue<SqlTask> queue, RestorePlan plan)
+            throws SQLException, InterruptedException {
+        try (Statement statement = connection.createStatement()) {
+            int batched = 0;
+            while (true) {
+                SqlTask task = batched == 0 ? queue.take() : queue.poll();
+                if (task == null || task == END || !task.data()) {
+                    if (batched > 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                        batched = 0;
+                    }
+                    if (task == END) {
+                        break;
+                    }
+                    if (task != null) {
+                        statement.execute(task.sql());
+                    }
+                    continue;
+                }
+
+                statement.addBatch(task.sql());
+                plan.loadedBytes.computeIfAbsent(task.table(), key -> new LongAdder()).add(task.sql().length());
+                if (++batched >= BATCH_STATEMENTS) {
+                    statement.executeBatch();
+                    connection.commit();
+                    batched = 0;
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    // Native dumps already split every table into chunk files, so the files are loaded in parallel
+    // even when they belong to the same table.
+    private void loadChunkFiles(Path dataDir, List<Connection> connections, ExecutorService executor,
+            RestorePlan plan) throws IOException, InterruptedException, ExecutionException {
+        Queue<Path> files;
+        try (Stream<Path> listing = Files.list(dataDir)) {
+            files = new ConcurrentLinkedQueue<>(listing.sorted(Comparator.comparingLong(this::sizeOf).reversed())
+                    .toList());
+        }
+        logger.info("Loading {} data file(s)", files.size());
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (Connection connection : connections) {
+            workers.add(executor.submit(() -> {
+                Path file;
+                while ((file = files.poll()) != null) {
+                    loadFile(connection, file, plan);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private void loadFile(Connection connection, Path file, RestorePlan plan) throws IOException, SQLException {
+        try (SqlStatementSplitter splitter = new SqlStatementSplitter(
+                new InputStreamReader(DecompressUtils.openDecompressedStream(file), StandardCharsets.UTF_8));
+                Statement statement = connection.createStatement()) {
+            int batched = 0;
+            String sql;
+            while ((sql = splitter.next()) != null) {
+                Matcher insert = INSERT.matcher(sql);
+                if (!insert.find()) {
+                    statement.execute(sql);
+                    continue;
+                }
+                statement.addBatch(sql);
+                plan.loadedBytes.computeIfAbsent(unquote(insert.group(1)), key -> new LongAdder())
+                        .add(sql.length());
+                if (++batched >= BATCH_STATEMENTS) {
+                    statement.executeBatch();
+                    connection.commit();
+                    batched = 0;
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        logger.debug("Loaded data file: {}", file);
+    }
+
+    // Largest tables first, so their index builds start while the small ones fill the other workers.
+    private void runPerTable(Map<String, String> statements, RestorePlan plan, List<Connection> connections,
+            ExecutorService executor) throws InterruptedException, ExecutionException {
+        Queue<String> tables = new ConcurrentLinkedQueue<>(statements.keySet().stream()
+                .sorted(Comparator.comparingLong(plan::loadedBytes).reversed())
+                .toList());
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (Connection connection : connections) {
+            workers.add(executor.submit(() -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(SESSION_INIT);
+                    String table;
+                    while ((table = tables.poll()) != null) {
+                        logger.debug("Adding deferred indexes/constraints on table: {}", table);
+                        statement.execute(statements.get(table));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    // Removes secondary indexes and foreign keys from a CREATE TABLE statement (one definition per line,
+    // as written by mysqldump and SHOW CREATE TABLE) and records them as ALTER TABLE statements.
+    static String deferSecondaryIndexes(String createTable, String table, RestorePlan plan) {
+        String[] lines = createTable.split("\n");
+        if (lines.length < 3 || !lines[lines.length - 1].trim().startsWith(")")) {
+            return createTable;
+        }
+
+        String autoIncrementColumn = null;
+        for (int i = 1; i < lines.length - 1; i++) {
+            String line = lines[i].trim();
+            if (line.startsWith("`") && line.toUpperCase(Locale.ROOT).contains(" AUTO_INCREMENT")) {
+                autoIncrementColumn = line.substring(1, line.indexOf('`', 1));
+            }
+        }
+
+        List<String> kept = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        List<String> foreignKeys = new ArrayList<>();
+        for (int i = 1; i < lines.length - 1; i++) {
+            String definition = lines[i].trim();
+            if (definition.endsWith(",")) {
+                definition = definition.substring(0, definition.length() - 1);
+            }
+            String upper = definition.toUpperCase(Locale.ROOT);
+            if (upper.startsWith("CONSTRAINT ") && upper.contains(" FOREIGN KEY ")) {
+                foreignKeys.add("ADD " + definition);
+            } else if ((upper.startsWith("KEY ") || upper.startsWith("INDEX ") || upper.startsWith("FULLTEXT ")
+                    || upper.startsWith("SPATIAL ")) && !indexesColumn(definition, autoIncrementColumn)) {
+                indexes.add("ADD " + definition);
+            } else {
+                kept.add("  " + definition);
+            }
+        }
+
+        String quoted = "`" + table.replace("`", "``") + "`";
+        if (!indexes.isEmpty()) {
+            plan.indexes.put(table, "ALTER TABLE " + quoted + " " + String.join(", ", indexes));
+        }
+        if (!foreignKeys.isEmpty()) {
+            plan.foreignKeys.put(table, "ALTER TABLE " + quoted + " " + String.join(", ", foreignKeys));
+        }
+        return lines[0] + "\n" + String.join(",\n", kept) + "\n" + lines[lines.length - 1];
+    }
+
+    // AUTO_INCREMENT columns must lead some index at creation time, so such keys stay in place.
+    private static boolean indexesColumn(String definition, String column) {
+        if (column == null) {
+            return false;
+        }
+        Matcher matcher = FIRST_KEY_COLUMN.matcher(definition);
+        return matcher.find() && matcher.group(1).equals(column);
+    }
+
+    private static String unquote(String identifier) {
+        if (identifier.startsWith("`") && identifier.endsWith("`")) {
+            return identifier.substring(1, identifier.length() - 1).replace("``", "`");
+        }
+        return identifier;
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close MySQL connection: {}", e.getMessage());
+        }
+    }
+
+    static class RestorePlan {
+        final Map<String, String> indexes = new LinkedHashMap<>();
+        final Map<String, String> foreignKeys = new LinkedHashMap<>();
+        final List<String> deferred = new ArrayList<>();
+        final Map<String, LongAdder> loadedBytes = new ConcurrentHashMap<>();
+
+        long loadedBytes(String table) {
+            LongAdder bytes = loadedBytes.get(table);
+            return bytes != null ? bytes.sum() : 0;
+        }
+    }
+
+    private record SqlTask(String sql, String table, boolean data) {
+    }
+}
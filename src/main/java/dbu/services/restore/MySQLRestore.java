@@ -1,6 +1,7 @@
 package dbu.services.restore;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -13,6 +14,9 @@ import org.springframework.stereotype.Service;
 import dbu.exceptions.RestoreExecutionException;
 import dbu.models.RestoreConfig;
 import dbu.utils.DecompressUtils;
+import dbu.utils.ProcessUtils;
+import dbu.utils.SeekableIndex;
+import dbu.utils.SeekableZstdReader;
 import lombok.RequiredArgsConstructor;
 
 @Service("mysqlRestore")
@@ -23,17 +27,32 @@ public class MySQLRestore implements RestoreService {
 
     @Override
     public boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException {
-        return performRestore(restoreConfig);
+        return performRestore(restoreConfig, null);
     }
 
-    private boolean performRestore(RestoreConfig restoreConfig) throws RestoreExecutionException {
+    @Override
+    public boolean restoreObject(RestoreConfig restoreConfig, SeekableZstdReader backup)
+            throws RestoreExecutionException {
+        return performRestore(restoreConfig, backup);
+    }
+
+    private boolean performRestore(RestoreConfig restoreConfig, SeekableZstdReader backup)
+            throws RestoreExecutionException {
         Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
         try {
             logger.info("Starting MySQL restore for database: {}",
                     restoreConfig.getConnectionParams().getDatabaseName());
 
-            Path sqlFile = DecompressUtils.decompressIfNeeded(backupFile);
-            logger.debug("Decompressed SQL file path: {}", sqlFile.toAbsolutePath());
+            // The dump is decompressed on the fly straight into the client's stdin. A single table is read
+            // from the ranges the seekable index records for it.
+            InputStream sqlStream;
+            if (backup != null) {
+                sqlStream = openTable(backup, restoreConfig.getObjectName());
+                logger.debug("Streaming table '{}' from: {}", restoreConfig.getObjectName(), backupFile);
+            } else {
+                sqlStream = DecompressUtils.openDecompressedStream(backupFile);
+                logger.debug("Streaming SQL from: {}", backupFile.toAbsolutePath());
+            }
 
             List<String> command = new ArrayList<>();
             command.add("mysql");
@@ -43,13 +62,20 @@ public class MySQLRestore implements RestoreService {
             command.add("--port=" + restoreConfig.getConnectionParams().getPort());
             command.add(restoreConfig.getConnectionParams().getDatabaseName());
 
-            command.add("-e");
-            command.add("source " + sqlFile.toAbsolutePath().toString());
-
             logger.debug("Executing command: {}", String.join(" ", command));
 
-            Process process = new ProcessBuilder(command).start();
-            int exitCode = process.waitFor();
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+            Process process;
+            try {
+                process = pb.start();
+            } catch (IOException e) {
+                sqlStream.close();
+                throw e;
+            }
+            int exitCode = ProcessUtils.pipeAndWait(process, sqlStream);
 
             if (exitCode != 0) {
                 String errorMsg = "Restore failed with exit code: " + exitCode;
@@ -72,4 +98,13 @@ public class MySQLRestore implements RestoreService {
             throw new RestoreExecutionException("Unexpected restore error: " + e.getMessage(), e);
         }
     }
+
+    private InputStream openTable(SeekableZstdReader backup, String table) throws RestoreExecutionException {
+        List<SeekableIndex.Entry> entries = backup.index().objectEntries(table);
+        if (entries.isEmpty()) {
+            throw new RestoreExecutionException("Table '" + table
+                    + "' is not in the backup index; partial restore needs a SEEKABLE single-file dump");
+        }
+        return backup.openEntries(entries);
+    }
 }
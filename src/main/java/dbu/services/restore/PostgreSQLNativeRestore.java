@@ -0,0 +1,373 @@
+package dbu.services.restore;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dbu.exceptions.RestoreExecutionException;
+import dbu.models.ConnectionParams;
+import dbu.models.RestoreConfig;
+import dbu.utils.DecompressUtils;
+import lombok.RequiredArgsConstructor;
+
+// Section-aware alternative to replaying a dump through psql. The dump is split like pg_restore does:
+// pre-data runs first on one connection, table data is loaded with COPY FROM STDIN over --jobs
+// connections, then indexes and constraints are built in parallel (largest table first), foreign keys
+// in a second wave, and triggers, ACLs and sequence values last.
+@Service("postgresqlNativeRestore")
+@RequiredArgsConstructor
+public class PostgreSQLNativeRestore implements RestoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgreSQLNativeRestore.class);
+
+    private static final String PRE_DATA_FILE = "pre-data.sql";
+    private static final String POST_DATA_FILE = "post-data.sql";
+    private static final String TOC_FILE = "toc.tsv";
+    private static final String SESSION_INIT = "SET synchronous_commit = off";
+    private static final String IDENTIFIER = "(?:\"(?:[^\"]|\"\")+\"|[\\w$]+)";
+
+    // TOC comments written by pg_dump in front of every object of a plain-format dump.
+    private static final Pattern TOC_HEADER = Pattern.compile(
+            "^-- (?:Data for )?Name: .*; Type: ([A-Z ]+); Schema: ");
+    private static final Pattern COPY_FROM_STDIN = Pattern.compile(
+            "^COPY\\s+(" + IDENTIFIER + "(?:\\." + IDENTIFIER + ")?)\\s.*FROM\\s+stdin;$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TARGET_TABLE = Pattern.compile(
+            "(?:\\sON\\s+|ALTER\\s+TABLE\\s+)(?:ONLY\\s+)?(" + IDENTIFIER + "(?:\\." + IDENTIFIER + ")?)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Set<String> INDEX_TYPES = Set.of("INDEX", "CONSTRAINT");
+    private static final Set<String> FOREIGN_KEY_TYPES = Set.of("FK CONSTRAINT");
+    private static final Set<String> FINAL_TYPES = Set.of("TRIGGER", "RULE", "POLICY", "EVENT TRIGGER",
+            "INDEX ATTACH", "MATERIALIZED VIEW DATA", "SEQUENCE SET", "ACL", "DEFAULT ACL");
+
+    @Override
+    public boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException {
+        String databaseName = restoreConfig.getConnectionParams().getDatabaseName();
+        int jobs = Math.max(1, restoreConfig.getJobs());
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(jobs);
+        Path spoolDirectory = null;
+
+        try {
+            logger.info("Starting native PostgreSQL restore for database: {} with {} connection(s)", databaseName,
+                    jobs);
+
+            Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
+            Path dumpDir = isArchiveOrDirectory(backupFile) ? DecompressUtils.extractArchive(backupFile) : null;
+            RestorePlan plan;
+
+            if (dumpDir != null && Files.exists(dumpDir.resolve(TOC_FILE))) {
+                logger.debug("Restoring native dump directory: {}", dumpDir);
+                plan = readNativeDump(dumpDir);
+            } else if (dumpDir != null && Files.exists(dumpDir.resolve("toc.dat"))) {
+                String error = "Directory-format pg_dump archives are restored with --engine TOOL: " + dumpDir;
+                logger.error(error);
+                throw new RestoreExecutionException(error);
+            } else {
+                Path sqlSource = dumpDir != null ? singleSqlFile(dumpDir) : backupFile;
+                spoolDirectory = Files.createTempDirectory("dbu-pg-restore");
+                logger.debug("Splitting plain dump {} into sections, table data spooled to {}", sqlSource,
+                        spoolDirectory);
+                try (InputStream sql = DecompressUtils.openDecompressedStream(sqlSource)) {
+                    plan = readPlainDump(new InputStreamReader(sql, StandardCharsets.UTF_8), spoolDirectory);
+                }
+            }
+
+            for (int i = 0; i < jobs; i++) {
+                connections.add(openConnection(restoreConfig.getConnectionParams(), plan.session));
+            }
+
+            logger.info("Restoring pre-data ({} object(s))", plan.preData.size());
+            executeAll(connections.get(0), plan.preData);
+
+            logger.info("Loading {} table(s) with COPY", plan.data.size());
+            List<DataTask> data = plan.data.stream()
+                    .sorted(Comparator.comparingLong(DataTask::bytes).reversed())
+                    .toList();
+            runParallel(data, connections, executor, this::loadTable);
+
+            Map<String, Long> tableBytes = new HashMap<>();
+            plan.data.forEach(task -> tableBytes.merge(task.table(), task.bytes(), Long::sum));
+            Comparator<PostDataTask> largestFirst = Comparator.comparingLong(
+                    (PostDataTask task) -> tableBytes.getOrDefault(task.table(), 0L)).reversed();
+
+            logger.info("Building {} index(es) and constraint(s)", plan.indexes.size());
+            runParallel(plan.indexes.stream().sorted(largestFirst).toList(), connections, executor,
+                    this::executePostData);
+            logger.info("Adding {} foreign key(s)", plan.foreignKeys.size());
+            runParallel(plan.foreignKeys.stream().sorted(largestFirst).toList(), connections, executor,
+                    this::executePostData);
+
+            executeAll(connections.get(0), plan.finalStatements);
+
+            logger.info("Native PostgreSQL restore completed successfully for database: {}", databaseName);
+            return true;
+
+        } catch (SQLException e) {
+            logger.error("SQL error during native PostgreSQL restore", e);
+            throw new RestoreExecutionException("Restore SQL error: " + e.getMessage(), e);
+        } catch (ExecutionException e) {
+            logger.error("Worker failed during native PostgreSQL restore", e.getCause());
+            throw new RestoreExecutionException("Restore SQL error: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            logger.error("IO exception during native PostgreSQL restore", e);
+            throw new RestoreExecutionException("Restore IO error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Native PostgreSQL restore interrupted", e);
+            throw new RestoreExecutionException("Restore interrupted: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            connections.forEach(this::closeQuietly);
+            if (spoolDirectory != null) {
+                deleteQuietly(spoolDirectory);
+            }
+        }
+    }
+
+    private Connection openConnection(ConnectionParams params, List<String> session) throws SQLException {
+        String uri = String.format("jdbc:postgresql://%s:%d/%s",
+                params.getHost(), params.getPort(), params.getDatabaseName());
+        Connection connection = DriverManager.getConnection(uri, params.getUsername(), params.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SESSION_INIT);
+            for (String sql : session) {
+                statement.execute(sql);
+            }
+        }
+        return connection;
+    }
+
+    private boolean isArchiveOrDirectory(Path backupFile) {
+        String name = backupFile.getFileName().toString().toLowerCase(Locale.ROOT);
+        return Files.isDirectory(backupFile) || name.endsWith(".zip") || name.endsWith(".tar.gz")
+                || name.endsWith(".tar.zst") || name.endsWith(".tar.lz4") || name.endsWith(".tar.szst");
+    }
+
+    private Path singleSqlFile(Path dumpDir) throws IOException {
+        try (Stream<Path> files = Files.walk(dumpDir)) {
+            List<Path> sqlFiles = files.filter(Files::isRegularFile).toList();
+            if (sqlFiles.size() != 1) {
+                throw new IOException("Expected a native dump or a single SQL file in: " + dumpDir);
+            }
+            return sqlFiles.get(0);
+        }
+    }
+
+    // Layout written by PostgreSQLNativeBackup: pre-data.sql, toc.tsv with one COPY segment per table,
+    // and post-data.sql with one statement per line.
+    static RestorePlan readNativeDump(Path dumpDir) throws IOException {
+        RestorePlan plan = new RestorePlan();
+        plan.preData.add(Files.readString(dumpDir.resolve(PRE_DATA_FILE), StandardCharsets.UTF_8));
+
+        for (String line : Files.readAllLines(dumpDir.resolve(TOC_FILE), StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            String qualifiedName = quoteIdentifier(fields[1]) + "." + quoteIdentifier(fields[2]);
+            Path segment = dumpDir.resolve(fields[4]);
+            plan.data.add(new DataTask(tableKey(qualifiedName),
+                    "COPY " + qualifiedName + " (" + fields[3] + ") FROM STDIN", segment, Files.size(segment)));
+        }
+
+        for (String sql : Files.readAllLines(dumpDir.resolve(POST_DATA_FILE), StandardCharsets.UTF_8)) {
+            if (sql.isBlank()) {
+                continue;
+            }
+            if (sql.startsWith("SELECT pg_catalog.setval")) {
+                plan.finalStatements.add(sql);
+            } else if (sql.contains(" FOREIGN KEY ")) {
+                plan.foreignKeys.add(new PostDataTask(targetTable(sql), sql));
+            } else {
+                plan.indexes.add(new PostDataTask(targetTable(sql), sql));
+            }
+        }
+        return plan;
+    }
+
+    // Splits a plain-format pg_dump script on its TOC comments. Settings before the first object are
+    // replayed on every connection, COPY data is spooled to one file per table so the tables can be
+    // loaded concurrently, and every other object is sorted into its section by its TOC type.
+    static RestorePlan readPlainDump(Reader input, Path spoolDirectory) throws IOException {
+        RestorePlan plan = new RestorePlan();
+        BufferedReader reader = new BufferedReader(input, 1 << 16);
+        StringBuilder block = new StringBuilder();
+        String type = null;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            Matcher header = TOC_HEADER.matcher(line);
+            if (header.find()) {
+                addBlock(plan, type, block.toString());
+                block.setLength(0);
+                type = header.group(1).trim();
+                continue;
+            }
+
+            Matcher copy = COPY_FROM_STDIN.matcher(line);
+            if (copy.find()) {
+                Path spool = spoolDirectory.resolve(String.format("%04d.copy", plan.data.size()));
+                try (BufferedWriter writer = Files.newBufferedWriter(spool, StandardCharsets.UTF_8)) {
+                    String row;
+                    while ((row = reader.readLine()) != null && !row.equals("\\.")) {
+                        writer.write(row);
+                        writer.write('\n');
+                    }
+                }
+                plan.data.add(new DataTask(tableKey(copy.group(1)), line.substring(0, line.length() - 1), spool,
+                        Files.size(spool)));
+            } else if (!line.startsWith("--") && !line.startsWith("\\")) {
+                // psql meta-commands (\connect, \restrict) have no meaning over JDBC.
+                block.append(line).append('\n');
+            }
+        }
+        addBlock(plan, type, block.toString());
+        return plan;
+    }
+
+    private static void addBlock(RestorePlan plan, String type, String block) {
+        String sql = block.strip();
+        if (sql.isEmpty()) {
+            return;
+        }
+        if (type == null) {
+            plan.session.add(sql);
+        } else if (INDEX_TYPES.contains(type)) {
+            plan.indexes.add(new PostDataTask(targetTable(sql), sql));
+        } else if (FOREIGN_KEY_TYPES.contains(type)) {
+            plan.foreignKeys.add(new PostDataTask(targetTable(sql), sql));
+        } else if (FINAL_TYPES.contains(type)) {
+            plan.finalStatements.add(sql);
+        } else {
+            // TABLE DATA blocks written with --inserts have no COPY and run in order with the schema.
+            plan.preData.add(sql);
+        }
+    }
+
+    private void executeAll(Connection connection, List<String> scripts) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : scripts) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void loadTable(Connection connection, DataTask task) throws SQLException, IOException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        try (InputStream in = DecompressUtils.openDecompressedStream(task.file())) {
+            long rows = copyManager.copyIn(task.sql(), in);
+            logger.debug("Loaded {} row(s) into {}", rows, task.table());
+        }
+    }
+
+    private void executePostData(Connection connection, PostDataTask task) throws SQLException {
+        logger.debug("Building post-data object on {}", task.table());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(task.sql());
+        }
+    }
+
+    // Every connection takes the next task from a shared queue until it is empty; tasks on the same
+    // table simply wait for each other's locks.
+    private <T> void runParallel(List<T> tasks, List<Connection> connections, ExecutorService executor,
+            TaskRunner<T> runner) throws InterruptedException, ExecutionException {
+        Queue<T> pending = new ConcurrentLinkedQueue<>(tasks);
+        List<Future<?>> workers = new ArrayList<>();
+        for (Connection connection : connections) {
+            workers.add(executor.submit(() -> {
+                T task;
+                while ((task = pending.poll()) != null) {
+                    runner.run(connection, task);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private static String targetTable(String sql) {
+        Matcher matcher = TARGET_TABLE.matcher(sql);
+        return matcher.find() ? tableKey(matcher.group(1)) : "";
+    }
+
+    // Only used to match post-data statements with the size of their table's data.
+    private static String tableKey(String qualifiedName) {
+        return qualifiedName.replace("\"", "");
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close PostgreSQL connection: {}", e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Failed to delete spool directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface TaskRunner<T> {
+        void run(Connection connection, T task) throws SQLException, IOException;
+    }
+
+    static class RestorePlan {
+        final List<String> session = new ArrayList<>();
+        final List<String> preData = new ArrayList<>();
+        final List<DataTask> data = new ArrayList<>();
+        final List<PostDataTask> indexes = new ArrayList<>();
+        final List<PostDataTask> foreignKeys = new ArrayList<>();
+        final List<String> finalStatements = new ArrayList<>();
+    }
+
+    record DataTask(String table, String sql, Path file, long bytes) {
+    }
+
+    record PostDataTask(String table, String sql) {
+    }
+}
@@ -1,10 +1,13 @@
 package dbu.services.restore;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +16,9 @@ import org.springframework.stereotype.Service;
 import dbu.exceptions.RestoreExecutionException;
 import dbu.models.RestoreConfig;
 import dbu.utils.DecompressUtils;
+import dbu.utils.ProcessUtils;
+import dbu.utils.SeekableIndex;
+import dbu.utils.SeekableZstdReader;
 import lombok.RequiredArgsConstructor;
 
 @Service("postgresqlRestore")
@@ -23,18 +29,112 @@ public class PostgreSQLRestore implements RestoreService {
 
     @Override
     public boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException {
-        return performRestore(restoreConfig);
+        Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
+        if (Files.isDirectory(backupFile)
+                || (restoreConfig.getJobs() > 1 && DecompressUtils.isMultiFileArchive(backupFile))) {
+            return performParallelRestore(restoreConfig, backupFile);
+        }
+        if (restoreConfig.getJobs() > 1) {
+            warnPlainDump(restoreConfig, backupFile);
+        }
+        return performRestore(restoreConfig, null);
+    }
+
+    @Override
+    public boolean restoreObject(RestoreConfig restoreConfig, SeekableZstdReader backup)
+            throws RestoreExecutionException {
+        return performRestore(restoreConfig, backup);
     }
 
-    private boolean performRestore(RestoreConfig restoreConfig) throws RestoreExecutionException {
+    private boolean performParallelRestore(RestoreConfig restoreConfig, Path backupFile)
+            throws RestoreExecutionException {
+        try {
+            logger.info("Starting parallel PostgreSQL restore for database: {} with {} job(s)",
+                    restoreConfig.getConnectionParams().getDatabaseName(), restoreConfig.getJobs());
+
+            Path dumpDir = DecompressUtils.extractArchive(backupFile);
+            if (!Files.exists(dumpDir.resolve("toc.dat")) && !Files.isDirectory(backupFile)
+                    && isSingleFile(dumpDir)) {
+                // A plain dump packed in a zip or tar, as streamed ZIP backups are.
+                warnPlainDump(restoreConfig, backupFile);
+                return performRestore(restoreConfig, null);
+            }
+            if (!Files.exists(dumpDir.resolve("toc.dat"))) {
+                String error = "Parallel restore requires a directory-format dump, no toc.dat found in: " + dumpDir;
+                logger.error(error);
+                throw new RestoreExecutionException(error);
+            }
+
+            logger.debug("Directory-format dump to restore: {}", dumpDir.toAbsolutePath());
+
+            List<String> command = new ArrayList<>();
+            command.add("pg_restore");
+            command.add("--username=" + restoreConfig.getConnectionParams().getUsername());
+            command.add("--host=" + restoreConfig.getConnectionParams().getHost());
+            command.add("--port=" + restoreConfig.getConnectionParams().getPort());
+            command.add("--dbname=" + restoreConfig.getConnectionParams().getDatabaseName());
+            command.add("--jobs=" + Math.max(1, restoreConfig.getJobs()));
+            command.add(dumpDir.toAbsolutePath().toString());
+
+            logger.debug("Executing command: {}", String.join(" ", command));
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.environment().put("PGPASSWORD", restoreConfig.getConnectionParams().getPassword());
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+
+            if (exitCode != 0) {
+                String error = "pg_restore failed with exit code: " + exitCode;
+                logger.error(error);
+                throw new RestoreExecutionException(error);
+            }
+
+            logger.info("Parallel PostgreSQL restore completed successfully.");
+            return true;
+
+        } catch (IOException e) {
+            logger.error("IO exception during PostgreSQL restore", e);
+            throw new RestoreExecutionException("Restore IO error: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("PostgreSQL restore interrupted", e);
+            throw new RestoreExecutionException("Restore interrupted: " + e.getMessage(), e);
+        }
+    }
+
+    // pg_restore only reads archive formats; plain SQL dumps are replayed by psql on a single connection.
+    private void warnPlainDump(RestoreConfig restoreConfig, Path backupFile) {
+        logger.warn("{} is a plain SQL dump, which pg_restore cannot read; restoring with psql and ignoring --jobs={}",
+                backupFile.getFileName(), restoreConfig.getJobs());
+    }
+
+    private boolean isSingleFile(Path directory) throws IOException {
+        try (Stream<Path> children = Files.list(directory)) {
+            List<Path> entries = children.toList();
+            return entries.size() == 1 && Files.isRegularFile(entries.get(0));
+        }
+    }
+
+    private boolean performRestore(RestoreConfig restoreConfig, SeekableZstdReader backup)
+            throws RestoreExecutionException {
         try {
             logger.info("Starting PostgreSQL restore for database: {}",
                     restoreConfig.getConnectionParams().getDatabaseName());
 
             Path backupFile = Paths.get(restoreConfig.getBackupFilePath());
-            Path sqlFile = DecompressUtils.decompressIfNeeded(backupFile);
-
-            logger.debug("SQL file to restore: {}", sqlFile.toAbsolutePath());
+            // The dump is decompressed on the fly straight into psql's stdin. A single table is read from
+            // the ranges the seekable index records for it: definition, data, indexes and constraints.
+            InputStream sqlStream;
+            if (backup != null) {
+                sqlStream = openTable(backup, restoreConfig.getObjectName());
+                logger.debug("Streaming table '{}' from: {}", restoreConfig.getObjectName(), backupFile);
+            } else {
+                sqlStream = DecompressUtils.openDecompressedStream(backupFile);
+                logger.debug("Streaming SQL from: {}", backupFile.toAbsolutePath());
+            }
 
             List<String> command = new ArrayList<>();
             command.add("psql");
@@ -42,15 +142,23 @@ public class PostgreSQLRestore implements RestoreService {
             command.add("--host=" + restoreConfig.getConnectionParams().getHost());
             command.add("--port=" + restoreConfig.getConnectionParams().getPort());
             command.add("--dbname=" + restoreConfig.getConnectionParams().getDatabaseName());
-            command.add("--file=" + sqlFile.toAbsolutePath().toString());
+            command.add("--quiet");
 
             logger.debug("Executing command: {}", String.join(" ", command));
 
             ProcessBuilder pb = new ProcessBuilder(command);
             pb.environment().put("PGPASSWORD", restoreConfig.getConnectionParams().getPassword());
-
-            Process process = pb.start();
-            int exitCode = process.waitFor();
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+            Process process;
+            try {
+                process = pb.start();
+            } catch (IOException e) {
+                sqlStream.close();
+                throw e;
+            }
+            int exitCode = ProcessUtils.pipeAndWait(process, sqlStream);
 
             if (exitCode != 0) {
                 String error = "psql restore failed with exit code: " + exitCode;
@@ -73,4 +181,17 @@ public class PostgreSQLRestore implements RestoreService {
             throw new RestoreExecutionException("Unexpected restore error: " + e.getMessage(), e);
         }
     }
+
+    // Tables are indexed schema-qualified; an unqualified name is looked up in the public schema.
+    private InputStream openTable(SeekableZstdReader backup, String table) throws RestoreExecutionException {
+        List<SeekableIndex.Entry> entries = backup.index().objectEntries(table);
+        if (entries.isEmpty() && table.indexOf('.') < 0) {
+            entries = backup.index().objectEntries("public." + table);
+        }
+        if (entries.isEmpty()) {
+            throw new RestoreExecutionException("Table '" + table
+                    + "' is not in the backup index; partial restore needs a SEEKABLE plain-format dump");
+        }
+        return backup.openEntries(entries);
+    }
 }
@@ -2,7 +2,15 @@ package dbu.services.restore;
 
 import dbu.exceptions.RestoreExecutionException;
 import dbu.models.RestoreConfig;
+import dbu.utils.SeekableZstdReader;
 
 public interface RestoreService {
 	boolean restore(RestoreConfig restoreConfig) throws RestoreExecutionException;
+
+	// Restores only restoreConfig.getObjectName() (a table or collection), reading just its ranges through
+	// the index of a seekable backup.
+	default boolean restoreObject(RestoreConfig restoreConfig, SeekableZstdReader backup)
+			throws RestoreExecutionException {
+		throw new RestoreExecutionException("Single table or collection restore is not supported by this engine");
+	}
 }
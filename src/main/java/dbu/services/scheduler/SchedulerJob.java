@@ -1,5 +1,6 @@
 package dbu.services.scheduler;
 
+import java.nio.file.Path;
 import java.util.Map;
 
 import org.quartz.Job;
@@ -11,9 +12,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import dbu.enums.DatabaseType;
+import dbu.enums.EngineType;
 import dbu.exceptions.BackupExecutionException;
 import dbu.models.BackupConfig;
 import dbu.services.backup.BackupService;
+import dbu.services.backup.StreamingBackupService;
+import dbu.services.catalog.BackupCatalogService;
+import dbu.services.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 
 @Component
@@ -24,6 +29,10 @@ public class SchedulerJob implements Job {
 
     private final Map<String, BackupService> backupExecutors;
 
+    private final Map<String, StorageService> storageExecutors;
+
+    private final BackupCatalogService backupCatalog;
+
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
         JobDataMap dataMap = context.getMergedJobDataMap();
@@ -35,11 +44,18 @@ public class SchedulerJob implements Job {
         logger.info("Executing backup job for database: {} ({})", dbName, dbType);
 
         try {
-            BackupService backupService = resolverExecutor(dbType);
+            BackupService backupService = resolverExecutor(dbType, backupConfig.getEngine());
             logger.debug("Resolved backup service: {} for database type: {}", backupService.getClass().getSimpleName(),
                     dbType);
 
-            backupService.backup(backupConfig);
+            if (backupConfig.getUploadStorageType() != null) {
+                runStreamingUpload(backupService, backupConfig);
+            } else {
+                Path backupFile = backupService.backup(backupConfig);
+                if (backupFile != null) {
+                    backupCatalog.recordBackup(backupConfig, backupFile);
+                }
+            }
 
             logger.info("Backup job completed successfully for database: {} ({})", dbName, dbType);
         } catch (BackupExecutionException e) {
@@ -49,8 +65,26 @@ public class SchedulerJob implements Job {
         }
     }
 
-    private BackupService resolverExecutor(DatabaseType databaseType) {
-        String keyService = databaseType.name().toLowerCase() + "Backup";
+    private void runStreamingUpload(BackupService backupService, BackupConfig backupConfig) {
+        if (!(backupService instanceof StreamingBackupService streamingService)) {
+            throw new IllegalArgumentException("Streaming upload is not supported for database type: "
+                    + backupConfig.getConnectionParams().getDatabaseType());
+        }
+
+        String keyService = backupConfig.getUploadStorageType().name().toLowerCase() + "Storage";
+        StorageService storageService = storageExecutors.get(keyService);
+        if (storageService == null) {
+            throw new IllegalArgumentException("No storage service found for type: "
+                    + backupConfig.getUploadStorageType());
+        }
+
+        String url = streamingService.backupToStorage(backupConfig, storageService);
+        logger.info("Scheduled backup streamed to storage: {}", url);
+    }
+
+    private BackupService resolverExecutor(DatabaseType databaseType, EngineType engine) {
+        String keyService = databaseType.name().toLowerCase() + (engine == EngineType.NATIVE ? "Native" : "")
+                + "Backup";
         BackupService executor = backupExecutors.get(keyService);
 
         if (executor == null) {
@@ -1,31 +1,66 @@
 package dbu.services.storage;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import dbu.config.AppProperties;
+import dbu.enums.StorageType;
 import dbu.exceptions.StorageExecutionException;
 import dbu.models.StorageFileInfo;
+import dbu.services.catalog.BackupUploadedEvent;
+import dbu.utils.BackupManifest;
+import dbu.utils.ChecksumInputStream;
+import dbu.utils.RangeReader;
 import lombok.RequiredArgsConstructor;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
 
 @Service("awsStorage")
 @RequiredArgsConstructor
@@ -33,35 +68,321 @@ public class AWSStorage implements StorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(AWSStorage.class);
 
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final long MAX_BUFFERED_PART_SIZE = 1024L * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+    private static final int PARTS_PER_SIZE_STEP = 1_000;
+    private static final int RANGE_BUFFER_SIZE = 256 * 1024;
+    private static final long RETRY_BACKOFF_MILLIS = 500;
+
     private final AppProperties props;
     private final S3Client s3Client;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public String uploadFile(String key, Path filePath) {
+        String bucket = props.getCloud().getAws().getBucketName();
         try {
-            logger.info("Uploading file '{}' to bucket '{}' with key '{}'", filePath,
-                    props.getCloud().getAws().getBucketName(), key);
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(props.getCloud().getAws().getBucketName())
-                    .key(key)
-                    .build();
-            s3Client.putObject(putObjectRequest, RequestBody.fromFile(filePath));
+            long size = Files.size(filePath);
+            BackupManifest manifest = BackupManifest.read(filePath);
+            long partSize = filePartSize(size);
+            if (size > partSize) {
+                uploadFileInParts(bucket, key, filePath, size, partSize);
+            } else {
+                logger.info("Uploading file '{}' to bucket '{}' with key '{}'", filePath, bucket, key);
+                // S3 checks the digest from the backup's manifest on arrival; without one the SDK computes a
+                // SHA-256 while it sends the file.
+                PutObjectRequest.Builder putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key);
+                if (manifest != null) {
+                    putObjectRequest.checksumSHA256(manifest.sha256Base64());
+                } else {
+                    putObjectRequest.checksumAlgorithm(ChecksumAlgorithm.SHA256);
+                }
+                withRetry("upload of key '" + key + "'",
+                        () -> s3Client.putObject(putObjectRequest.build(), RequestBody.fromFile(filePath)));
+            }
+            if (manifest != null) {
+                putManifest(bucket, key, manifest);
+            }
 
             String url = s3Client.utilities()
-                    .getUrl(builder -> builder.bucket(props.getCloud().getAws().getBucketName()).key(key))
+                    .getUrl(builder -> builder.bucket(bucket).key(key))
                     .toString();
 
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.AWS, key, manifest, size));
             logger.info("Upload successful, file URL: {}", url);
             return url;
         } catch (S3Exception e) {
             logger.error("AWS S3 upload error for key '{}': {}", key, e.awsErrorDetails().errorMessage(), e);
             throw new StorageExecutionException(
                     "Failed to upload file to AWS S3: " + e.awsErrorDetails().errorMessage(), e);
+        } catch (SdkException e) {
+            logger.error("Unexpected error during upload of key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Unexpected upload error: " + e.getMessage(), e);
+        } catch (IOException e) {
+            logger.error("Cannot read '{}': {}", filePath, e.getMessage(), e);
+            throw new StorageExecutionException("Failed to read backup file: " + e.getMessage(), e);
+        }
+    }
+
+    // The file size is known, so the part size is fixed up front: the configured size, raised just enough to
+    // stay within the S3 part limit.
+    private long filePartSize(long size) {
+        return Math.max(configuredPartSize(), (size + MAX_PARTS - 1) / MAX_PARTS);
+    }
+
+    // Parts are held in a byte array, so app.cloud.aws.part-size is clamped to what the uploads buffer.
+    private long configuredPartSize() {
+        long configured = props.getCloud().getAws().getPartSize();
+        if (configured > MAX_BUFFERED_PART_SIZE) {
+            logger.warn("app.cloud.aws.part-size {} is above the maximum, using {} bytes", configured,
+                    MAX_BUFFERED_PART_SIZE);
+        }
+        return Math.min(Math.max(MIN_PART_SIZE, configured), MAX_BUFFERED_PART_SIZE);
+    }
+
+    // Parts are read straight from the file by the worker that sends them, so at most one part per worker is
+    // held in memory.
+    private void uploadFileInParts(String bucket, String key, Path filePath, long size, long partSize)
+            throws IOException {
+        int concurrency = Math.max(1, props.getCloud().getAws().getUploadConcurrency());
+        int partCount = (int) ((size + partSize - 1) / partSize);
+
+        logger.info("Uploading file '{}' to bucket '{}' with key '{}' in {} part(s) of {} bytes, {} in parallel",
+                filePath, bucket, key, partCount, partSize, concurrency);
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                .build())
+                .uploadId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, partCount));
+        // Any failure before completion, including client-side SDK errors, aborts the upload so no parts are
+        // left behind.
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            List<Future<CompletedPart>> pendingParts = new ArrayList<>();
+            for (int i = 0; i < partCount; i++) {
+                int number = i + 1;
+                long offset = i * partSize;
+                int length = (int) Math.min(partSize, size - offset);
+                pendingParts.add(executor.submit(() -> {
+                    byte[] data = readFully(channel, offset, length);
+                    return uploadPart(bucket, key, uploadId, number, data);
+                }));
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>();
+            for (Future<CompletedPart> part : pendingParts) {
+                completedParts.add(part.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+            completed = true;
+            logger.info("Multipart upload of key '{}' completed in {} part(s)", key, completedParts.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageExecutionException("Upload to AWS S3 interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SdkException sdkException) {
+                throw sdkException;
+            }
+            throw new StorageExecutionException("Failed to upload file to AWS S3: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                abortMultipartUpload(bucket, key, uploadId);
+            }
+        }
+    }
+
+    private static byte[] readFully(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at offset " + (offset + buffer.position()));
+            }
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public String uploadStream(String key, InputStream inputStream) {
+        String bucket = props.getCloud().getAws().getBucketName();
+        int concurrency = Math.max(1, props.getCloud().getAws().getUploadConcurrency());
+        long partSize = configuredPartSize();
+
+        logger.info("Streaming multipart upload to bucket '{}' with key '{}' (part size {} bytes, {} parallel parts)",
+                bucket, key, partSize, concurrency);
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .checksumAlgorithm(ChecksumAlgorithm.CRC32_C)
+                .build())
+                .uploadId();
+        // The whole object is hashed as it is read; the digests are stored as a sidecar manifest.
+        ChecksumInputStream checksummed = new ChecksumInputStream(inputStream);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        // Caps memory at (concurrency + 1) part buffers: one being filled, the rest in flight.
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<Future<CompletedPart>> pendingParts = new ArrayList<>();
+        boolean completed = false;
+        try {
+            int partNumber = 1;
+            byte[] buffer;
+            do {
+                // The stream length is unknown, so grow the part size to stay under the S3 part limit.
+                if (partNumber > 1 && (partNumber - 1) % PARTS_PER_SIZE_STEP == 0) {
+                    partSize = Math.min(partSize * 2, MAX_BUFFERED_PART_SIZE);
+                }
+                if (partNumber > MAX_PARTS) {
+                    throw new StorageExecutionException(
+                            "Stream exceeds the S3 limit of " + MAX_PARTS + " parts, increase app.cloud.aws.part-size");
+                }
+
+                buffer = checksummed.readNBytes((int) partSize);
+                if (buffer.length == 0 && partNumber > 1) {
+                    break;
+                }
+
+                inFlight.acquire();
+                int number = partNumber++;
+                byte[] data = buffer;
+                pendingParts.add(executor.submit(() -> {
+                    try {
+                        return uploadPart(bucket, key, uploadId, number, data);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            } while (buffer.length == partSize);
+
+            List<CompletedPart> completedParts = new ArrayList<>();
+            for (Future<CompletedPart> part : pendingParts) {
+                completedParts.add(part.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+            completed = true;
+            BackupManifest manifest = checksummed.checksums().toManifest(Path.of(key).getFileName().toString());
+            putManifest(bucket, key, manifest);
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.AWS, key, manifest, null));
+
+            String url = s3Client.utilities()
+                    .getUrl(builder -> builder.bucket(bucket).key(key))
+                    .toString();
+
+            logger.info("Streaming upload completed in {} part(s), file URL: {}", completedParts.size(), url);
+            return url;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageExecutionException("Streaming upload to AWS S3 interrupted", e);
+        } catch (IOException | ExecutionException e) {
+            logger.error("AWS S3 streaming upload error for key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Failed to stream file to AWS S3: " + e.getMessage(), e);
+        } catch (S3Exception e) {
+            logger.error("AWS S3 streaming upload error for key '{}': {}", key, e.awsErrorDetails().errorMessage(), e);
+            throw new StorageExecutionException(
+                    "Failed to stream file to AWS S3: " + e.awsErrorDetails().errorMessage(), e);
+        } catch (SdkException e) {
+            logger.error("AWS S3 streaming upload error for key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Failed to stream file to AWS S3: " + e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            // Any failure before completion aborts the upload, so no parts are left behind.
+            if (!completed) {
+                abortMultipartUpload(bucket, key, uploadId);
+            }
+        }
+    }
+
+    // Every part carries its CRC32C, which S3 checks on arrival and combines into the object checksum.
+    private CompletedPart uploadPart(String bucket, String key, String uploadId, int partNumber, byte[] data) {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(data);
+        String checksum = Base64.getEncoder()
+                .encodeToString(ByteBuffer.allocate(Integer.BYTES).putInt((int) crc32c.getValue()).array());
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) data.length)
+                .checksumCRC32C(checksum)
+                .build();
+        String eTag = withRetry("part " + partNumber + " of key '" + key + "'",
+                () -> s3Client.uploadPart(uploadPartRequest, RequestBody.fromBytes(data))).eTag();
+        logger.debug("Uploaded part {} ({} bytes) for key '{}'", partNumber, data.length, key);
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).checksumCRC32C(checksum).build();
+    }
+
+    // Transient failures of a single request (throttling, 5xx, broken connections) are retried with
+    // exponential backoff on top of the SDK's own retries, so one bad part does not fail a large transfer.
+    private <T> T withRetry(String description, Supplier<T> request) {
+        int maxAttempts = Math.max(1, props.getCloud().getAws().getMaxAttempts());
+        for (int attempt = 1;; attempt++) {
+            try {
+                return request.get();
+            } catch (S3Exception | SdkClientException e) {
+                boolean retryable = e instanceof SdkClientException || ((S3Exception) e).statusCode() >= 500
+                        || ((S3Exception) e).statusCode() == 429;
+                if (!retryable || attempt >= maxAttempts) {
+                    throw e;
+                }
+                long backoff = RETRY_BACKOFF_MILLIS << (attempt - 1);
+                logger.warn("Attempt {} of {} failed: {}, retrying in {} ms", attempt, description, e.getMessage(),
+                        backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void putManifest(String bucket, String key, BackupManifest manifest) {
+        s3Client.putObject(PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key + BackupManifest.EXTENSION)
+                .build(), RequestBody.fromBytes(manifest.toBytes()));
+        logger.info("Stored manifest for key '{}' (sha256 {})", key, manifest.sha256());
+    }
+
+    private void abortMultipartUpload(String bucket, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            logger.info("Aborted multipart upload '{}' for key '{}'", uploadId, key);
+        } catch (SdkException e) {
+            logger.warn("Failed to abort multipart upload '{}' for key '{}': {}", uploadId, key, e.getMessage());
         }
     }
 
     @Override
     public Path downloadFile(String key, Path destination) {
+        String bucket = props.getCloud().getAws().getBucketName();
         try {
             Path resolvedPath = destination;
 
@@ -69,15 +390,35 @@ public class AWSStorage implements StorageService {
                 resolvedPath = destination.resolve(Path.of(key).getFileName());
             }
 
-            logger.info("Downloading file with key '{}' from bucket '{}' to '{}'",
-                    key, props.getCloud().getAws().getBucketName(), resolvedPath);
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(props.getCloud().getAws().getBucketName())
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
                     .key(key)
-                    .build();
+                    .build());
+            long size = head.contentLength();
+            long partSize = configuredPartSize();
 
-            s3Client.getObject(getObjectRequest, resolvedPath);
+            if (size > partSize) {
+                downloadInRanges(bucket, key, head.eTag(), size, partSize, resolvedPath);
+            } else {
+                logger.info("Downloading file with key '{}' from bucket '{}' to '{}'", key, bucket, resolvedPath);
+
+                // The SDK validates the stored checksum while the object streams to disk.
+                GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .checksumMode(ChecksumMode.ENABLED)
+                        .build();
+                Path target = resolvedPath;
+                withRetry("download of key '" + key + "'", () -> {
+                    try {
+                        Files.deleteIfExists(target);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return s3Client.getObject(getObjectRequest, target);
+                });
+            }
+            downloadManifest(key, resolvedPath);
             logger.info("Download successful to '{}'", resolvedPath);
 
             return resolvedPath.toAbsolutePath();
@@ -88,9 +429,150 @@ public class AWSStorage implements StorageService {
         } catch (AwsServiceException | SdkClientException e) {
             logger.error("Unexpected error during download: {}", e.getMessage(), e);
             throw new StorageExecutionException("Unexpected download error: " + e.getMessage(), e);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Cannot write download of key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Failed to write downloaded file: " + e.getMessage(), e);
+        }
+    }
+
+    // Large objects are fetched as parallel byte-range GETs written in place into a preallocated file. Every
+    // range is pinned to the ETag seen up front, so an object replaced mid-download fails instead of mixing
+    // versions. Ranged responses carry no whole-object checksum; the manifest fetched alongside is what the
+    // restore verifies the file against.
+    private void downloadInRanges(String bucket, String key, String eTag, long size, long partSize, Path target)
+            throws IOException {
+        int concurrency = Math.max(1, props.getCloud().getAws().getDownloadConcurrency());
+        int rangeCount = (int) ((size + partSize - 1) / partSize);
+
+        logger.info("Downloading key '{}' from bucket '{}' to '{}' in {} range(s) of {} bytes, {} in parallel",
+                key, bucket, target, rangeCount, partSize, concurrency);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, rangeCount));
+        boolean completed = false;
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+            file.setLength(size);
+            FileChannel channel = file.getChannel();
+
+            List<Future<?>> pendingRanges = new ArrayList<>();
+            for (int i = 0; i < rangeCount; i++) {
+                long offset = i * partSize;
+                long end = Math.min(offset + partSize, size) - 1;
+                GetObjectRequest rangeRequest = GetObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .ifMatch(eTag)
+                        .range("bytes=" + offset + "-" + end)
+                        .build();
+                String description = "range " + offset + "-" + end + " of key '" + key + "'";
+                pendingRanges.add(executor.submit(
+                        () -> withRetry(description, () -> writeRange(rangeRequest, channel, offset))));
+            }
+            for (Future<?> range : pendingRanges) {
+                range.get();
+            }
+            channel.force(false);
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageExecutionException("Download from AWS S3 interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            if (!completed) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    private long writeRange(GetObjectRequest rangeRequest, FileChannel channel, long offset) {
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(rangeRequest)) {
+            byte[] buffer = new byte[RANGE_BUFFER_SIZE];
+            long position = offset;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    position += channel.write(chunk, position);
+                }
+            }
+            return position - offset;
+        } catch (IOException e) {
+            // A broken connection is retried like any other client error.
+            throw SdkClientException.create("Ranged read failed: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public RangeReader openRangeReader(String key) {
+        String bucket = props.getCloud().getAws().getBucketName();
+        try {
+            long size = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .build())
+                    .contentLength();
+            logger.info("Opening ranged reader for key '{}' in bucket '{}' ({} bytes)", key, bucket, size);
+
+            return new RangeReader() {
+                @Override
+                public long size() {
+                    return size;
+                }
+
+                @Override
+                public byte[] read(long offset, int length) throws IOException {
+                    if (length == 0) {
+                        return new byte[0];
+                    }
+                    try {
+                        return s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .range("bytes=" + offset + "-" + (offset + length - 1))
+                                .build())
+                                .asByteArray();
+                    } catch (S3Exception e) {
+                        throw new IOException("Ranged read of key '" + key + "' failed: "
+                                + e.awsErrorDetails().errorMessage(), e);
+                    }
+                }
+            };
+        } catch (S3Exception e) {
+            logger.error("AWS S3 error opening key '{}': {}", key, e.awsErrorDetails().errorMessage(), e);
+            throw new StorageExecutionException(
+                    "Failed to open file in AWS S3: " + e.awsErrorDetails().errorMessage(), e);
+        }
+    }
+
+    // Restores verify against the manifest, so it travels with the backup when there is one. A sidecar left
+    // over from an earlier download is removed first: the SDK refuses to overwrite it, and keeping it when the
+    // backup no longer has a manifest would verify the new file against the old digest.
+    private void downloadManifest(String key, Path backupFile) throws IOException {
+        Path sidecar = BackupManifest.sidecar(backupFile);
+        Files.deleteIfExists(sidecar);
+        String manifestKey = key + BackupManifest.EXTENSION;
+        if (!exists(manifestKey)) {
+            return;
+        }
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(props.getCloud().getAws().getBucketName())
+                .key(manifestKey)
+                .build();
+        withRetry("download of key '" + manifestKey + "'", () -> {
+            try {
+                Files.deleteIfExists(sidecar);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return s3Client.getObject(request, sidecar);
+        });
+    }
+
     @Override
     public boolean deleteFile(String key) {
         try {
@@ -128,20 +610,20 @@ public class AWSStorage implements StorageService {
     }
 
     @Override
-    public List<StorageFileInfo> listFiles() {
-        try {
-            return s3Client.listObjectsV2(ListObjectsV2Request.builder()
-                    .bucket(props.getCloud().getAws().getBucketName())
-                    .build())
-                    .contents()
-                    .stream()
-                    .map(obj -> new StorageFileInfo(obj.key(), obj.size(), obj.lastModified() != null
-                            ? obj.lastModified().atZone(ZoneId.systemDefault()).toLocalDateTime()
-                            : null))
-                    .collect(Collectors.toList());
-        } catch (S3Exception e) {
-            logger.error("AWS S3 error listing files: {}", e.awsErrorDetails().errorMessage(), e);
-            return List.of();
-        }
+    public Stream<StorageFileInfo> streamFiles(String prefix, String delimiter) {
+        String bucket = props.getCloud().getAws().getBucketName();
+        logger.info("Listing bucket '{}' (prefix '{}', delimiter '{}')", bucket, prefix, delimiter);
+        ListObjectsV2Iterable pages = s3Client.listObjectsV2Paginator(ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .delimiter(delimiter)
+                .build());
+        return StorageListings.lazily(pages, S3Exception.class, "Listing AWS S3 bucket '" + bucket + "'")
+                .flatMap(page -> Stream.concat(
+                        page.commonPrefixes().stream().map(common -> StorageFileInfo.ofPrefix(common.prefix())),
+                        page.contents().stream().map(obj -> new StorageFileInfo(obj.key(), obj.size(),
+                                obj.lastModified() != null
+                                        ? obj.lastModified().atZone(ZoneId.systemDefault()).toLocalDateTime()
+                                        : null))));
     }
 }
@@ -1,21 +1,43 @@
 package dbu.services.storage;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobRange;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobDownloadToFileOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
 
+import dbu.config.AppProperties;
+import dbu.enums.StorageType;
 import dbu.exceptions.StorageExecutionException;
 import dbu.models.StorageFileInfo;
+import dbu.services.catalog.BackupUploadedEvent;
+import dbu.utils.BackupManifest;
+import dbu.utils.ChecksumInputStream;
+import dbu.utils.RangeReader;
 import lombok.RequiredArgsConstructor;
 
 @Service("azureStorage")
@@ -24,24 +46,68 @@ public class AzureStorage implements StorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(AzureStorage.class);
 
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final AppProperties props;
     private final BlobContainerClient containerClient;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public String uploadFile(String key, Path filePath) {
         try {
-            logger.info("Uploading file '{}' to Azure Blob with key '{}'", filePath, key);
-            containerClient.getBlobClient(key)
-                    .uploadFromFile(filePath.toString(), true);
-
+            long size = Files.size(filePath);
+            logger.info("Uploading file '{}' ({} bytes) to Azure Blob with key '{}'", filePath, size, key);
             BlobClient blobClient = containerClient.getBlobClient(key);
+            TransferProgress progress = new TransferProgress(logger, "Upload of '" + key + "'", size);
+            blobClient.uploadFromFileWithResponse(new BlobUploadFromFileOptions(filePath.toString())
+                    .setParallelTransferOptions(uploadOptions(progress)), null, Context.NONE);
+            progress.complete();
+
+            BackupManifest manifest = BackupManifest.read(filePath);
+            if (manifest != null) {
+                attachManifest(blobClient, manifest);
+            }
             String url = blobClient.getBlobUrl();
 
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.AZURE, key, manifest, size));
             logger.info("Upload successful. Blob URL: {}", url);
             return url;
         } catch (BlobStorageException e) {
             logger.error("Failed to upload file '{}' to Azure Blob with key '{}': {}", filePath, key, e.getMessage(),
                     e);
             throw new StorageExecutionException("Azure upload failed: " + e.getMessage(), e);
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Cannot read '{}': {}", filePath, e.getMessage(), e);
+            throw new StorageExecutionException("Failed to read backup file: " + e.getMessage(), e);
+        }
+    }
+
+    // Blocks are staged as the stream produces them, maxConcurrency at a time, so a backup piped in here is
+    // uploaded while it is still being written and never lands on local disk.
+    @Override
+    public String uploadStream(String key, InputStream inputStream) {
+        try {
+            logger.info("Streaming upload to Azure Blob with key '{}'", key);
+            BlobClient blobClient = containerClient.getBlobClient(key);
+            // The stream is hashed as it is sent; the digests are attached once the upload is done.
+            ChecksumInputStream checksummed = new ChecksumInputStream(inputStream);
+            TransferProgress progress = new TransferProgress(logger, "Streaming upload of '" + key + "'", 0);
+            blobClient.uploadWithResponse(new BlobParallelUploadOptions(checksummed)
+                    .setParallelTransferOptions(uploadOptions(progress)), null, Context.NONE);
+            progress.complete();
+            BackupManifest manifest = checksummed.checksums().toManifest(Path.of(key).getFileName().toString());
+            attachManifest(blobClient, manifest);
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.AZURE, key, manifest, null));
+
+            String url = blobClient.getBlobUrl();
+            logger.info("Streaming upload successful. Blob URL: {}", url);
+            return url;
+        } catch (BlobStorageException e) {
+            logger.error("Failed to stream upload to Azure Blob with key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Azure upload failed: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to read stream for Azure Blob with key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Azure upload failed: " + e.getMessage(), e);
         }
     }
 
@@ -53,16 +119,92 @@ public class AzureStorage implements StorageService {
                 resolvedPath = destination.resolve(Path.of(key).getFileName());
             }
 
-            logger.info("Downloading blob with key '{}' to file '{}'", key, resolvedPath);
+            BlobClient blobClient = containerClient.getBlobClient(key);
+            long size = blobClient.getProperties().getBlobSize();
+            logger.info("Downloading blob with key '{}' ({} bytes) to file '{}'", key, size, resolvedPath);
 
-            containerClient.getBlobClient(key)
-                    .downloadToFile(resolvedPath.toString(), true);
+            TransferProgress progress = new TransferProgress(logger, "Download of '" + key + "'", size);
+            blobClient.downloadToFileWithResponse(new BlobDownloadToFileOptions(resolvedPath.toString())
+                    .setParallelTransferOptions(downloadOptions(progress))
+                    .setOpenOptions(Set.of(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE)),
+                    null, Context.NONE);
+            progress.complete();
+            // Restores verify against the manifest, so it travels with the backup when there is one.
+            BlobClient manifest = containerClient.getBlobClient(key + BackupManifest.EXTENSION);
+            if (manifest.exists()) {
+                manifest.downloadToFile(BackupManifest.sidecar(resolvedPath).toString(), true);
+            }
 
             logger.info("Download successful to '{}'", resolvedPath);
             return resolvedPath.toAbsolutePath();
         } catch (BlobStorageException e) {
             logger.error("Failed to download blob with key '{}' to '{}': {}", key, destination, e.getMessage(), e);
             throw new StorageExecutionException("Azure download failed: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to write blob with key '{}' to '{}': {}", key, destination, e.getMessage(), e);
+            throw new StorageExecutionException("Azure download failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Uploads up to maxSingleUploadSize go out in one request; anything larger is staged as blockSize blocks.
+    private ParallelTransferOptions uploadOptions(TransferProgress progress) {
+        AppProperties.Cloud.Azure azure = props.getCloud().getAzure();
+        return new ParallelTransferOptions()
+                .setBlockSizeLong(azure.getBlockSize())
+                .setMaxConcurrency(azure.getMaxConcurrency())
+                .setMaxSingleUploadSizeLong(azure.getMaxSingleUploadSize())
+                .setProgressListener(progress::update);
+    }
+
+    private com.azure.storage.common.ParallelTransferOptions downloadOptions(TransferProgress progress) {
+        AppProperties.Cloud.Azure azure = props.getCloud().getAzure();
+        return new com.azure.storage.common.ParallelTransferOptions()
+                .setBlockSizeLong(azure.getBlockSize())
+                .setMaxConcurrency(azure.getMaxConcurrency())
+                .setProgressListener(progress::update);
+    }
+
+    // Blob storage has no SHA-256 or CRC32C object checksum, so the digests are kept as blob metadata
+    // and in a sidecar manifest blob.
+    private void attachManifest(BlobClient blobClient, BackupManifest manifest) {
+        blobClient.setMetadata(Map.of("sha256", manifest.sha256(), "crc32c", manifest.crc32c()));
+        containerClient.getBlobClient(blobClient.getBlobName() + BackupManifest.EXTENSION)
+                .upload(BinaryData.fromBytes(manifest.toBytes()), true);
+        logger.info("Stored manifest for blob '{}' (sha256 {})", blobClient.getBlobName(), manifest.sha256());
+    }
+
+    @Override
+    public RangeReader openRangeReader(String key) {
+        try {
+            BlobClient blobClient = containerClient.getBlobClient(key);
+            long size = blobClient.getProperties().getBlobSize();
+            logger.info("Opening ranged reader for blob '{}' ({} bytes)", key, size);
+
+            return new RangeReader() {
+                @Override
+                public long size() {
+                    return size;
+                }
+
+                @Override
+                public byte[] read(long offset, int length) throws IOException {
+                    if (length == 0) {
+                        return new byte[0];
+                    }
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(length);
+                    try {
+                        blobClient.downloadStreamWithResponse(buffer, new BlobRange(offset, (long) length), null,
+                                null, false, null, Context.NONE);
+                    } catch (BlobStorageException e) {
+                        throw new IOException("Ranged read of blob '" + key + "' failed: " + e.getMessage(), e);
+                    }
+                    return buffer.toByteArray();
+                }
+            };
+        } catch (BlobStorageException e) {
+            logger.error("Failed to open blob with key '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("Azure open failed: " + e.getMessage(), e);
         }
     }
 
@@ -81,25 +223,29 @@ public class AzureStorage implements StorageService {
     }
 
     @Override
-    public List<StorageFileInfo> listFiles() {
-        try {
-            return StreamSupport.stream(containerClient.listBlobs().spliterator(), false)
-                    .map(obj -> new StorageFileInfo(
-                            obj.getName(),
-                            obj.getProperties() != null && obj.getProperties().getContentLength() != null
-                                    ? obj.getProperties().getContentLength().intValue()
-                                    : 0L,
-                            obj.getProperties() != null && obj.getProperties().getLastModified() != null
-                                    ? obj.getProperties().getLastModified()
-                                            .toInstant()
-                                            .atZone(java.time.ZoneId.systemDefault())
-                                            .toLocalDateTime()
-                                    : null))
-                    .collect(Collectors.toList());
-        } catch (BlobStorageException e) {
-            logger.error("Failed to list blobs: {}", e.getMessage(), e);
-            return List.of();
-        }
+    public Stream<StorageFileInfo> streamFiles(String prefix, String delimiter) {
+        logger.info("Listing Azure container '{}' (prefix '{}', delimiter '{}')",
+                containerClient.getBlobContainerName(), prefix, delimiter);
+        ListBlobsOptions options = new ListBlobsOptions()
+                .setPrefix(prefix)
+                .setMaxResultsPerPage(LIST_PAGE_SIZE);
+        // Pages are requested as the stream is consumed.
+        Iterable<BlobItem> blobs = () -> (delimiter != null
+                ? containerClient.listBlobsByHierarchy(delimiter, options, null)
+                : containerClient.listBlobs(options, null)).iterator();
+        return StorageListings.lazily(blobs, BlobStorageException.class, "Listing Azure container")
+                .map(obj -> Boolean.TRUE.equals(obj.isPrefix())
+                        ? StorageFileInfo.ofPrefix(obj.getName())
+                        : new StorageFileInfo(
+                                obj.getName(),
+                                obj.getProperties() != null && obj.getProperties().getContentLength() != null
+                                        ? obj.getProperties().getContentLength()
+                                        : 0L,
+                                obj.getProperties() != null && obj.getProperties().getLastModified() != null
+                                        ? obj.getProperties().getLastModified()
+                                                .atZoneSameInstant(ZoneId.systemDefault())
+                                                .toLocalDateTime()
+                                        : null));
     }
 
     @Override
@@ -0,0 +1,371 @@
+package dbu.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import dbu.config.AppProperties;
+import dbu.enums.StorageType;
+import dbu.exceptions.StorageExecutionException;
+import dbu.services.catalog.BackupCatalogService;
+import dbu.utils.BackupManifest;
+import dbu.utils.Checksums;
+import dbu.utils.ChecksumOutputStream;
+import dbu.utils.DecompressUtils;
+import dbu.utils.RangeReader;
+import lombok.RequiredArgsConstructor;
+
+// Local copies of downloaded backups, stored by the SHA-256 of their content under
+// <directory>/objects/<sha256>/. A warm backup is found from the digest in the catalog and the entry's own
+// manifest, without any request to storage; the object's current manifest is only read on a miss, or with
+// `revalidate` for a key that may have been overwritten since it was catalogued, so that an overwritten
+// key is never served from an older copy. Entries are checked against their manifest before use and the
+// least recently used ones are removed once the cache grows past its quota.
+@Service
+@RequiredArgsConstructor
+public class BackupDownloadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackupDownloadCache.class);
+
+    private static final String OBJECTS = "objects";
+    private static final String INCOMING = "incoming";
+    private static final String PLAIN = "plain";
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    // Codecs that decompress to a single file; archives can expand to a directory and are kept compressed.
+    private static final String[] SINGLE_STREAM_EXTENSIONS = { ".gz", ".gzip", ".zst", ".szst", ".lz4" };
+    private static final String[] ARCHIVE_EXTENSIONS = { ".tar.gz", ".tar.zst", ".tar.lz4", ".tar.szst", ".zip" };
+
+    private final AppProperties props;
+    private final BackupCatalogService backupCatalog;
+    // One lock per digest, so restores of different backups download concurrently; eviction has its own.
+    private final ConcurrentMap<String, Object> entryLocks = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    // Returns a local copy of the object: from the cache when it holds an intact copy, otherwise downloaded
+    // (and admitted when the object has a manifest). With keep-decompressed the decompressed form is returned.
+    public Path fetch(StorageType storageType, StorageService storageService, String key, boolean revalidate) {
+        if (!props.getDownloadCache().isEnabled()) {
+            return downloadToTemp(storageService, key);
+        }
+        Optional<String> catalogued = cataloguedSha256(storageType, key);
+        if (!revalidate && catalogued.isPresent()) {
+            synchronized (lockFor(catalogued.get())) {
+                Path cached = lookup(catalogued.get());
+                if (cached != null) {
+                    return props.getDownloadCache().isKeepDecompressed() ? plainCopy(cached) : cached;
+                }
+            }
+        }
+        String sha256 = manifestSha256(storageService, key, catalogued);
+        if (sha256 == null) {
+            logger.info("Backup '{}' has no manifest, downloading without caching", key);
+            return downloadToTemp(storageService, key);
+        }
+
+        synchronized (lockFor(sha256)) {
+            Path cached = lookup(sha256);
+            if (cached == null) {
+                cached = admit(storageService, key, sha256);
+                evictToQuota(cached.getParent());
+            }
+            return props.getDownloadCache().isKeepDecompressed() ? plainCopy(cached) : cached;
+        }
+    }
+
+    // Intact cached copy of the object, compressed as it was stored, without downloading anything.
+    public Optional<Path> findCached(StorageType storageType, StorageService storageService, String key,
+            boolean revalidate) {
+        if (!props.getDownloadCache().isEnabled()) {
+            return Optional.empty();
+        }
+        Optional<String> catalogued = cataloguedSha256(storageType, key);
+        if (!revalidate && catalogued.isPresent()) {
+            synchronized (lockFor(catalogued.get())) {
+                Path cached = lookup(catalogued.get());
+                if (cached != null) {
+                    return Optional.of(cached);
+                }
+            }
+        }
+        String sha256 = manifestSha256(storageService, key, catalogued);
+        if (sha256 == null) {
+            return Optional.empty();
+        }
+        synchronized (lockFor(sha256)) {
+            return Optional.ofNullable(lookup(sha256));
+        }
+    }
+
+    // Called once a restore is done with a fetched backup. Cached copies stay; an uncached download is
+    // deleted along with anything the restore decompressed next to it.
+    public void release(Path fetched) {
+        Path incoming = root().resolve(INCOMING).toAbsolutePath().normalize();
+        Path downloadDir = fetched.toAbsolutePath().normalize().getParent();
+        if (downloadDir != null && incoming.equals(downloadDir.getParent())) {
+            deleteQuietly(downloadDir);
+        }
+    }
+
+    private Object lockFor(String sha256) {
+        return entryLocks.computeIfAbsent(sha256, digest -> new Object());
+    }
+
+    private Optional<String> cataloguedSha256(StorageType storageType, String key) {
+        return backupCatalog.findSha256(storageType, key).map(sha256 -> sha256.toLowerCase(Locale.ROOT));
+    }
+
+    // The object's own manifest is authoritative: the key may have been overwritten since it was catalogued.
+    private String manifestSha256(StorageService storageService, String key, Optional<String> catalogued) {
+        String manifestKey = key + BackupManifest.EXTENSION;
+        if (!storageService.exists(manifestKey)) {
+            return null;
+        }
+        String sha256;
+        try (RangeReader reader = storageService.openRangeReader(manifestKey)) {
+            sha256 = BackupManifest.parse(new String(reader.read(0, (int) reader.size()), StandardCharsets.UTF_8))
+                    .sha256().toLowerCase(Locale.ROOT);
+        } catch (IOException | StorageExecutionException e) {
+            logger.warn("Cannot read manifest of '{}': {}", key, e.getMessage());
+            return null;
+        }
+        if (catalogued.isPresent() && !catalogued.get().equals(sha256)) {
+            logger.warn("Backup '{}' changed since it was catalogued, run catalog-sync to refresh the catalog", key);
+        }
+        return sha256;
+    }
+
+    private Path lookup(String sha256) {
+        Path entry = objectsDir().resolve(sha256);
+        try {
+            Path file = backupIn(entry);
+            if (file == null) {
+                return null;
+            }
+            if (!isIntact(file, sha256, props.getDownloadCache().isVerifyOnHit())) {
+                logger.warn("Cached backup {} failed verification, discarding it", file);
+                deleteQuietly(entry);
+                return null;
+            }
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            logger.info("Download cache hit for {} ({})", file.getFileName(), sha256);
+            return file;
+        } catch (IOException e) {
+            logger.warn("Cannot read cache entry {}: {}", entry, e.getMessage());
+            return null;
+        }
+    }
+
+    // The download is verified before it becomes visible, and moved into place in one step.
+    private Path admit(StorageService storageService, String key, String sha256) {
+        Path entry = objectsDir().resolve(sha256);
+        Path incoming = null;
+        try {
+            Files.createDirectories(objectsDir());
+            Files.createDirectories(root().resolve(INCOMING));
+            incoming = Files.createTempDirectory(root().resolve(INCOMING), sha256.substring(0, 8));
+            Path downloaded = storageService.downloadFile(key, incoming);
+            if (!isIntact(downloaded, sha256, true)) {
+                throw new StorageExecutionException("Downloaded backup '" + key + "' does not match its checksum");
+            }
+            try {
+                Files.move(incoming, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(incoming, entry);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another restore admitted the same content first.
+                deleteQuietly(incoming);
+                Path existing = backupIn(entry);
+                if (existing != null) {
+                    return existing;
+                }
+                throw e;
+            }
+            logger.info("Cached download of '{}' as {}", key, sha256);
+            return entry.resolve(downloaded.getFileName());
+        } catch (IOException e) {
+            deleteQuietly(incoming);
+            throw new StorageExecutionException("Cannot write to download cache: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(incoming);
+            throw e;
+        }
+    }
+
+    // Decompressed once into the entry, next to the compressed copy, with its own manifest.
+    private Path plainCopy(Path cached) {
+        String name = cached.getFileName().toString().toLowerCase(Locale.ROOT);
+        String extension = null;
+        for (String candidate : SINGLE_STREAM_EXTENSIONS) {
+            if (name.endsWith(candidate)) {
+                extension = candidate;
+            }
+        }
+        for (String archive : ARCHIVE_EXTENSIONS) {
+            if (name.endsWith(archive)) {
+                extension = null;
+            }
+        }
+        if (extension == null) {
+            return cached;
+        }
+
+        String fileName = cached.getFileName().toString();
+        Path plainDir = cached.resolveSibling(PLAIN);
+        Path plain = plainDir.resolve(fileName.substring(0, fileName.length() - extension.length()));
+        try {
+            if (Files.isRegularFile(plain) && isIntact(plain, null, props.getDownloadCache().isVerifyOnHit())) {
+                return plain;
+            }
+            Files.createDirectories(plainDir);
+            try (InputStream in = DecompressUtils.openDecompressedStream(cached);
+                    OutputStream out = new ChecksumOutputStream(Files.newOutputStream(plain), plain)) {
+                in.transferTo(out);
+            }
+            evictToQuota(cached.getParent());
+            logger.info("Cached decompressed copy {}", plain);
+            return plain;
+        } catch (IOException e) {
+            logger.warn("Cannot keep a decompressed copy of {}: {}", cached, e.getMessage());
+            deleteQuietly(plainDir);
+            return cached;
+        }
+    }
+
+    // Size and recorded digest are always compared; the content is re-hashed when `rehash` is set.
+    private boolean isIntact(Path file, String sha256, boolean rehash) throws IOException {
+        BackupManifest manifest = BackupManifest.read(file);
+        if (manifest == null || Files.size(file) != manifest.size()
+                || (sha256 != null && !sha256.equalsIgnoreCase(manifest.sha256()))) {
+            return false;
+        }
+        if (!rehash) {
+            return true;
+        }
+        Checksums checksums = new Checksums();
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                checksums.update(buffer, 0, read);
+            }
+        }
+        return checksums.sha256Hex().equalsIgnoreCase(manifest.sha256());
+    }
+
+    // Least recently used entries go first; the entry just used is never evicted.
+    private void evictToQuota(Path keep) {
+        synchronized (evictionLock) {
+            evictEntries(keep);
+        }
+    }
+
+    private void evictEntries(Path keep) {
+        long quota = props.getDownloadCache().getMaxSize();
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(objectsDir())) {
+            stream.forEach(entries::add);
+        } catch (IOException e) {
+            logger.warn("Cannot list download cache: {}", e.getMessage());
+            return;
+        }
+        long total = entries.stream().mapToLong(BackupDownloadCache::sizeOf).sum();
+        entries.sort(Comparator.comparing(BackupDownloadCache::lastUsed));
+        for (Path entry : entries) {
+            if (total <= quota) {
+                break;
+            }
+            if (entry.equals(keep)) {
+                continue;
+            }
+            long size = sizeOf(entry);
+            deleteQuietly(entry);
+            total -= size;
+            logger.info("Evicted {} from download cache ({} bytes)", entry.getFileName(), size);
+        }
+    }
+
+    // Backups that are not cached are downloaded under the cache's incoming directory, and removed by release().
+    private Path downloadToTemp(StorageService storageService, String key) {
+        Path downloadDir = null;
+        try {
+            Files.createDirectories(root().resolve(INCOMING));
+            downloadDir = Files.createTempDirectory(root().resolve(INCOMING), "restore-");
+            return storageService.downloadFile(key, downloadDir);
+        } catch (IOException e) {
+            deleteQuietly(downloadDir);
+            throw new StorageExecutionException("Cannot create download directory: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(downloadDir);
+            throw e;
+        }
+    }
+
+    private Path root() {
+        return Path.of(props.getDownloadCache().getDirectory());
+    }
+
+    private Path objectsDir() {
+        return root().resolve(OBJECTS);
+    }
+
+    private static Path backupIn(Path entry) throws IOException {
+        if (!Files.isDirectory(entry)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(entry)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(BackupManifest.EXTENSION))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static long sizeOf(Path entry) {
+        try (Stream<Path> files = Files.walk(entry)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastUsed(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("Cannot delete {}: {}", path, e.getMessage());
+        }
+    }
+}
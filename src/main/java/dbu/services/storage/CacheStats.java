@@ -0,0 +1,8 @@
+package dbu.services.storage;
+
+public record CacheStats(long hits, long misses, long evictions, int size) {
+
+    public double hitRatio() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
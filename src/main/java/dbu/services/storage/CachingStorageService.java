@@ -0,0 +1,169 @@
+package dbu.services.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dbu.config.AppProperties;
+import dbu.models.StorageFileInfo;
+import dbu.utils.BackupManifest;
+import dbu.utils.RangeReader;
+
+// Decorator that answers exists() and listings from memory for a short TTL. Uploads and deletes made
+// through it drop the affected entries at once; changes made by other processes show up once the TTL
+// has passed.
+public class CachingStorageService implements StorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingStorageService.class);
+
+    private final StorageService delegate;
+    private final int maxListingEntries;
+    private final TtlLruCache<String, Boolean> existence;
+    private final TtlLruCache<ListingKey, List<StorageFileInfo>> listings;
+    // Bumped by every write, so a listing that was running while something changed is not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingStorageService(StorageService delegate, AppProperties.Cloud.Cache cache) {
+        this(delegate, new TtlLruCache<>(cache.getMaxEntries(), cache.getTtl()),
+                new TtlLruCache<>(cache.getMaxListings(), cache.getTtl()), cache.getMaxListingEntries());
+    }
+
+    CachingStorageService(StorageService delegate, TtlLruCache<String, Boolean> existence,
+            TtlLruCache<ListingKey, List<StorageFileInfo>> listings, int maxListingEntries) {
+        this.delegate = delegate;
+        this.existence = existence;
+        this.listings = listings;
+        this.maxListingEntries = maxListingEntries;
+    }
+
+    @Override
+    public String uploadFile(String key, Path filePath) {
+        try {
+            return delegate.uploadFile(key, filePath);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public String uploadStream(String key, InputStream inputStream) {
+        try {
+            return delegate.uploadStream(key, inputStream);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public Path downloadFile(String key, Path destination) {
+        return delegate.downloadFile(key, destination);
+    }
+
+    @Override
+    public RangeReader openRangeReader(String key) {
+        return delegate.openRangeReader(key);
+    }
+
+    @Override
+    public boolean deleteFile(String key) {
+        try {
+            return delegate.deleteFile(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        Boolean cached = existence.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long startGeneration = generation.get();
+        boolean exists = delegate.exists(key);
+        if (generation.get() == startGeneration) {
+            existence.put(key, exists);
+        }
+        return exists;
+    }
+
+    // A listing is cached once it has been read to the end, unless it is longer than maxListingEntries.
+    @Override
+    public Stream<StorageFileInfo> streamFiles(String prefix, String delimiter) {
+        ListingKey listingKey = new ListingKey(prefix, delimiter);
+        List<StorageFileInfo> cached = listings.get(listingKey);
+        if (cached != null) {
+            return cached.stream();
+        }
+
+        long startGeneration = generation.get();
+        Stream<StorageFileInfo> source = delegate.streamFiles(prefix, delimiter);
+        Iterator<StorageFileInfo> files = source.iterator();
+        Iterator<StorageFileInfo> recording = new Iterator<>() {
+            private List<StorageFileInfo> seen = new ArrayList<>();
+
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = files.hasNext();
+                if (!hasNext && seen != null) {
+                    if (generation.get() == startGeneration) {
+                        listings.put(listingKey, List.copyOf(seen));
+                    }
+                    seen = null;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public StorageFileInfo next() {
+                StorageFileInfo file = files.next();
+                if (seen != null) {
+                    seen.add(file);
+                    if (seen.size() > maxListingEntries) {
+                        seen = null;
+                    }
+                }
+                return file;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(recording,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(source::close);
+    }
+
+    public CacheStats existenceStats() {
+        return existence.stats();
+    }
+
+    public CacheStats listingStats() {
+        return listings.stats();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        existence.clear();
+        listings.clear();
+    }
+
+    // Listings whose prefix covers the key may now be stale, and so may the key's manifest.
+    private void invalidate(String key) {
+        generation.incrementAndGet();
+        existence.invalidate(key);
+        existence.invalidate(key + BackupManifest.EXTENSION);
+        listings.invalidateIf(listing -> listing.prefix() == null || key.startsWith(listing.prefix()));
+        logger.debug("Invalidated cached metadata for key '{}'", key);
+    }
+
+    record ListingKey(String prefix, String delimiter) {
+    }
+}
@@ -1,31 +1,50 @@
 package dbu.services.storage;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.time.Instant;
+import java.nio.file.StandardOpenOption;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.google.cloud.ReadChannel;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Bucket;
 import com.google.cloud.storage.HttpMethod;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageException;
 
 import dbu.config.AppProperties;
+import dbu.enums.StorageType;
 import dbu.exceptions.StorageExecutionException;
 import dbu.models.StorageFileInfo;
+import dbu.services.catalog.BackupUploadedEvent;
+import dbu.utils.BackupManifest;
+import dbu.utils.ChecksumInputStream;
+import dbu.utils.RangeReader;
 import lombok.RequiredArgsConstructor;
 
 @Service("gcpStorage")
@@ -34,24 +53,47 @@ public class GCPStorage implements StorageService {
 
     private static final Logger logger = LoggerFactory.getLogger(GCPStorage.class);
 
+    private static final int CHUNK_ALIGNMENT = 256 * 1024;
+    private static final int MAX_COMPOSE_SOURCES = 32;
+    private static final int SLICE_READ_BUFFER_SIZE = 1024 * 1024;
+    private static final long LIST_PAGE_SIZE = 1000;
+
     private final AppProperties props;
     private final Storage storage;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public String uploadFile(String key, Path filePath) {
+        String bucketName = props.getCloud().getGcp().getBucketName();
         try {
-            logger.info("Uploading file '{}' to GCP bucket '{}' with key '{}'", filePath,
-                    props.getCloud().getGcp().getBucketName(), key);
-
-            Bucket bucket = storage.get(props.getCloud().getGcp().getBucketName());
-            Blob blob = bucket.create(key, Files.readAllBytes(filePath));
-            BlobInfo blobInfo = blob.asBlobInfo();
+            long size = Files.size(filePath);
+            BackupManifest manifest = BackupManifest.read(filePath);
+            BlobInfo.Builder blobInfo = BlobInfo.newBuilder(bucketName, key);
+            if (manifest != null) {
+                blobInfo.setMetadata(Map.of("sha256", manifest.sha256()));
+            }
 
-            long expireTime = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5);
-            URL url = storage.signUrl(blobInfo, expireTime, TimeUnit.MILLISECONDS,
-                    Storage.SignUrlOption.withV4Signature(),
-                    Storage.SignUrlOption.httpMethod(HttpMethod.GET));
+            long compositeThreshold = props.getCloud().getGcp().getCompositeThreshold();
+            Blob blob;
+            if (compositeThreshold > 0 && size >= compositeThreshold) {
+                blob = uploadComposite(blobInfo.build(), filePath, size, manifest);
+            } else {
+                logger.info("Uploading file '{}' to GCP bucket '{}' with key '{}'", filePath, bucketName, key);
+                // A resumable upload sends the file one chunk at a time, so memory use does not grow with the
+                // file. GCS checks the CRC32C from the backup's manifest before it stores the object.
+                if (manifest != null) {
+                    blob = storage.createFrom(blobInfo.setCrc32cFromHexString(manifest.crc32c()).build(), filePath,
+                            chunkSize(), Storage.BlobWriteOption.crc32cMatch());
+                } else {
+                    blob = storage.createFrom(blobInfo.build(), filePath, chunkSize());
+                }
+            }
+            if (manifest != null) {
+                putManifest(key, manifest);
+            }
+            URL url = signUrl(blob.asBlobInfo());
 
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.GCP, key, manifest, size));
             logger.info("Upload successful. Signed URL: {}", url);
             return url.toString();
         } catch (NoSuchFileException e) {
@@ -66,6 +108,163 @@ public class GCPStorage implements StorageService {
         }
     }
 
+    // GCS rounds resumable chunks to a multiple of 256 KiB.
+    private int chunkSize() {
+        int configured = props.getCloud().getGcp().getChunkSize();
+        return Math.max(CHUNK_ALIGNMENT, configured / CHUNK_ALIGNMENT * CHUNK_ALIGNMENT);
+    }
+
+    // Parallel composite upload: the file is cut into at most 32 slices that are uploaded concurrently as
+    // temporary objects and then composed server-side into the target. Composite objects only carry a CRC32C,
+    // which is compared with the one the slices were sent with, and with the manifest when there is one.
+    private Blob uploadComposite(BlobInfo target, Path filePath, long size, BackupManifest manifest)
+            throws IOException {
+        int concurrency = Math.max(1, props.getCloud().getGcp().getCompositeConcurrency());
+        long sliceSize = Math.max(chunkSize(), (size + MAX_COMPOSE_SOURCES - 1) / MAX_COMPOSE_SOURCES);
+        int sliceCount = (int) ((size + sliceSize - 1) / sliceSize);
+
+        logger.info("Uploading file '{}' to GCP bucket '{}' with key '{}' as {} composed slice(s), {} in parallel",
+                filePath, target.getBucket(), target.getName(), sliceCount, concurrency);
+
+        List<String> sliceNames = new ArrayList<>();
+        for (int i = 0; i < sliceCount; i++) {
+            sliceNames.add(target.getName() + ".slice-" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, sliceCount));
+        try {
+            List<Future<?>> pendingSlices = new ArrayList<>();
+            for (int i = 0; i < sliceCount; i++) {
+                BlobInfo slice = BlobInfo.newBuilder(target.getBucket(), sliceNames.get(i)).build();
+                long offset = i * sliceSize;
+                long length = Math.min(sliceSize, size - offset);
+                pendingSlices.add(executor.submit(() -> {
+                    uploadSlice(slice, filePath, offset, length);
+                    return null;
+                }));
+            }
+            for (Future<?> slice : pendingSlices) {
+                slice.get();
+            }
+
+            Blob blob = storage.compose(Storage.ComposeRequest.newBuilder()
+                    .addSource(sliceNames)
+                    .setTarget(target)
+                    .build());
+            if (manifest != null && !manifest.crc32c().equalsIgnoreCase(blob.getCrc32cToHexString())) {
+                storage.delete(blob.getBlobId());
+                throw new StorageExecutionException("Composed blob '" + target.getName()
+                        + "' does not match the backup manifest (crc32c " + blob.getCrc32cToHexString() + ")");
+            }
+            logger.info("Composed blob '{}' from {} slice(s)", target.getName(), sliceCount);
+            return blob;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageExecutionException("GCP composite upload interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            deleteSlices(target.getBucket(), sliceNames);
+        }
+    }
+
+    // Each slice goes through its own resumable writer, buffering one chunk at a time.
+    private void uploadSlice(BlobInfo slice, Path filePath, long offset, long length) throws IOException {
+        CRC32C crc32c = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SLICE_READ_BUFFER_SIZE, length));
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ);
+                WriteChannel writer = storage.writer(slice)) {
+            writer.setChunkSize(chunkSize());
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of file '" + filePath + "' at offset " + position);
+                }
+                position += read;
+                buffer.flip();
+                crc32c.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+            }
+        }
+
+        String expected = String.format("%08x", crc32c.getValue());
+        Blob uploaded = storage.get(slice.getBlobId());
+        if (uploaded == null || !expected.equalsIgnoreCase(uploaded.getCrc32cToHexString())) {
+            throw new StorageExecutionException("Slice '" + slice.getName() + "' was corrupted in transit");
+        }
+        logger.debug("Uploaded slice '{}' ({} bytes)", slice.getName(), length);
+    }
+
+    private void deleteSlices(String bucketName, List<String> sliceNames) {
+        try {
+            List<BlobId> ids = sliceNames.stream().map(name -> BlobId.of(bucketName, name)).toList();
+            storage.delete(ids);
+        } catch (StorageException e) {
+            logger.warn("Failed to delete temporary slices of '{}': {}", sliceNames.get(0), e.getMessage());
+        }
+    }
+
+    @Override
+    public String uploadStream(String key, InputStream inputStream) {
+        try {
+            logger.info("Streaming upload to GCP bucket '{}' with key '{}'",
+                    props.getCloud().getGcp().getBucketName(), key);
+
+            // The stream is hashed as it is sent; the digests are stored as a sidecar manifest.
+            ChecksumInputStream checksummed = new ChecksumInputStream(inputStream);
+            BlobInfo blobInfo = BlobInfo.newBuilder(props.getCloud().getGcp().getBucketName(), key).build();
+            // Closing the channel commits the object, so it is only closed once the source has been read to
+            // the end. On failure the writer is dropped unclosed: nothing was committed, any object already
+            // stored under the key is left intact, and the unfinished resumable session expires on its own.
+            WriteChannel writer = storage.writer(blobInfo);
+            writer.setChunkSize(chunkSize());
+            try {
+                checksummed.transferTo(Channels.newOutputStream(writer));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Abandoning streaming upload of '{}' after the source failed", key);
+                throw e;
+            }
+            writer.close();
+            BackupManifest manifest = checksummed.checksums().toManifest(Path.of(key).getFileName().toString());
+            putManifest(key, manifest);
+            eventPublisher.publishEvent(BackupUploadedEvent.of(StorageType.GCP, key, manifest, null));
+
+            URL url = signUrl(blobInfo);
+            logger.info("Streaming upload successful. Signed URL: {}", url);
+            return url.toString();
+        } catch (StorageException e) {
+            logger.error("GCP Storage error during streaming upload: {}", e.getMessage(), e);
+            throw new StorageExecutionException("GCP upload failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            logger.error("Unexpected error during GCP streaming upload: {}", e.getMessage(), e);
+            throw new StorageExecutionException("Unexpected error during GCP upload", e);
+        }
+    }
+
+    private void putManifest(String key, BackupManifest manifest) {
+        storage.create(BlobInfo.newBuilder(props.getCloud().getGcp().getBucketName(), key + BackupManifest.EXTENSION)
+                .build(), manifest.toBytes());
+        logger.info("Stored manifest for blob '{}' (sha256 {})", key, manifest.sha256());
+    }
+
+    private URL signUrl(BlobInfo blobInfo) {
+        long expireTime = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5);
+        return storage.signUrl(blobInfo, expireTime, TimeUnit.MILLISECONDS,
+                Storage.SignUrlOption.withV4Signature(),
+                Storage.SignUrlOption.httpMethod(HttpMethod.GET));
+    }
+
     @Override
     public Path downloadFile(String key, Path destination) {
         try {
@@ -83,6 +282,11 @@ public class GCPStorage implements StorageService {
             }
 
             blob.downloadTo(resolvedPath);
+            // Restores verify against the manifest, so it travels with the backup when there is one.
+            Blob manifest = storage.get(props.getCloud().getGcp().getBucketName(), key + BackupManifest.EXTENSION);
+            if (manifest != null && manifest.exists()) {
+                manifest.downloadTo(BackupManifest.sidecar(resolvedPath));
+            }
             logger.info("Download successful to '{}'", resolvedPath);
             return resolvedPath.toAbsolutePath();
         } catch (StorageException e) {
@@ -94,6 +298,47 @@ public class GCPStorage implements StorageService {
         }
     }
 
+    @Override
+    public RangeReader openRangeReader(String key) {
+        try {
+            Blob blob = storage.get(props.getCloud().getGcp().getBucketName(), key);
+            if (blob == null || !blob.exists()) {
+                throw new StorageExecutionException("Blob with key '" + key + "' does not exist");
+            }
+            long size = blob.getSize();
+            BlobId blobId = blob.getBlobId();
+            logger.info("Opening ranged reader for blob '{}' ({} bytes)", key, size);
+
+            return new RangeReader() {
+                @Override
+                public long size() {
+                    return size;
+                }
+
+                @Override
+                public byte[] read(long offset, int length) throws IOException {
+                    ByteBuffer buffer = ByteBuffer.allocate(length);
+                    try (ReadChannel reader = storage.reader(blobId)) {
+                        reader.seek(offset);
+                        reader.limit(offset + length);
+                        while (buffer.hasRemaining()) {
+                            if (reader.read(buffer) < 0) {
+                                throw new EOFException("Unexpected end of blob '" + key + "' at offset "
+                                        + (offset + buffer.position()));
+                            }
+                        }
+                    } catch (StorageException e) {
+                        throw new IOException("Ranged read of blob '" + key + "' failed: " + e.getMessage(), e);
+                    }
+                    return buffer.array();
+                }
+            };
+        } catch (StorageException e) {
+            logger.error("GCP Storage error opening blob '{}': {}", key, e.getMessage(), e);
+            throw new StorageExecutionException("GCP open failed: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean deleteFile(String key) {
         try {
@@ -122,25 +367,31 @@ public class GCPStorage implements StorageService {
     }
 
     @Override
-    public List<StorageFileInfo> listFiles() {
-        try {
-            return StreamSupport.stream(
-                    storage.list(props.getCloud().getGcp().getBucketName())
-                            .iterateAll()
-                            .spliterator(),
-                    false)
-                    .map(obj -> new StorageFileInfo(
-                            obj.getName(),
-                            obj.getSize() != null ? obj.getSize().intValue() : 0L,
-                            obj.getUpdateTimeOffsetDateTime() != null
-                                    ? Instant.ofEpochMilli(obj.getUpdateTimeOffsetDateTime().toEpochSecond())
-                                            .atZone(ZoneId.systemDefault())
-                                            .toLocalDateTime()
-                                    : null))
-                    .collect(Collectors.toList());
-        } catch (StorageException e) {
-            logger.error("GCP Storage error during list files: {}", e.getMessage(), e);
-            return List.of();
+    public Stream<StorageFileInfo> streamFiles(String prefix, String delimiter) {
+        String bucketName = props.getCloud().getGcp().getBucketName();
+        logger.info("Listing GCP bucket '{}' (prefix '{}', delimiter '{}')", bucketName, prefix, delimiter);
+        List<Storage.BlobListOption> options = new ArrayList<>();
+        options.add(Storage.BlobListOption.pageSize(LIST_PAGE_SIZE));
+        if (prefix != null) {
+            options.add(Storage.BlobListOption.prefix(prefix));
+        }
+        if (delimiter != null) {
+            options.add(Storage.BlobListOption.delimiter(delimiter));
         }
+        // The first page is only requested once the stream is consumed.
+        Iterable<Blob> blobs = () -> storage.list(bucketName, options.toArray(Storage.BlobListOption[]::new))
+                .iterateAll()
+                .iterator();
+        return StorageListings.lazily(blobs, StorageException.class, "Listing GCP bucket '" + bucketName + "'")
+                .map(obj -> obj.isDirectory()
+                        ? StorageFileInfo.ofPrefix(obj.getName())
+                        : new StorageFileInfo(
+                                obj.getName(),
+                                obj.getSize() != null ? obj.getSize() : 0L,
+                                obj.getUpdateTimeOffsetDateTime() != null
+                                        ? obj.getUpdateTimeOffsetDateTime()
+                                                .atZoneSameInstant(ZoneId.systemDefault())
+                                                .toLocalDateTime()
+                                        : null));
     }
 }
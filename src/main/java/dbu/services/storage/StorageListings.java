@@ -0,0 +1,173 @@
+package dbu.services.storage;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import dbu.exceptions.StorageExecutionException;
+import dbu.models.StorageFileInfo;
+
+// Helpers shared by the provider listings: turning SDK pagers into lazy streams and spreading a large
+// listing over several prefixes at once.
+public final class StorageListings {
+
+    public static final String DEFAULT_DELIMITER = "/";
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final Object END = new Object();
+
+    private StorageListings() {
+    }
+
+    // Pages are fetched as the stream is consumed. A provider error while fetching the next page is
+    // rethrown as a StorageExecutionException.
+    static <T> Stream<T> lazily(Iterable<T> source, Class<? extends RuntimeException> errorType, String operation) {
+        Iterator<T> guarded = new Iterator<>() {
+            private Iterator<T> delegate;
+
+            @Override
+            public boolean hasNext() {
+                return guard(() -> iterator().hasNext());
+            }
+
+            @Override
+            public T next() {
+                return guard(() -> iterator().next());
+            }
+
+            private Iterator<T> iterator() {
+                if (delegate == null) {
+                    delegate = source.iterator();
+                }
+                return delegate;
+            }
+
+            private <R> R guard(Supplier<R> call) {
+                try {
+                    return call.get();
+                } catch (RuntimeException e) {
+                    if (errorType.isInstance(e)) {
+                        throw new StorageExecutionException(operation + " failed: " + e.getMessage(), e);
+                    }
+                    throw e;
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(guarded,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Lists everything under a prefix with up to `parallelism` listings in flight. The prefix is listed
+    // one level deep first, then every common prefix found there is listed on its own worker. Entries
+    // arrive as the workers produce them, so the result is not ordered; a bounded queue stops the
+    // workers from getting far ahead of the consumer. Closing the stream cancels the workers.
+    public static Stream<StorageFileInfo> sharded(StorageService storageService, String prefix, int parallelism) {
+        if (parallelism <= 1) {
+            return storageService.streamFiles(prefix, null);
+        }
+
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism + 1);
+        Semaphore slots = new Semaphore(parallelism);
+        // One party for the coordinator plus one per shard in flight; the last to leave ends the stream.
+        Phaser pending = new Phaser(1) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                offer(queue, END);
+                return true;
+            }
+        };
+
+        executor.submit(() -> {
+            try (Stream<StorageFileInfo> top = storageService.streamFiles(prefix, DEFAULT_DELIMITER)) {
+                Iterator<StorageFileInfo> entries = top.iterator();
+                while (entries.hasNext()) {
+                    StorageFileInfo entry = entries.next();
+                    if (!entry.isPrefix()) {
+                        queue.put(entry);
+                        continue;
+                    }
+                    slots.acquire();
+                    pending.register();
+                    executor.submit(() -> {
+                        try (Stream<StorageFileInfo> shard = storageService.streamFiles(entry.getName(), null)) {
+                            Iterator<StorageFileInfo> files = shard.iterator();
+                            while (files.hasNext()) {
+                                queue.put(files.next());
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (RuntimeException e) {
+                            offer(queue, e);
+                        } finally {
+                            slots.release();
+                            pending.arriveAndDeregister();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                offer(queue, e);
+            } finally {
+                pending.arriveAndDeregister();
+            }
+        });
+
+        Iterator<StorageFileInfo> results = new Iterator<>() {
+            private Object next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = take(queue);
+                }
+                if (next instanceof RuntimeException e) {
+                    throw e instanceof StorageExecutionException ? e
+                            : new StorageExecutionException("Listing failed: " + e.getMessage(), e);
+                }
+                return next != END;
+            }
+
+            @Override
+            public StorageFileInfo next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                StorageFileInfo entry = (StorageFileInfo) next;
+                next = null;
+                return entry;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.NONNULL), false)
+                .onClose(executor::shutdownNow);
+    }
+
+    private static Object take(BlockingQueue<Object> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageExecutionException("Listing interrupted", e);
+        }
+    }
+
+    // Errors and the end marker must reach the consumer even when the queue is full.
+    private static void offer(BlockingQueue<Object> queue, Object marker) {
+        try {
+            queue.put(marker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
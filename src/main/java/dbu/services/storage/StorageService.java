@@ -1,20 +1,40 @@
 package dbu.services.storage;
 
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 import dbu.exceptions.StorageExecutionException;
 import dbu.models.StorageFileInfo;
+import dbu.utils.RangeReader;
 
 public interface StorageService {
 
     String uploadFile(String key, Path filePath) throws StorageExecutionException;
 
+    String uploadStream(String key, InputStream inputStream) throws StorageExecutionException;
+
     Path downloadFile(String key, Path destination) throws StorageExecutionException;
 
+    // Random access to a stored object through ranged reads, without downloading all of it.
+    RangeReader openRangeReader(String key) throws StorageExecutionException;
+
     boolean deleteFile(String key) throws StorageExecutionException;
 
     boolean exists(String key);
 
-    List<StorageFileInfo> listFiles();
+    // Lazily paged listing of the objects whose keys start with the prefix (null for all). With a delimiter,
+    // keys that continue past it are folded into one common-prefix entry per level. Provider errors surface as
+    // a StorageExecutionException while the stream is consumed; close the stream when done.
+    Stream<StorageFileInfo> streamFiles(String prefix, String delimiter);
+
+    // Reports provider errors as an empty listing.
+    default List<StorageFileInfo> listFiles() {
+        try (Stream<StorageFileInfo> files = streamFiles(null, null)) {
+            return files.toList();
+        } catch (StorageExecutionException e) {
+            return List.of();
+        }
+    }
 }
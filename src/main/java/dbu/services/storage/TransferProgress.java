@@ -0,0 +1,61 @@
+package dbu.services.storage;
+
+import org.slf4j.Logger;
+
+// Logs how far a transfer has got and how fast it is going. Known sizes report every tenth of the way,
+// unknown ones (streams) every REPORT_INTERVAL_BYTES; the summary is logged once the transfer completes.
+class TransferProgress {
+
+    private static final long REPORT_INTERVAL_BYTES = 64L * 1024 * 1024;
+    private static final int REPORT_STEPS = 10;
+
+    private final Logger logger;
+    private final String description;
+    private final long totalBytes;
+    private final long startNanos = System.nanoTime();
+    private long transferred;
+    private long nextReport;
+
+    TransferProgress(Logger logger, String description, long totalBytes) {
+        this.logger = logger;
+        this.description = description;
+        this.totalBytes = totalBytes;
+        this.nextReport = step();
+    }
+
+    // Takes the running total of bytes transferred, as the SDK progress listeners report it.
+    synchronized void update(long bytesTransferred) {
+        transferred = Math.max(transferred, bytesTransferred);
+        if (transferred < nextReport || (totalBytes > 0 && transferred >= totalBytes)) {
+            return;
+        }
+        while (nextReport <= transferred) {
+            nextReport += step();
+        }
+        if (totalBytes > 0) {
+            logger.info("{}: {}% ({} of {} MB, {} MB/s)", description, transferred * 100 / totalBytes,
+                    megabytes(transferred), megabytes(totalBytes), throughput());
+        } else {
+            logger.info("{}: {} MB ({} MB/s)", description, megabytes(transferred), throughput());
+        }
+    }
+
+    synchronized void complete() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        logger.info("{}: {} MB in {} s ({} MB/s)", description, megabytes(transferred),
+                String.format("%.1f", seconds), throughput());
+    }
+
+    private long step() {
+        return totalBytes > 0 ? Math.max(1, totalBytes / REPORT_STEPS) : REPORT_INTERVAL_BYTES;
+    }
+
+    private String throughput() {
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 0.001);
+        return String.format("%.1f", transferred / 1024.0 / 1024.0 / seconds);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f", bytes / 1024.0 / 1024.0);
+    }
+}
@@ -0,0 +1,66 @@
+package dbu.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+// Sidecar written next to a backup (<backup>.manifest) with the size and digests of its stored bytes.
+// Restores verify against it while streaming; uploads hand the digests to the provider.
+public record BackupManifest(String file, long size, String sha256, String crc32c) {
+
+    public static final String EXTENSION = ".manifest";
+
+    public static Path sidecar(Path backup) {
+        return backup.resolveSibling(backup.getFileName() + EXTENSION);
+    }
+
+    public void write(Path backup) throws IOException {
+        Files.write(sidecar(backup), toBytes());
+    }
+
+    // Returns null when the backup has no manifest.
+    public static BackupManifest read(Path backup) throws IOException {
+        Path sidecar = sidecar(backup);
+        return Files.isRegularFile(sidecar) ? parse(Files.readString(sidecar, StandardCharsets.UTF_8)) : null;
+    }
+
+    public byte[] toBytes() {
+        return ("file=" + file + "\n"
+                + "size=" + size + "\n"
+                + "sha256=" + sha256 + "\n"
+                + "crc32c=" + crc32c + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static BackupManifest parse(String text) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        for (String line : text.split("\n")) {
+            int separator = line.indexOf('=');
+            if (separator > 0) {
+                fields.put(line.substring(0, separator).strip(), line.substring(separator + 1).strip());
+            }
+        }
+        if (!fields.containsKey("size") || !fields.containsKey("sha256") || !fields.containsKey("crc32c")) {
+            throw new IOException("Incomplete backup manifest");
+        }
+        try {
+            return new BackupManifest(fields.get("file"), Long.parseLong(fields.get("size")), fields.get("sha256"),
+                    fields.get("crc32c"));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid size in backup manifest: " + fields.get("size"), e);
+        }
+    }
+
+    // Cloud providers take digests base64-encoded in network byte order.
+    public String sha256Base64() {
+        return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256));
+    }
+
+    public String crc32cBase64() {
+        return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(crc32c));
+    }
+}
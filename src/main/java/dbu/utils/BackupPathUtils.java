@@ -19,10 +19,7 @@ public class BackupPathUtils {
 				Files.createDirectories(outputPath);
 			}
 
-			String fileName = prefix + "_"
-					+ LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + suffix;
-
-			return outputPath.resolve(fileName);
+			return outputPath.resolve(createBackupFileName(prefix, suffix));
 		}
 
 		Path parent = outputPath.getParent();
@@ -33,4 +30,8 @@ public class BackupPathUtils {
 		return outputPath;
 	}
 
+	public static String createBackupFileName(String prefix, String suffix) {
+		return prefix + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")) + suffix;
+	}
+
 }
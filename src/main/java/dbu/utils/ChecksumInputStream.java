@@ -0,0 +1,93 @@
+package dbu.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Hashes a stream as it is read. With an expected manifest, the digests are compared as soon as the
+// manifest's size has been read, and a mismatch fails the read instead of letting the restore finish.
+public class ChecksumInputStream extends FilterInputStream {
+
+    private final Checksums checksums = new Checksums();
+    private final BackupManifest expected;
+    private boolean verified;
+
+    public ChecksumInputStream(InputStream in) {
+        this(in, null);
+    }
+
+    public ChecksumInputStream(InputStream in, BackupManifest expected) {
+        super(in);
+        this.expected = expected;
+    }
+
+    public Checksums checksums() {
+        return checksums;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            if (verified) {
+                throw new IOException("Backup " + expected.file() + " is longer than its manifest");
+            }
+            checksums.update(b, off, n);
+        }
+        if (expected != null && !verified && (n < 0 || checksums.size() >= expected.size())) {
+            verify();
+        }
+        return n;
+    }
+
+    // Skipped bytes still have to be hashed.
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    // Container formats (zip, tar) and some decoders stop before the end of the file, short of the manifest's
+    // size. Once the content has been read to its end, the rest of the backup is hashed here so it is still
+    // verified; a plain close() only releases the file, so a failed restore does not read the remainder.
+    public void verifyRemaining() throws IOException {
+        if (expected == null || verified) {
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        while (read(buffer, 0, buffer.length) >= 0) {
+            // drained for hashing only
+        }
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void verify() throws IOException {
+        verified = true;
+        if (checksums.size() != expected.size()) {
+            throw new IOException("Backup size mismatch for " + expected.file() + ": expected " + expected.size()
+                    + " bytes, read " + checksums.size());
+        }
+        if (!checksums.sha256Hex().equalsIgnoreCase(expected.sha256())
+                || !checksums.crc32cHex().equalsIgnoreCase(expected.crc32c())) {
+            throw new IOException("Checksum mismatch for " + expected.file() + ": the backup is corrupted");
+        }
+    }
+}
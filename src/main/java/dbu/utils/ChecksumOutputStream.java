@@ -0,0 +1,40 @@
+package dbu.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+// Hashes everything written to a backup file and writes its manifest once the file is closed.
+public class ChecksumOutputStream extends FilterOutputStream {
+
+    private final Checksums checksums = new Checksums();
+    private final Path backup;
+    private boolean closed;
+
+    public ChecksumOutputStream(OutputStream out, Path backup) {
+        super(out);
+        this.backup = backup;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        checksums.update(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        super.close();
+        checksums.toManifest(backup.getFileName().toString()).write(backup);
+    }
+}
@@ -0,0 +1,52 @@
+package dbu.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.CRC32C;
+
+// Running SHA-256 and CRC32C of a byte stream, updated as the bytes pass through so no second read of
+// the data is needed. Both use the CPU's SHA and CRC32C instructions where the JVM has intrinsics.
+public class Checksums {
+
+    private final MessageDigest sha256;
+    private final CRC32C crc32c = new CRC32C();
+    private long size;
+    private byte[] sha256Digest;
+
+    public Checksums() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public void update(byte[] b, int off, int len) {
+        if (sha256Digest != null) {
+            throw new IllegalStateException("Checksums already finished");
+        }
+        sha256.update(b, off, len);
+        crc32c.update(b, off, len);
+        size += len;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public String sha256Hex() {
+        if (sha256Digest == null) {
+            sha256Digest = sha256.digest();
+        }
+        return HexFormat.of().formatHex(sha256Digest);
+    }
+
+    public String crc32cHex() {
+        return HexFormat.of().toHexDigits((int) crc32c.getValue());
+    }
+
+    public BackupManifest toManifest(String fileName) {
+        return new BackupManifest(fileName, size, sha256Hex(), crc32cHex());
+    }
+}
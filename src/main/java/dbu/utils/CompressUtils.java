@@ -1,83 +1,285 @@
 package dbu.utils;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 
+import com.github.luben.zstd.ZstdOutputStream;
+
+import dbu.enums.CompressType;
+import dbu.models.BackupConfig;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import net.jpountz.xxhash.XXHashFactory;
+
 public class CompressUtils {
 
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+    private static final int DEFAULT_ZSTD_LEVEL = 3;
+    private static final int MAX_LZ4_HC_LEVEL = 17;
+    private static final int TAR_RECORD_SIZE = 512;
+    private static final int ZIP_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final Set<String> PRECOMPRESSED_EXTENSIONS = Set.of(
+            ".gz", ".gzip", ".zst", ".szst", ".lz4", ".zip", ".bz2", ".xz", ".7z");
+
     public static Path compressGzip(Path input, Path output) throws IOException {
-        try (GZIPOutputStream gos = new GZIPOutputStream(Files.newOutputStream(output))) {
+        try (GZIPOutputStream gos = new GZIPOutputStream(newBackupOutputStream(output))) {
             Files.copy(input, gos);
         }
         return output;
     }
 
+    // Compresses a file, or a directory as a tar stream, with the codec of the backup's compress type
+    // (GZIP, ZSTD, LZ4 or SEEKABLE).
+    public static Path compress(Path input, Path output, BackupConfig backupConfig) throws IOException {
+        OutputStream cos = newCompressorStream(
+                new BufferedOutputStream(newBackupOutputStream(output), STREAM_BUFFER_SIZE), backupConfig);
+        if (Files.isDirectory(input)) {
+            try (cos) {
+                writeTar(input, cos);
+            }
+        } else {
+            try (OutputStream entry = entryStream(cos, input.getFileName().toString())) {
+                Files.copy(input, entry);
+            }
+        }
+        return output;
+    }
+
+    // Entries are deflated concurrently into scatter files on every core and then copied into the
+    // archive in order. Files that are already compressed are stored without deflating them again.
     public static Path compressZip(Path input, Path output) throws IOException {
-        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(output))) {
-            if (Files.isDirectory(input)) {
-                Files.walk(input)
-                     .filter(Files::isRegularFile)
-                     .forEach(file -> {
-                         try {
-                             String entryName = input.relativize(file).toString();
-                             zos.putNextEntry(new ZipEntry(entryName));
-                             Files.copy(file, zos);
-                             zos.closeEntry();
-                         } catch (IOException e) {
-                             throw new UncheckedIOException(e);
-                         }
-                     });
-            } else {
-                zos.putNextEntry(new ZipEntry(input.getFileName().toString()));
-                Files.copy(input, zos);
-                zos.closeEntry();
+        List<Path> files;
+        Path root;
+        if (Files.isDirectory(input)) {
+            root = input;
+            try (Stream<Path> walk = Files.walk(input)) {
+                files = walk.filter(Files::isRegularFile).filter(file -> !isManifest(file)).toList();
+            }
+        } else {
+            root = input.toAbsolutePath().getParent();
+            files = List.of(input.toAbsolutePath());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(ZIP_THREADS);
+        try {
+            ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+            for (Path file : files) {
+                ZipArchiveEntry entry = new ZipArchiveEntry(root.relativize(file).toString().replace('\\', '/'));
+                entry.setMethod(isPrecompressed(file) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                creator.addArchiveEntry(entry, () -> {
+                    try {
+                        return new BufferedInputStream(Files.newInputStream(file), STREAM_BUFFER_SIZE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(newBackupOutputStream(output))) {
+                creator.writeTo(zos);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("ZIP compression interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
         return output;
     }
 
+    // Backup files are hashed as they are written; the digests land in a sidecar BackupManifest.
+    private static OutputStream newBackupOutputStream(Path output) throws IOException {
+        return new ChecksumOutputStream(Files.newOutputStream(output), output);
+    }
+
+    // Sidecar manifests describe files on disk; archives are covered by their own manifest.
+    private static boolean isManifest(Path file) {
+        return file.getFileName().toString().endsWith(BackupManifest.EXTENSION);
+    }
+
+    private static boolean isPrecompressed(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return PRECOMPRESSED_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
     public static Path compressTarGz(Path input, Path output) throws IOException {
         try (
-            OutputStream fos = Files.newOutputStream(output);
+            OutputStream fos = newBackupOutputStream(output);
             BufferedOutputStream bos = new BufferedOutputStream(fos);
-            GzipCompressorOutputStream gzos = new GzipCompressorOutputStream(bos);
-            TarArchiveOutputStream taos = new TarArchiveOutputStream(gzos)
+            GzipCompressorOutputStream gzos = new GzipCompressorOutputStream(bos)
         ) {
-            taos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-
-            if (Files.isDirectory(input)) {
-                Files.walk(input)
-                     .filter(Files::isRegularFile)
-                     .forEach(file -> {
-                         try {
-                             String entryName = input.relativize(file).toString();
-                             TarArchiveEntry entry = new TarArchiveEntry(file.toFile(), entryName);
-                             taos.putArchiveEntry(entry);
-                             Files.copy(file, taos);
-                             taos.closeArchiveEntry();
-                         } catch (IOException e) {
-                             throw new UncheckedIOException(e);
-                         }
-                     });
-            } else {
-                TarArchiveEntry entry = new TarArchiveEntry(input.toFile(), input.getFileName().toString());
-                taos.putArchiveEntry(entry);
-                Files.copy(input, taos);
-                taos.closeArchiveEntry();
-            }
-            taos.finish();
+            writeTar(input, gzos);
         }
         return output;
     }
+
+    // TAR needs the entry size up front, so TARGZ still has to be staged on disk.
+    public static boolean supportsStreaming(CompressType compressType) {
+        return compressType != CompressType.TARGZ;
+    }
+
+    public static String streamingExtension(CompressType compressType, String rawExtension) {
+        return switch (compressType) {
+            case GZIP -> rawExtension + ".gzip";
+            case ZIP -> ".zip";
+            case ZSTD -> rawExtension + ".zst";
+            case LZ4 -> rawExtension + ".lz4";
+            case SEEKABLE -> rawExtension + ".szst";
+            default -> rawExtension;
+        };
+    }
+
+    public static Path compressStream(InputStream input, Path output, BackupConfig backupConfig, String entryName)
+            throws IOException {
+        compressStream(input, newBackupOutputStream(output), backupConfig, entryName);
+        return output;
+    }
+
+    // Closes the output stream once the input is exhausted.
+    public static void compressStream(InputStream input, OutputStream output, BackupConfig backupConfig,
+            String entryName) throws IOException {
+        CompressType compressType = backupConfig.getCompressType();
+        try (OutputStream os = new BufferedOutputStream(output, STREAM_BUFFER_SIZE)) {
+            switch (compressType) {
+                case ZIP -> {
+                    try (ZipOutputStream zos = new ZipOutputStream(os)) {
+                        zos.putNextEntry(new ZipEntry(entryName));
+                        input.transferTo(zos);
+                        zos.closeEntry();
+                    }
+                }
+                case NONE -> input.transferTo(os);
+                case TARGZ -> throw new IllegalArgumentException(
+                        "Compression type does not support streaming: " + compressType);
+                default -> {
+                    try (OutputStream cos = entryStream(newCompressorStream(os, backupConfig), entryName)) {
+                        input.transferTo(cos);
+                    }
+                }
+            }
+        }
+    }
+
+    // Wraps the output in the configured single-stream codec (GZIP, ZSTD, LZ4 or SEEKABLE), honouring the
+    // level and worker-thread settings of the backup.
+    public static OutputStream newCompressorStream(OutputStream output, BackupConfig backupConfig)
+            throws IOException {
+        Integer level = backupConfig.getCompressLevel();
+        int threads = backupConfig.getCompressThreads();
+
+        return switch (backupConfig.getCompressType()) {
+            case GZIP -> threads > 1
+                    ? new ParallelGzipOutputStream(output, threads, backupConfig.getCompressBlockSize(),
+                            level != null ? level : Deflater.DEFAULT_COMPRESSION)
+                    : newGzipOutputStream(output, level);
+            case ZSTD -> {
+                ZstdOutputStream zos = new ZstdOutputStream(output, level != null ? level : DEFAULT_ZSTD_LEVEL);
+                if (threads > 1) {
+                    zos.setWorkers(threads);
+                }
+                yield zos;
+            }
+            case LZ4 -> newLz4OutputStream(output, level);
+            case SEEKABLE -> new SeekableZstdOutputStream(output, Math.max(1, threads), backupConfig.getCompressBlockSize(),
+                    level != null ? level : SeekableZstdOutputStream.DEFAULT_LEVEL);
+            default -> throw new IllegalArgumentException(
+                    "Compression type is not a stream codec: " + backupConfig.getCompressType());
+        };
+    }
+
+    // A single-file seekable output also indexes the tables of a SQL script, for partial restores.
+    private static OutputStream entryStream(OutputStream output, String entryName) throws IOException {
+        if (!(output instanceof SeekableZstdOutputStream seekable)) {
+            return output;
+        }
+        seekable.startEntry(entryName);
+        return entryName.endsWith(".sql") ? new SqlObjectIndexer(seekable) : seekable;
+    }
+
+    // Seekable outputs index every file of a backup so it can be read back on its own.
+    private static void startEntry(OutputStream output, String entryName) throws IOException {
+        if (output instanceof SeekableZstdOutputStream seekable) {
+            seekable.startEntry(entryName);
+        }
+    }
+
+    private static OutputStream newGzipOutputStream(OutputStream output, Integer level) throws IOException {
+        if (level == null) {
+            return new GZIPOutputStream(output, STREAM_BUFFER_SIZE);
+        }
+        return new GZIPOutputStream(output, STREAM_BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    // Levels above zero select the LZ4 HC compressor; otherwise the fast compressor is used.
+    private static OutputStream newLz4OutputStream(OutputStream output, Integer level) throws IOException {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        LZ4Compressor compressor = level == null || level <= 0
+                ? factory.fastCompressor()
+                : factory.highCompressor(Math.min(level, MAX_LZ4_HC_LEVEL));
+        return new LZ4FrameOutputStream(output, LZ4FrameOutputStream.BLOCKSIZE.SIZE_4MB, -1L, compressor,
+                XXHashFactory.fastestInstance().hash32(), LZ4FrameOutputStream.FLG.Bits.BLOCK_INDEPENDENCE);
+    }
+
+    // Writes a file or directory tree as a TAR stream; the caller closes the underlying stream. Records
+    // are not grouped into larger blocks, so every entry reaches the output before the next one starts.
+    private static void writeTar(Path input, OutputStream output) throws IOException {
+        TarArchiveOutputStream taos = new TarArchiveOutputStream(output, TAR_RECORD_SIZE);
+        taos.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+
+        if (Files.isDirectory(input)) {
+            Files.walk(input)
+                 .filter(Files::isRegularFile)
+                 .filter(file -> !isManifest(file))
+                 .forEach(file -> {
+                     try {
+                         String entryName = input.relativize(file).toString();
+                         TarArchiveEntry entry = new TarArchiveEntry(file.toFile(), entryName);
+                         startEntry(output, entryName);
+                         taos.putArchiveEntry(entry);
+                         Files.copy(file, taos);
+                         taos.closeArchiveEntry();
+                     } catch (IOException e) {
+                         throw new UncheckedIOException(e);
+                     }
+                 });
+        } else {
+            TarArchiveEntry entry = new TarArchiveEntry(input.toFile(), input.getFileName().toString());
+            startEntry(output, entry.getName());
+            taos.putArchiveEntry(entry);
+            Files.copy(input, taos);
+            taos.closeArchiveEntry();
+        }
+        taos.finish();
+    }
 }
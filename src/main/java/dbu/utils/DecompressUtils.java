@@ -1,92 +1,428 @@
 package dbu.utils;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 
+import com.github.luben.zstd.ZstdInputStream;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+
 public class DecompressUtils {
 
+    private static final int STREAM_BUFFER_SIZE = 1 << 16;
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int TAR_MAGIC_OFFSET = 257;
+    private static final int MAX_NESTING = 4;
+    private static final int EXTRACT_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int IN_MEMORY_ENTRY_LIMIT = 4 << 20;
+    private static final String[] ARCHIVE_EXTENSIONS = { ".tar.gz", ".tar.zst", ".tar.lz4", ".tar.szst", ".zip" };
+    private static final ExtractedEntry END_OF_ARCHIVE = new ExtractedEntry(null, null);
+
+    enum StreamFormat {
+        GZIP, ZSTD, LZ4, ZIP, TAR, RAW
+    }
+
+    // Tar and zip backups, which can hold a dump directory; anything else decompresses to a single file.
+    public static boolean isMultiFileArchive(Path input) {
+        String name = input.toString().toLowerCase();
+        return Arrays.stream(ARCHIVE_EXTENSIONS).anyMatch(name::endsWith);
+    }
+
+    // Single-stream codecs are decompressed next to the input; archives are fully extracted.
     public static Path decompressIfNeeded(Path input) throws IOException {
         String name = input.toString().toLowerCase();
-        if (name.endsWith(".tar.gz")) {
-            return decompressTarGz(input);
+        if (isMultiFileArchive(input)) {
+            return singleFileOrDirectory(extractArchive(input));
         } else if (name.endsWith(".gz")) {
-            return decompressGzip(input);
-        } else if (name.endsWith(".zip")) {
-            return decompressZip(input);
+            return decompressGzip(input, ".gz");
+        } else if (name.endsWith(".gzip")) {
+            return decompressGzip(input, ".gzip");
+        } else if (name.endsWith(".szst")) {
+            return decompressSingle(input, ".szst", openSeekable(input));
+        } else if (name.endsWith(".zst")) {
+            InputStream raw = openVerified(input);
+            return decompressSingle(input, ".zst",
+                    verifyAtEnd(new ZstdInputStream(new BufferedInputStream(raw)), raw));
+        } else if (name.endsWith(".lz4")) {
+            InputStream raw = openVerified(input);
+            return decompressSingle(input, ".lz4",
+                    verifyAtEnd(new LZ4FrameInputStream(new BufferedInputStream(raw)), raw));
         } else {
-            return input; 
+            return input;
         }
     }
 
-    private static Path decompressGzip(Path input) throws IOException {
-        Path output = stripExtension(input, ".gz");
+    // Opens a backup as a stream of its decompressed content, so restores can pipe it into a client
+    // without writing a decompressed copy first. The format is sniffed, so the file name does not matter;
+    // seekable backups are recognised by their index and decompressed on every core.
+    public static InputStream openDecompressedStream(Path input) throws IOException {
+        if (SeekableZstdReader.isSeekable(input)) {
+            return openStream(openSeekable(input));
+        }
+        InputStream raw = openVerified(input);
+        try {
+            return verifyAtEnd(openStream(raw), raw);
+        } catch (IOException e) {
+            raw.close();
+            throw e;
+        }
+    }
 
-        try (GZIPInputStream gis = new GZIPInputStream(Files.newInputStream(input));
-                OutputStream os = Files.newOutputStream(output)) {
-            gis.transferTo(os);
+    // Unwraps a stream layer by layer from its magic bytes (e.g. zstd, then tar, then the first entry)
+    // until plain content is left. Decoders are only created as the layers are reached.
+    public static InputStream openStream(InputStream input) throws IOException {
+        InputStream current = input;
+        for (int depth = 0; depth < MAX_NESTING; depth++) {
+            BufferedInputStream buffered = current instanceof BufferedInputStream b
+                    ? b
+                    : new BufferedInputStream(current, STREAM_BUFFER_SIZE);
+            switch (detectFormat(buffered)) {
+                case GZIP -> current = GzipCompressorInputStream.builder()
+                        .setInputStream(buffered)
+                        .setDecompressConcatenated(true)
+                        .get();
+                case ZSTD -> current = new ZstdInputStream(buffered);
+                case LZ4 -> current = new LZ4FrameInputStream(buffered);
+                case ZIP -> current = firstZipEntry(new ZipInputStream(buffered));
+                case TAR -> current = firstTarEntry(new TarArchiveInputStream(buffered));
+                default -> {
+                    return buffered;
+                }
+            }
         }
-        return output;
+        throw new IOException("Backup is nested in more than " + MAX_NESTING + " containers");
     }
 
-    private static Path decompressZip(Path input) throws IOException {
-        Path outputDir = input.getParent();
-        Path extractedFile = null;
+    // Backups with a manifest are checked against it while they are read, in the same pass.
+    private static InputStream openVerified(Path input) throws IOException {
+        BackupManifest manifest = BackupManifest.read(input);
+        InputStream raw = Files.newInputStream(input);
+        return manifest != null ? new ChecksumInputStream(raw, manifest) : raw;
+    }
 
-        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(input))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    extractedFile = outputDir.resolve(entry.getName());
-                    try (OutputStream os = Files.newOutputStream(extractedFile)) {
-                        zis.transferTo(os);
-                    }
-                    break; 
+    // Decoders and containers can stop short of the end of the file (a zip's central directory, tar padding),
+    // so the rest of a verified backup is hashed once its content has been read to the end. A stream closed
+    // early, e.g. by a failed restore, is released without reading the remainder.
+    private static InputStream verifyAtEnd(InputStream content, InputStream raw) {
+        if (!(raw instanceof ChecksumInputStream checksummed)) {
+            return content;
+        }
+        return new FilterInputStream(content) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    checksummed.verifyRemaining();
                 }
+                return b;
             }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    checksummed.verifyRemaining();
+                }
+                return n;
+            }
+        };
+    }
+
+    // Reads a seekable backup block by block in parallel; closing the stream releases the file.
+    private static InputStream openSeekable(Path input) throws IOException {
+        SeekableZstdReader reader = SeekableZstdReader.open(input);
+        return new FilterInputStream(reader.openAll()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    reader.close();
+                }
+            }
+        };
+    }
+
+    static StreamFormat detectFormat(BufferedInputStream input) throws IOException {
+        input.mark(TAR_BLOCK_SIZE);
+        byte[] header = input.readNBytes(TAR_BLOCK_SIZE);
+        input.reset();
+
+        if (startsWith(header, 0x1f, 0x8b)) {
+            return StreamFormat.GZIP;
+        } else if (startsWith(header, 0x28, 0xb5, 0x2f, 0xfd)) {
+            return StreamFormat.ZSTD;
+        } else if (startsWith(header, 0x04, 0x22, 0x4d, 0x18)) {
+            return StreamFormat.LZ4;
+        } else if (startsWith(header, 0x50, 0x4b, 0x03, 0x04)) {
+            return StreamFormat.ZIP;
+        } else if (header.length == TAR_BLOCK_SIZE
+                && new String(header, TAR_MAGIC_OFFSET, 5, StandardCharsets.US_ASCII).equals("ustar")) {
+            return StreamFormat.TAR;
+        }
+        return StreamFormat.RAW;
+    }
+
+    private static boolean startsWith(byte[] header, int... magic) {
+        if (header.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xff) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static InputStream firstZipEntry(ZipInputStream zis) throws IOException {
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return zis;
+            }
+        }
+        throw new IOException("No file found inside zip archive");
+    }
+
+    private static InputStream firstTarEntry(TarArchiveInputStream tis) throws IOException {
+        TarArchiveEntry entry;
+        while ((entry = tis.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return tis;
+            }
+        }
+        throw new IOException("No file found inside tar archive");
+    }
+
+    // Unpacks every entry of a multi-file archive into a sibling directory named after the archive.
+    public static Path extractArchive(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            return input;
         }
 
-        if (extractedFile == null) {
-            throw new IOException("No file found inside zip: " + input);
+        String name = input.getFileName().toString().toLowerCase();
+        for (String extension : ARCHIVE_EXTENSIONS) {
+            if (!name.endsWith(extension)) {
+                continue;
+            }
+
+            Path outputDir = stripExtension(input.toAbsolutePath(), input.getFileName().toString()
+                    .substring(name.length() - extension.length()));
+            Files.createDirectories(outputDir);
+
+            switch (extension) {
+                case ".zip" -> extractZip(input, outputDir);
+                case ".tar.szst" -> extractTar(openSeekable(input), null, outputDir);
+                default -> {
+                    InputStream raw = openVerified(input);
+                    BufferedInputStream buffered = new BufferedInputStream(raw, STREAM_BUFFER_SIZE);
+                    InputStream decoder = switch (extension) {
+                        case ".tar.gz" -> GzipCompressorInputStream.builder()
+                                .setInputStream(buffered)
+                                .setDecompressConcatenated(true)
+                                .get();
+                        case ".tar.zst" -> new ZstdInputStream(buffered);
+                        default -> new LZ4FrameInputStream(buffered);
+                    };
+                    extractTar(decoder, raw, outputDir);
+                }
+            }
+            return outputDir;
         }
-        return extractedFile;
+        throw new IOException("Not a multi-file archive: " + input);
     }
 
-    private static Path decompressTarGz(Path input) throws IOException {
-        Path outputDir = input.getParent();
-        Path extractedFile = null;
+    // The central directory gives random access to every entry, so entries are inflated concurrently:
+    // each worker opens its own ZipFile and takes the next entry, largest first.
+    private static void extractZip(Path input, Path outputDir) throws IOException {
+        List<ZipEntry> files = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(input.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path target = resolveEntry(outputDir, entry.getName());
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    files.add(entry);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+        Queue<ZipEntry> pending = new ConcurrentLinkedQueue<>(files);
+
+        int workerCount = Math.max(1, Math.min(EXTRACT_THREADS, files.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(executor.submit(() -> {
+                try (ZipFile zip = new ZipFile(input.toFile())) {
+                    ZipEntry entry;
+                    while ((entry = pending.poll()) != null) {
+                        Path target = resolveEntry(outputDir, entry.getName());
+                        Files.createDirectories(target.getParent());
+                        try (InputStream is = zip.getInputStream(entry)) {
+                            Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        awaitWorkers(executor, workers);
+    }
 
-        try (InputStream fi = Files.newInputStream(input);
-                BufferedInputStream bi = new BufferedInputStream(fi);
-                GzipCompressorInputStream gzi = new GzipCompressorInputStream(bi);
-                TarArchiveInputStream tis = new TarArchiveInputStream(gzi)) {
+    // Tar can only be read sequentially: the calling thread reads the entries and hands small files to
+    // writer threads through a bounded queue, writing large files itself so memory stays bounded.
+    private static void extractTar(InputStream decoder, InputStream raw, Path outputDir) throws IOException {
+        int writerCount = Math.max(1, EXTRACT_THREADS - 1);
+        BlockingQueue<ExtractedEntry> queue = new ArrayBlockingQueue<>(writerCount * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(writerCount);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < writerCount; i++) {
+            writers.add(executor.submit(() -> {
+                ExtractedEntry entry;
+                while ((entry = queue.take()) != END_OF_ARCHIVE) {
+                    Files.createDirectories(entry.target().getParent());
+                    Files.write(entry.target(), entry.content());
+                }
+                return null;
+            }));
+        }
 
+        try (InputStream is = decoder;
+                TarArchiveInputStream tis = new TarArchiveInputStream(is)) {
             TarArchiveEntry entry;
             while ((entry = tis.getNextEntry()) != null) {
-                if (!entry.isDirectory()) {
-                    extractedFile = outputDir.resolve(entry.getName());
-                    try (OutputStream os = Files.newOutputStream(extractedFile)) {
-                        tis.transferTo(os);
+                Path target = resolveEntry(outputDir, entry.getName());
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else if (!entry.isFile()) {
+                    // Links and device entries are not extracted.
+                    continue;
+                } else if (entry.getSize() <= IN_MEMORY_ENTRY_LIMIT) {
+                    enqueue(queue, new ExtractedEntry(target, tis.readNBytes((int) entry.getSize())), writers);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(tis, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            // The archive ends before its padding; the rest of a verified backup is hashed before it counts as read.
+            if (raw instanceof ChecksumInputStream checksummed) {
+                checksummed.verifyRemaining();
+            }
+            for (int i = 0; i < writerCount; i++) {
+                enqueue(queue, END_OF_ARCHIVE, writers);
+            }
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw e;
+        }
+        awaitWorkers(executor, writers);
+    }
+
+    private static void enqueue(BlockingQueue<ExtractedEntry> queue, ExtractedEntry entry, List<Future<?>> writers)
+            throws IOException {
+        try {
+            while (!queue.offer(entry, 1, TimeUnit.SECONDS)) {
+                for (Future<?> writer : writers) {
+                    if (writer.isDone()) {
+                        writer.get();
                     }
-                    break; 
                 }
             }
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archive extraction interrupted");
+        }
+    }
+
+    private static void awaitWorkers(ExecutorService executor, List<Future<?>> workers) throws IOException {
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw asIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Archive extraction interrupted");
+        } finally {
+            executor.shutdownNow();
         }
+    }
+
+    private static IOException asIOException(ExecutionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    private static Path resolveEntry(Path outputDir, String entryName) throws IOException {
+        Path target = outputDir.resolve(entryName).normalize();
+        if (!target.startsWith(outputDir.normalize())) {
+            throw new IOException("Archive entry is outside of the target directory: " + entryName);
+        }
+        return target;
+    }
 
-        if (extractedFile == null) {
-            throw new IOException("No file found inside tar.gz: " + input);
+    // Archives holding a single file resolve to that file, anything else to the extracted directory.
+    private static Path singleFileOrDirectory(Path outputDir) throws IOException {
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            List<Path> regularFiles = files.filter(Files::isRegularFile).limit(2).toList();
+            return regularFiles.size() == 1 ? regularFiles.get(0) : outputDir;
         }
-        return extractedFile;
+    }
+
+    private static Path decompressGzip(Path input, String extension) throws IOException {
+        InputStream raw = openVerified(input);
+        return decompressSingle(input, extension,
+                verifyAtEnd(new GZIPInputStream(new BufferedInputStream(raw), STREAM_BUFFER_SIZE), raw));
+    }
+
+    private static Path decompressSingle(Path input, String extension, InputStream decoder) throws IOException {
+        Path output = stripExtension(input, extension);
+
+        try (InputStream is = decoder;
+                OutputStream os = Files.newOutputStream(output)) {
+            is.transferTo(os);
+        }
+        return output;
+    }
+
+    private record ExtractedEntry(Path target, byte[] content) {
     }
 
     private static Path stripExtension(Path input, String extension) {
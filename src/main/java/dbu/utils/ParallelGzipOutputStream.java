@@ -0,0 +1,172 @@
+package dbu.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Block-parallel gzip writer in the style of pigz. Every block is deflated independently on a
+// fork-join pool, primed with the last 32 KB of the previous block as dictionary, and ended with a
+// sync flush so the raw deflate outputs concatenate into one standard gzip member.
+public class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final OutputStream out;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int level;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+
+    private byte[] block;
+    private int blockLength;
+    private byte[] previousBlock;
+    private long totalLength;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream out, int threads, int blockSize) throws IOException {
+        this(out, threads, blockSize, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public ParallelGzipOutputStream(OutputStream out, int threads, int blockSize, int level) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        if (blockSize < DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("Block size must be at least " + DICTIONARY_SIZE + " bytes: " + blockSize);
+        }
+        this.out = out;
+        this.pool = new ForkJoinPool(threads);
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPendingBlocks = threads * 2;
+        this.block = new byte[blockSize];
+        out.write(GZIP_HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        crc.update(b, off, len);
+        totalLength += len;
+
+        while (len > 0) {
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == blockSize) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            submitBlock(true);
+            while (!pendingBlocks.isEmpty()) {
+                writeNextBlock();
+            }
+            writeIntLE((int) crc.getValue());
+            writeIntLE((int) totalLength);
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] data = block;
+        int length = blockLength;
+        byte[] dictionary = previousBlock;
+
+        pendingBlocks.add(pool.submit(() -> deflateBlock(data, length, dictionary, last)));
+
+        // Only full blocks are ever followed by another block, so the dictionary is always its tail.
+        previousBlock = data;
+        block = last ? null : new byte[blockSize];
+        blockLength = 0;
+
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeNextBlock();
+        }
+    }
+
+    private byte[] deflateBlock(byte[] data, int length, byte[] dictionary, boolean last) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(data, 0, length);
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buffer = new byte[DEFLATE_BUFFER_SIZE];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buffer);
+                    compressed.write(buffer, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        try {
+            out.write(pendingBlocks.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing block", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress block: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void writeIntLE(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+}
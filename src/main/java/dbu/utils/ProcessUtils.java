@@ -0,0 +1,34 @@
+package dbu.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ProcessUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessUtils.class);
+
+    // Copies the input into the process's stdin, closes it, and waits for the exit code. A client that
+    // fails early breaks the pipe; its exit code is then reported rather than the broken pipe.
+    public static int pipeAndWait(Process process, InputStream input) throws IOException, InterruptedException {
+        IOException pipeFailure = null;
+        try (InputStream in = input;
+                OutputStream stdin = process.getOutputStream()) {
+            in.transferTo(stdin);
+        } catch (IOException e) {
+            pipeFailure = e;
+        }
+
+        int exitCode = process.waitFor();
+        if (pipeFailure != null) {
+            if (exitCode == 0) {
+                throw pipeFailure;
+            }
+            logger.warn("Stopped feeding the process after it failed: {}", pipeFailure.getMessage());
+        }
+        return exitCode;
+    }
+}
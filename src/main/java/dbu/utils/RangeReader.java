@@ -0,0 +1,47 @@
+package dbu.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Random-access source of bytes: a local file, or a remote object read with ranged GETs.
+// Implementations must allow concurrent reads.
+public interface RangeReader extends AutoCloseable {
+
+    long size() throws IOException;
+
+    byte[] read(long offset, int length) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    static RangeReader of(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new RangeReader() {
+            @Override
+            public long size() throws IOException {
+                return channel.size();
+            }
+
+            @Override
+            public byte[] read(long offset, int length) throws IOException {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        throw new EOFException("Unexpected end of file at offset " + (offset + buffer.position()));
+                    }
+                }
+                return buffer.array();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+package dbu.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Trailing index of a seekable backup: where every compressed block starts, and which uncompressed
+// range holds each logical object (a table, a collection, a file of a dump directory). It is stored in
+// a zstd skippable frame, so plain zstd decoders ignore it, and located from a fixed-size footer.
+public class SeekableIndex {
+
+    private static final int SKIPPABLE_FRAME_MAGIC = 0x184D2A5E;
+    private static final int FOOTER_MAGIC = 0x31554244;
+    private static final int FOOTER_SIZE = 8;
+    private static final int VERSION = 2;
+
+    private final List<Block> blocks;
+    private final List<Entry> entries;
+
+    public SeekableIndex(List<Block> blocks, List<Entry> entries) {
+        this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public List<Block> blocks() {
+        return blocks;
+    }
+
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    public Entry entry(String name) {
+        return entries.stream().filter(entry -> entry.name().equals(name)).findFirst().orElse(null);
+    }
+
+    // All entries with the given name, in file order; objects of a SQL dump may span several sections.
+    public List<Entry> entries(String name) {
+        return entries.stream().filter(entry -> entry.name().equals(name)).toList();
+    }
+
+    // The sections of one object of an indexed SQL dump, preceded by the dump's preamble (the session
+    // settings written before the first object). Empty when the object is not in the index.
+    public List<Entry> objectEntries(String name) {
+        List<Entry> matches = entries(name);
+        if (matches.isEmpty() || entries.get(0).name().equals(name)) {
+            return matches;
+        }
+        List<Entry> withPreamble = new ArrayList<>();
+        withPreamble.add(entries.get(0));
+        withPreamble.addAll(matches);
+        return withPreamble;
+    }
+
+    public long uncompressedSize() {
+        if (blocks.isEmpty()) {
+            return 0;
+        }
+        Block last = blocks.get(blocks.size() - 1);
+        return last.uncompressedOffset() + last.uncompressedSize();
+    }
+
+    // Blocks that overlap the uncompressed range [offset, offset + length).
+    public List<Block> blocksCovering(long offset, long length) {
+        List<Block> covering = new ArrayList<>();
+        for (Block block : blocks) {
+            long blockEnd = block.uncompressedOffset() + block.uncompressedSize();
+            if (blockEnd > offset && block.uncompressedOffset() < offset + length) {
+                covering.add(block);
+            }
+        }
+        return covering;
+    }
+
+    void write(OutputStream out) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(payload)) {
+            data.writeInt(VERSION);
+            data.writeInt(blocks.size());
+            for (Block block : blocks) {
+                data.writeLong(block.compressedOffset());
+                data.writeInt(block.compressedSize());
+                data.writeLong(block.uncompressedOffset());
+                data.writeInt(block.uncompressedSize());
+                data.writeInt((int) block.crc32c());
+            }
+            data.writeInt(entries.size());
+            for (Entry entry : entries) {
+                data.writeUTF(entry.name());
+                data.writeLong(entry.offset());
+                data.writeLong(entry.length());
+            }
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.size() + FOOTER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(SKIPPABLE_FRAME_MAGIC);
+        frame.putInt(payload.size() + FOOTER_SIZE);
+        frame.put(payload.toByteArray());
+        frame.putInt(payload.size());
+        frame.putInt(FOOTER_MAGIC);
+        out.write(frame.array());
+    }
+
+    // Returns null when the source does not end with a seekable index.
+    public static SeekableIndex read(RangeReader source) throws IOException {
+        long size = source.size();
+        if (size < FOOTER_SIZE) {
+            return null;
+        }
+        ByteBuffer footer = ByteBuffer.wrap(source.read(size - FOOTER_SIZE, FOOTER_SIZE))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int payloadSize = footer.getInt();
+        if (footer.getInt() != FOOTER_MAGIC || payloadSize < 0 || payloadSize > size - FOOTER_SIZE) {
+            return null;
+        }
+
+        byte[] payload = source.read(size - FOOTER_SIZE - payloadSize, payloadSize);
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = data.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported seekable index version: " + version);
+            }
+            List<Block> blocks = new ArrayList<>();
+            for (int i = data.readInt(); i > 0; i--) {
+                blocks.add(new Block(data.readLong(), data.readInt(), data.readLong(), data.readInt(),
+                        Integer.toUnsignedLong(data.readInt())));
+            }
+            List<Entry> entries = new ArrayList<>();
+            for (int i = data.readInt(); i > 0; i--) {
+                entries.add(new Entry(data.readUTF(), data.readLong(), data.readLong()));
+            }
+            return new SeekableIndex(blocks, entries);
+        }
+    }
+
+    // crc32c covers the compressed frame, so corruption is caught before decompression.
+    public record Block(long compressedOffset, int compressedSize, long uncompressedOffset, int uncompressedSize,
+            long crc32c) {
+    }
+
+    public record Entry(String name, long offset, long length) {
+    }
+}
@@ -0,0 +1,176 @@
+package dbu.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import com.github.luben.zstd.Zstd;
+
+// Seekable zstd writer. The input is cut into fixed-size blocks that are compressed independently on
+// a fork-join pool, each into a complete zstd frame, so the file is still a valid .zst stream. Entries
+// (tables, collections, files of a dump directory) always start a new block, and a trailing
+// SeekableIndex maps blocks and entries to their offsets for random access and parallel reads.
+public class SeekableZstdOutputStream extends OutputStream {
+
+    public static final int DEFAULT_LEVEL = 3;
+
+    private final OutputStream out;
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final int level;
+    private final int maxPendingBlocks;
+    private final Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+    private final List<SeekableIndex.Block> blocks = new ArrayList<>();
+    private final List<SeekableIndex.Entry> entries = new ArrayList<>();
+
+    private byte[] block;
+    private int blockLength;
+    private long uncompressedLength;
+    private long compressedLength;
+    private String currentEntry;
+    private long currentEntryOffset;
+    private boolean closed;
+
+    public SeekableZstdOutputStream(OutputStream out, int threads, int blockSize, int level) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.out = out;
+        this.pool = new ForkJoinPool(threads);
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPendingBlocks = threads * 2;
+        this.block = new byte[blockSize];
+    }
+
+    // Ends the current entry and starts a new one at the next block boundary.
+    public void startEntry(String name) throws IOException {
+        endEntry();
+        if (blockLength > 0) {
+            submitBlock();
+        }
+        currentEntry = name;
+        currentEntryOffset = uncompressedLength;
+    }
+
+    // Renames the current entry, for writers that only learn what an entry belongs to after it started.
+    public void renameEntry(String name) {
+        if (currentEntry != null) {
+            currentEntry = name;
+        }
+    }
+
+    // Renames the current and every finished entry called `from`, for objects whose owner is only named later.
+    public void renameEntries(String from, String to) {
+        entries.replaceAll(entry -> entry.name().equals(from)
+                ? new SeekableIndex.Entry(to, entry.offset(), entry.length())
+                : entry);
+        if (from.equals(currentEntry)) {
+            currentEntry = to;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (len > 0) {
+            int n = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, n);
+            blockLength += n;
+            uncompressedLength += n;
+            off += n;
+            len -= n;
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            endEntry();
+            if (blockLength > 0) {
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writeNextBlock();
+            }
+            new SeekableIndex(blocks, entries).write(out);
+            out.flush();
+        } finally {
+            pool.shutdownNow();
+            out.close();
+        }
+    }
+
+    private void endEntry() {
+        if (currentEntry != null) {
+            entries.add(new SeekableIndex.Entry(currentEntry, currentEntryOffset,
+                    uncompressedLength - currentEntryOffset));
+            currentEntry = null;
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        byte[] data = blockLength == block.length ? block : Arrays.copyOf(block, blockLength);
+        pendingBlocks.add(new PendingBlock(pool.submit(() -> Zstd.compress(data, level)),
+                uncompressedLength - blockLength, blockLength));
+
+        block = new byte[blockSize];
+        blockLength = 0;
+
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeNextBlock();
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        PendingBlock pending = pendingBlocks.poll();
+        byte[] compressed;
+        try {
+            compressed = pending.compressed().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compressing block", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress block: " + e.getCause().getMessage(), e.getCause());
+        }
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(compressed);
+        blocks.add(new SeekableIndex.Block(compressedLength, compressed.length, pending.uncompressedOffset(),
+                pending.uncompressedSize(), crc32c.getValue()));
+        out.write(compressed);
+        compressedLength += compressed.length;
+    }
+
+    private record PendingBlock(Future<byte[]> compressed, long uncompressedOffset, int uncompressedSize) {
+    }
+}
@@ -0,0 +1,177 @@
+package dbu.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import com.github.luben.zstd.Zstd;
+
+// Reads a backup written by SeekableZstdOutputStream through its index. Any uncompressed range or
+// single entry is served from the blocks that cover it, without decompressing from byte zero, and the
+// blocks ahead of the reader are fetched and decompressed in parallel.
+public class SeekableZstdReader implements Closeable {
+
+    private final RangeReader source;
+    private final SeekableIndex index;
+    private final int threads;
+
+    private SeekableZstdReader(RangeReader source, SeekableIndex index, int threads) {
+        this.source = source;
+        this.index = index;
+        this.threads = threads;
+    }
+
+    public static SeekableZstdReader open(RangeReader source, int threads) throws IOException {
+        SeekableIndex index = SeekableIndex.read(source);
+        if (index == null) {
+            source.close();
+            throw new IOException("Not a seekable backup: no index found");
+        }
+        return new SeekableZstdReader(source, index, Math.max(1, threads));
+    }
+
+    public static SeekableZstdReader open(Path file) throws IOException {
+        return open(RangeReader.of(file), Runtime.getRuntime().availableProcessors());
+    }
+
+    public static boolean isSeekable(Path file) throws IOException {
+        try (RangeReader source = RangeReader.of(file)) {
+            return SeekableIndex.read(source) != null;
+        }
+    }
+
+    public SeekableIndex index() {
+        return index;
+    }
+
+    public InputStream openAll() {
+        return openRange(0, index.uncompressedSize());
+    }
+
+    public InputStream openEntry(String name) throws IOException {
+        SeekableIndex.Entry entry = index.entry(name);
+        if (entry == null) {
+            throw new IOException("No entry named " + name + " in seekable backup");
+        }
+        return openRange(entry.offset(), entry.length());
+    }
+
+    // Concatenates the given entries; each range is only opened once the previous one is exhausted.
+    public InputStream openEntries(List<SeekableIndex.Entry> entries) {
+        Iterator<SeekableIndex.Entry> remaining = entries.iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return remaining.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                SeekableIndex.Entry entry = remaining.next();
+                return openRange(entry.offset(), entry.length());
+            }
+        });
+    }
+
+    public InputStream openRange(long offset, long length) {
+        return new BlockInputStream(index.blocksCovering(offset, length), offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private byte[] decompress(SeekableIndex.Block block) throws IOException {
+        byte[] compressed = source.read(block.compressedOffset(), block.compressedSize());
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(compressed);
+        if (crc32c.getValue() != block.crc32c()) {
+            throw new IOException("Checksum mismatch in block at offset " + block.compressedOffset());
+        }
+        return Zstd.decompress(compressed, block.uncompressedSize());
+    }
+
+    private class BlockInputStream extends InputStream {
+
+        private final Iterator<SeekableIndex.Block> remainingBlocks;
+        private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+        private final ForkJoinPool pool = new ForkJoinPool(threads);
+        private byte[] current;
+        private int position;
+        private int skip;
+        private long remaining;
+
+        BlockInputStream(List<SeekableIndex.Block> blocks, long offset, long length) {
+            this.remainingBlocks = blocks.iterator();
+            this.remaining = length;
+            this.skip = blocks.isEmpty() ? 0 : (int) Math.max(0, offset - blocks.get(0).uncompressedOffset());
+            prefetch();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (remaining > 0 && (current == null || position == current.length)) {
+                if (pendingBlocks.isEmpty()) {
+                    return -1;
+                }
+                current = nextBlock();
+                position = skip;
+                skip = 0;
+            }
+            if (remaining == 0) {
+                return -1;
+            }
+            int n = (int) Math.min(Math.min(len, current.length - position), remaining);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+
+        private byte[] nextBlock() throws IOException {
+            try {
+                return pendingBlocks.poll().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while decompressing block", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to decompress block: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                prefetch();
+            }
+        }
+
+        private void prefetch() {
+            while (pendingBlocks.size() < threads * 2 && remainingBlocks.hasNext()) {
+                SeekableIndex.Block block = remainingBlocks.next();
+                pendingBlocks.add(pool.submit(() -> decompress(block)));
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dbu.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Sits in front of a seekable writer while a mysqldump or pg_dump plain script is compressed, and starts
+// a new index entry at every object header comment so a single table can later be read back on its own.
+// Entries are named after the table they belong to: `orders` for MySQL, `public.orders` for PostgreSQL.
+// pg_dump writes a table's definition, data, indexes and constraints in separate sections, so the same
+// name can appear several times; whatever precedes the first header stays in the dump's own entry.
+// Sequences behind serial and identity columns are filed under the table that owns them.
+class SqlObjectIndexer extends OutputStream {
+
+    private static final int MAX_HEADER_LENGTH = 1024;
+
+    private static final Pattern MYSQL_HEADER = Pattern.compile(
+            "^-- (?:Table structure|Dumping data|Temporary view structure|Final view structure) for (?:table|view) `(.+)`$");
+    private static final Pattern POSTGRES_HEADER = Pattern.compile(
+            "^-- (?:Data for )?Name: (.+?); Type: ([A-Z ]+); Schema: ([^;]+);.*$");
+    private static final Pattern POSTGRES_INDEX = Pattern.compile(
+            "^CREATE (?:UNIQUE )?INDEX .+? ON (?:ONLY )?(\\S+) .*$");
+    private static final Pattern POSTGRES_SEQUENCE_OWNER = Pattern.compile(
+            "^ALTER SEQUENCE \\S+ OWNED BY (\\S+)\\.[^.\\s]+;$");
+    private static final Pattern POSTGRES_IDENTITY = Pattern.compile(
+            "^ALTER TABLE (?:ONLY )?(\\S+) ALTER COLUMN .+ ADD GENERATED .*$");
+
+    // Sections named after an object whose table only appears in the statement that follows the header.
+    private static final Set<String> OWNED_TYPES = Set.of("INDEX", "SEQUENCE", "SEQUENCE OWNED BY");
+
+    // pg_dump names these "<table> <object>".
+    private static final Set<String> TABLE_SCOPED_TYPES = Set.of(
+            "CONSTRAINT", "FK CONSTRAINT", "TRIGGER", "DEFAULT", "RULE", "POLICY", "ROW SECURITY");
+
+    private final SeekableZstdOutputStream out;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private boolean atLineStart = true;
+    private boolean capturing;
+    private boolean awaitingOwner;
+    private String currentObject;
+    // Sequence name to owning table, from OWNED BY and identity statements.
+    private final Map<String, String> sequenceOwners = new HashMap<>();
+
+    SqlObjectIndexer(SeekableZstdOutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    // Only lines that may be headers are held back; everything else goes straight to the writer.
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int end = off + len;
+        int runStart = off;
+        for (int i = off; i < end; i++) {
+            byte c = b[i];
+            if (capturing) {
+                pending.write(c);
+                if (c == '\n') {
+                    finishLine();
+                } else if (pending.size() > MAX_HEADER_LENGTH) {
+                    pending.writeTo(out);
+                    pending.reset();
+                    capturing = false;
+                    atLineStart = false;
+                }
+                runStart = i + 1;
+            } else if (atLineStart && (c == '-' || awaitingOwner)) {
+                out.write(b, runStart, i - runStart);
+                pending.write(c);
+                capturing = true;
+                atLineStart = false;
+                runStart = i + 1;
+                if (c == '\n') {
+                    finishLine();
+                }
+            } else {
+                atLineStart = c == '\n';
+            }
+        }
+        if (!capturing) {
+            out.write(b, runStart, end - runStart);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.writeTo(out);
+        pending.reset();
+        out.close();
+    }
+
+    private void finishLine() throws IOException {
+        String text = pending.toString(StandardCharsets.UTF_8).strip();
+        String line = text.substring(text.lastIndexOf('\n') + 1).strip();
+        // Header comments open with a bare "--" line, which is held so it starts the entry too.
+        if (line.equals("--") && pending.size() < MAX_HEADER_LENGTH) {
+            return;
+        }
+        String table = awaitingOwner ? ownerTable(line) : null;
+        if (table != null) {
+            // Renames the sequence's earlier sections too, such as a CREATE SEQUENCE ahead of its OWNED BY.
+            out.renameEntries(currentObject, table);
+            currentObject = table;
+            awaitingOwner = false;
+        } else {
+            startObject(line);
+        }
+        pending.writeTo(out);
+        pending.reset();
+        capturing = false;
+        atLineStart = true;
+    }
+
+    private void startObject(String line) throws IOException {
+        Matcher mysql = MYSQL_HEADER.matcher(line);
+        if (mysql.matches()) {
+            out.startEntry(mysql.group(1).replace("``", "`"));
+            return;
+        }
+        Matcher postgres = POSTGRES_HEADER.matcher(line);
+        if (!postgres.matches()) {
+            return;
+        }
+        String name = postgres.group(1);
+        String type = postgres.group(2).strip();
+        String schema = postgres.group(3);
+        if (TABLE_SCOPED_TYPES.contains(type) && name.indexOf(' ') > 0) {
+            name = name.substring(0, name.indexOf(' '));
+        }
+        name = "-".equals(schema) ? name : schema + "." + name;
+        String owner = sequenceOwners.get(name);
+        currentObject = owner != null ? owner : name;
+        out.startEntry(currentObject);
+        // These headers only name the index or sequence; the entry is renamed once its table is known.
+        awaitingOwner = owner == null && OWNED_TYPES.contains(type);
+    }
+
+    // The owner is remembered for sequences, whose later sections (OWNED BY, SEQUENCE SET) name only the sequence.
+    private String ownerTable(String line) {
+        Matcher index = POSTGRES_INDEX.matcher(line);
+        if (index.matches()) {
+            return unquote(index.group(1));
+        }
+        Matcher owned = POSTGRES_SEQUENCE_OWNER.matcher(line);
+        if (owned.matches()) {
+            sequenceOwners.put(currentObject, unquote(owned.group(1)));
+            return unquote(owned.group(1));
+        }
+        Matcher identity = POSTGRES_IDENTITY.matcher(line);
+        if (identity.matches()) {
+            sequenceOwners.put(currentObject, unquote(identity.group(1)));
+            return unquote(identity.group(1));
+        }
+        return null;
+    }
+
+    private static String unquote(String name) {
+        return name.replace("\"", "");
+    }
+}
@@ -0,0 +1,123 @@
+package dbu.utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+// Splits a SQL script into statements the way the mysql client does: delimiters inside quotes and
+// identifiers are ignored, plain comments are dropped (executable /*! */ comments and /*+ */ hints
+// are kept) and DELIMITER lines switch the statement terminator.
+public class SqlStatementSplitter implements Closeable {
+
+    private enum State {
+        NORMAL, SINGLE_QUOTE, DOUBLE_QUOTE, BACKTICK, BLOCK_COMMENT
+    }
+
+    private final BufferedReader reader;
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final StringBuilder current = new StringBuilder();
+    private State state = State.NORMAL;
+    private String delimiter = ";";
+    private boolean eof;
+
+    public SqlStatementSplitter(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 1 << 16);
+    }
+
+    // Returns the next statement without its delimiter, or null once the script is exhausted.
+    public String next() throws IOException {
+        while (pending.isEmpty() && !eof) {
+            String line = reader.readLine();
+            if (line == null) {
+                eof = true;
+                emit();
+            } else {
+                processLine(line);
+            }
+        }
+        return pending.poll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void processLine(String line) {
+        if (state == State.NORMAL && current.toString().isBlank()) {
+            String trimmed = line.trim();
+            if (trimmed.toUpperCase(Locale.ROOT).startsWith("DELIMITER ")) {
+                delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                current.setLength(0);
+                return;
+            }
+        }
+
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            char next = i + 1 < length ? line.charAt(i + 1) : '\0';
+            switch (state) {
+                case NORMAL -> {
+                    if (line.startsWith(delimiter, i)) {
+                        emit();
+                        i += delimiter.length() - 1;
+                    } else if (c == '#' || (c == '-' && next == '-'
+                            && (i + 2 >= length || Character.isWhitespace(line.charAt(i + 2))))) {
+                        i = length;
+                    } else if (c == '/' && next == '*'
+                            && (i + 2 >= length || (line.charAt(i + 2) != '!' && line.charAt(i + 2) != '+'))) {
+                        state = State.BLOCK_COMMENT;
+                        i++;
+                    } else {
+                        if (c == '\'') {
+                            state = State.SINGLE_QUOTE;
+                        } else if (c == '"') {
+                            state = State.DOUBLE_QUOTE;
+                        } else if (c == '`') {
+                            state = State.BACKTICK;
+                        }
+                        current.append(c);
+                    }
+                }
+                case SINGLE_QUOTE, DOUBLE_QUOTE, BACKTICK -> {
+                    current.append(c);
+                    char quote = state == State.SINGLE_QUOTE ? '\'' : state == State.DOUBLE_QUOTE ? '"' : '`';
+                    if (c == '\\' && state != State.BACKTICK && i + 1 < length) {
+                        current.append(next);
+                        i++;
+                    } else if (c == quote) {
+                        if (next == quote) {
+                            current.append(next);
+                            i++;
+                        } else {
+                            state = State.NORMAL;
+                        }
+                    }
+                }
+                case BLOCK_COMMENT -> {
+                    if (c == '*' && next == '/') {
+                        state = State.NORMAL;
+                        i++;
+                    }
+                }
+            }
+        }
+
+        if (state != State.BLOCK_COMMENT && current.length() > 0) {
+            current.append('\n');
+        }
+    }
+
+    private void emit() {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            pending.add(statement);
+        }
+        current.setLength(0);
+    }
+}
@@ -1,10 +1,14 @@
 package dbu.services.backup;
 
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +20,7 @@ import org.mockito.MockedStatic;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -52,7 +57,7 @@ public class MongoDBBackupTest {
         when(mockConfig.getCompressType()).thenReturn(CompressType.GZIP);
 
         Path mockBackupPath = Path.of("mock/backup/path");
-        Path mockCompressedPath = Path.of("mock/backup/path.gzip");
+        Path mockCompressedPath = Path.of("mock/backup/path.tar.gz");
 
         try (
                 MockedStatic<BackupPathUtils> backupPathUtilsMock = mockStatic(BackupPathUtils.class);
@@ -69,11 +74,11 @@ public class MongoDBBackupTest {
            
             backupPathUtilsMock.when(() -> BackupPathUtils.createBackupPath(any(), eq("backup_testdb"), eq("")))
                     .thenReturn(mockBackupPath);
-            backupPathUtilsMock.when(() -> BackupPathUtils.createBackupPath(any(), eq("backup_testdb"), eq(".gzip")))
+            backupPathUtilsMock.when(() -> BackupPathUtils.createBackupPath(any(), eq("backup_testdb"), eq(".tar.gz")))
                     .thenReturn(mockCompressedPath);
 
          
-            compressUtilsMock.when(() -> CompressUtils.compressGzip(mockBackupPath, mockCompressedPath))
+            compressUtilsMock.when(() -> CompressUtils.compress(mockBackupPath, mockCompressedPath, mockConfig))
                     .thenReturn(mockCompressedPath);
 
             filesMock.when(() -> Files.createDirectory(mockBackupPath)).thenReturn(mockBackupPath);
@@ -124,4 +129,55 @@ public class MongoDBBackupTest {
         }
     }
 
+    @Test
+    void testStreamingArchiveBackupSkipsDumpDirectory() throws Exception {
+        BackupConfig mockConfig = mock(BackupConfig.class);
+        ConnectionParams mockParams = mock(ConnectionParams.class);
+
+        when(mockConfig.getConnectionParams()).thenReturn(mockParams);
+        when(mockParams.getHost()).thenReturn("localhost");
+        when(mockParams.getPort()).thenReturn(27017);
+        when(mockParams.getUsername()).thenReturn("admin");
+        when(mockParams.getPassword()).thenReturn("password");
+        when(mockParams.getDatabaseName()).thenReturn("testdb");
+        when(mockConfig.getCompressType()).thenReturn(CompressType.ZSTD);
+        when(mockConfig.isStreaming()).thenReturn(true);
+        when(mockConfig.getJobs()).thenReturn(4);
+
+        Path mockArchivePath = Path.of("mock/backup/path.archive.zst");
+        List<Object> commands = new ArrayList<>();
+
+        try (
+                MockedStatic<BackupPathUtils> backupPathUtilsMock = mockStatic(BackupPathUtils.class);
+                MockedStatic<CompressUtils> compressUtilsMock = mockStatic(CompressUtils.class);
+
+                @SuppressWarnings("unused")
+                MockedConstruction<ProcessBuilder> mockedProcessBuilder = mockConstruction(ProcessBuilder.class,
+                        (mockBuilder, context) -> {
+                            commands.add(context.arguments().get(0));
+                            Process mockProcess = mock(Process.class);
+                            when(mockProcess.getInputStream()).thenReturn(InputStream.nullInputStream());
+                            when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockBuilder.start()).thenReturn(mockProcess);
+                        })) {
+            backupPathUtilsMock
+                    .when(() -> BackupPathUtils.createBackupPath(any(), eq("backup_testdb"), eq(".archive.zst")))
+                    .thenReturn(mockArchivePath);
+
+            compressUtilsMock.when(() -> CompressUtils.supportsStreaming(CompressType.ZSTD)).thenReturn(true);
+            compressUtilsMock.when(() -> CompressUtils.streamingExtension(CompressType.ZSTD, ".archive"))
+                    .thenReturn(".archive.zst");
+            compressUtilsMock.when(() -> CompressUtils.compressStream(any(), eq(mockArchivePath),
+                    eq(mockConfig), eq("backup_testdb.archive"))).thenReturn(mockArchivePath);
+
+            Path result = mongoDBBackup.backup(mockConfig);
+
+            assertEquals(mockArchivePath, result);
+            assertEquals(1, commands.size());
+            List<?> command = (List<?>) commands.get(0);
+            assertTrue(command.contains("--archive"));
+            assertTrue(command.contains("--numParallelCollections=4"));
+            compressUtilsMock.verify(() -> CompressUtils.compressTarGz(any(), any()), never());
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package dbu.services.backup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+public class MongoDBNativeBackupTest {
+
+    @Test
+    void testPickSplitPointsSpacesBoundariesEvenly() {
+        List<BsonValue> samples = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            samples.add(new BsonInt32(i * 10));
+        }
+
+        List<BsonValue> splitPoints = MongoDBNativeBackup.pickSplitPoints(samples, 4);
+
+        assertEquals(List.of(new BsonInt32(100), new BsonInt32(200), new BsonInt32(300)), splitPoints);
+    }
+
+    @Test
+    void testPickSplitPointsDropsDuplicateBoundaries() {
+        List<BsonValue> samples = List.of(new BsonInt32(1), new BsonInt32(1), new BsonInt32(1), new BsonInt32(2));
+
+        List<BsonValue> splitPoints = MongoDBNativeBackup.pickSplitPoints(samples, 4);
+
+        assertEquals(List.of(new BsonInt32(1), new BsonInt32(2)), splitPoints);
+    }
+
+    @Test
+    void testPickSplitPointsWithoutSamplesKeepsSingleRange() {
+        assertTrue(MongoDBNativeBackup.pickSplitPoints(List.of(), 8).isEmpty());
+    }
+}
@@ -1,5 +1,6 @@
 package dbu.services.backup;
 
+import java.io.ByteArrayInputStream;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -13,6 +14,8 @@ import org.mockito.MockedStatic;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -113,4 +116,51 @@ public class MySQLBackupTest {
             assertEquals("mysqldump failed with exit code: 1", ex.getMessage());
         }
     }
+
+    @Test
+    void testStreamingBackupCompressesDumpOutputDirectly() throws Exception {
+
+        BackupConfig mockConfig = mock(BackupConfig.class);
+        ConnectionParams mockParams = mock(ConnectionParams.class);
+
+        when(mockConfig.getConnectionParams()).thenReturn(mockParams);
+        when(mockParams.getHost()).thenReturn("localhost");
+        when(mockParams.getPort()).thenReturn(3306);
+        when(mockParams.getUsername()).thenReturn("root");
+        when(mockParams.getPassword()).thenReturn("password");
+        when(mockParams.getDatabaseName()).thenReturn("testdb");
+        when(mockConfig.getCompressType()).thenReturn(CompressType.GZIP);
+        when(mockConfig.isStreaming()).thenReturn(true);
+
+        Path mockCompressedPath = Path.of("mock/backup/testdb.sql.gzip");
+
+        try (
+                MockedStatic<BackupPathUtils> backupPathUtilsMock = mockStatic(BackupPathUtils.class);
+                MockedStatic<CompressUtils> compressUtilsMock = mockStatic(CompressUtils.class);
+
+                MockedConstruction<ProcessBuilder> mockedProcessBuilder = mockConstruction(ProcessBuilder.class,
+                        (mockBuilder, context) -> {
+                            Process mockProcess = mock(Process.class);
+                            when(mockProcess.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+                            when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockBuilder.start()).thenReturn(mockProcess);
+                        })) {
+
+            backupPathUtilsMock
+                    .when(() -> BackupPathUtils.createBackupPath(any(), eq("backup_testdb"), eq(".sql.gzip")))
+                    .thenReturn(mockCompressedPath);
+
+            compressUtilsMock.when(() -> CompressUtils.supportsStreaming(CompressType.GZIP)).thenReturn(true);
+            compressUtilsMock.when(() -> CompressUtils.streamingExtension(CompressType.GZIP, ".sql"))
+                    .thenReturn(".sql.gzip");
+            compressUtilsMock.when(() -> CompressUtils.compressStream(any(), eq(mockCompressedPath),
+                    eq(mockConfig), eq("backup_testdb.sql"))).thenReturn(mockCompressedPath);
+
+            Path result = mySQLBackup.backup(mockConfig);
+
+            assertEquals(mockCompressedPath, result);
+            compressUtilsMock.verify(() -> CompressUtils.compressGzip(any(), any()), never());
+            verify(mockedProcessBuilder.constructed().get(0)).redirectError(ProcessBuilder.Redirect.INHERIT);
+        }
+    }
 }
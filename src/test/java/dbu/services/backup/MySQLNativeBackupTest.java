@@ -0,0 +1,89 @@
+package dbu.services.backup;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MySQLNativeBackupTest {
+
+    @Test
+    void testSplitRangeCoversKeySpaceWithoutGaps() {
+        List<long[]> ranges = MySQLNativeBackup.splitRange(1, 10, 3);
+
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new long[] { 1, 4 }, ranges.get(0));
+        assertArrayEquals(new long[] { 5, 8 }, ranges.get(1));
+        assertArrayEquals(new long[] { 9, 10 }, ranges.get(2));
+    }
+
+    @Test
+    void testSplitRangeNeverExceedsKeyCount() {
+        List<long[]> ranges = MySQLNativeBackup.splitRange(5, 6, 8);
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[] { 5, 5 }, ranges.get(0));
+        assertArrayEquals(new long[] { 6, 6 }, ranges.get(1));
+    }
+
+    @Test
+    void testSplitRangeHandlesKeysAtTheEdgesOfLong() {
+        List<long[]> ranges = MySQLNativeBackup.splitRange(Long.MAX_VALUE - 9, Long.MAX_VALUE, 3);
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new long[] { Long.MAX_VALUE - 1, Long.MAX_VALUE }, ranges.get(2));
+
+        // Wider than a long can count: dumped as a single chunk.
+        List<long[]> wide = MySQLNativeBackup.splitRange(Long.MIN_VALUE, Long.MAX_VALUE, 4);
+        assertEquals(1, wide.size());
+        assertArrayEquals(new long[] { Long.MIN_VALUE, Long.MAX_VALUE }, wide.get(0));
+    }
+
+    @Test
+    void testFileNameEncodesUnsafeCharacters() {
+        assertEquals("orders_2024", MySQLNativeBackup.fileName("orders_2024"));
+        assertEquals("a@002fb@002e@002e", MySQLNativeBackup.fileName("a/b.."));
+        assertEquals("caf@00e9", MySQLNativeBackup.fileName("café"));
+    }
+
+    @Test
+    void testDefaultTimestampColumnsAreKeptAndGeneratedColumnsSkipped() throws Exception {
+        // created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+        ResultSet createdAt = mock(ResultSet.class);
+        when(createdAt.getString("EXTRA")).thenReturn("DEFAULT_GENERATED on update CURRENT_TIMESTAMP");
+        when(createdAt.getString("GENERATION_EXPRESSION")).thenReturn("");
+        // total INT GENERATED ALWAYS AS (price * qty) STORED
+        ResultSet total = mock(ResultSet.class);
+        when(total.getString("EXTRA")).thenReturn("STORED GENERATED");
+        when(total.getString("GENERATION_EXPRESSION")).thenReturn("(`price` * `qty`)");
+
+        assertFalse(MySQLNativeBackup.isGeneratedColumn(createdAt));
+        assertTrue(MySQLNativeBackup.isGeneratedColumn(total));
+    }
+
+    @Test
+    void testAppendLiteralEscapesValues() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("it's a\\b\n");
+        when(rs.getString(2)).thenReturn("42");
+        when(rs.getBytes(3)).thenReturn(new byte[] { 0x01, (byte) 0xff });
+        when(rs.getString(4)).thenReturn(null);
+
+        StringBuilder sb = new StringBuilder();
+        MySQLNativeBackup.appendLiteral(sb, rs, 1, Types.VARCHAR);
+        sb.append(',');
+        MySQLNativeBackup.appendLiteral(sb, rs, 2, Types.BIGINT);
+        sb.append(',');
+        MySQLNativeBackup.appendLiteral(sb, rs, 3, Types.VARBINARY);
+        sb.append(',');
+        MySQLNativeBackup.appendLiteral(sb, rs, 4, Types.TIMESTAMP);
+
+        assertEquals("'it\\'s a\\\\b\\n',42,0x01FF,NULL", sb.toString());
+    }
+}
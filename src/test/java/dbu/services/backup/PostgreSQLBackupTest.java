@@ -1,6 +1,10 @@
 package dbu.services.backup;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,6 +25,7 @@ import dbu.enums.CompressType;
 import dbu.exceptions.BackupExecutionException;
 import dbu.models.BackupConfig;
 import dbu.models.ConnectionParams;
+import dbu.services.storage.StorageService;
 import dbu.utils.BackupPathUtils;
 import dbu.utils.CompressUtils;
 
@@ -118,4 +123,49 @@ public class PostgreSQLBackupTest {
             assertEquals("pg_dump failed with exit code: 1", ex.getMessage());
         }
     }
+
+    @Test
+    void testBackupToStorageStreamsCompressedDumpIntoUpload() throws Exception {
+
+        BackupConfig mockConfig = mock(BackupConfig.class);
+        ConnectionParams mockParams = mock(ConnectionParams.class);
+
+        when(mockConfig.getConnectionParams()).thenReturn(mockParams);
+        when(mockParams.getHost()).thenReturn("localhost");
+        when(mockParams.getPort()).thenReturn(5432);
+        when(mockParams.getUsername()).thenReturn("postgres");
+        when(mockParams.getPassword()).thenReturn("password");
+        when(mockParams.getDatabaseName()).thenReturn("testdb");
+        when(mockConfig.getCompressType()).thenReturn(CompressType.GZIP);
+        when(mockConfig.getUploadKey()).thenReturn("backups/testdb.sql.gzip");
+
+        String dump = "CREATE TABLE t (id int);\n";
+        StringBuilder uploaded = new StringBuilder();
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.uploadStream(eq("backups/testdb.sql.gzip"), any())).thenAnswer(invocation -> {
+            InputStream body = invocation.getArgument(1);
+            try (GZIPInputStream gis = new GZIPInputStream(body)) {
+                uploaded.append(new String(gis.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            return "https://bucket/backups/testdb.sql.gzip";
+        });
+
+        try (
+                @SuppressWarnings("unused")
+                MockedConstruction<ProcessBuilder> mockedProcessBuilder = mockConstruction(ProcessBuilder.class,
+                        (mockBuilder, context) -> {
+                            Process mockProcess = mock(Process.class);
+                            when(mockProcess.getInputStream())
+                                    .thenReturn(new ByteArrayInputStream(dump.getBytes(StandardCharsets.UTF_8)));
+                            when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockBuilder.start()).thenReturn(mockProcess);
+                            when(mockBuilder.environment()).thenReturn(new java.util.HashMap<>());
+                        })) {
+
+            String url = postgreSQLBackup.backupToStorage(mockConfig, storageService);
+
+            assertEquals("https://bucket/backups/testdb.sql.gzip", url);
+            assertEquals(dump, uploaded.toString());
+        }
+    }
 }
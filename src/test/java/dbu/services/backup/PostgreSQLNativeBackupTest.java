@@ -0,0 +1,58 @@
+package dbu.services.backup;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.postgresql.copy.CopyManager;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import dbu.enums.CompressType;
+import dbu.models.BackupConfig;
+
+public class PostgreSQLNativeBackupTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCopyTableStreamsIntoCompressedSegment() throws Exception {
+        PostgreSQLNativeBackup.TableSegment table = new PostgreSQLNativeBackup.TableSegment(1, 42L, "sales",
+                "Order", List.of(), List.of("\"id\"", "\"total\""));
+        byte[] rows = "1\t9.99\n2\t19.50\n".getBytes(StandardCharsets.UTF_8);
+
+        CopyManager copyManager = mock(CopyManager.class);
+        when(copyManager.copyOut(eq("COPY \"sales\".\"Order\" (\"id\", \"total\") TO STDOUT"), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(1, OutputStream.class).write(rows);
+                    return 2L;
+                });
+
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZSTD);
+        Path segment = tempDir.resolve("0001.copy" + PostgreSQLNativeBackup.segmentExtension(CompressType.ZSTD));
+
+        long copied = PostgreSQLNativeBackup.copyTable(copyManager, table, segment, config);
+
+        assertEquals(2L, copied);
+        try (InputStream in = new ZstdInputStream(Files.newInputStream(segment))) {
+            assertEquals(new String(rows, StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testQuoteIdentifierEscapesQuotes() {
+        assertEquals("\"we\"\"ird\"", PostgreSQLNativeBackup.quoteIdentifier("we\"ird"));
+    }
+}
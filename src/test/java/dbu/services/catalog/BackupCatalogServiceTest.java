@@ -0,0 +1,105 @@
+package dbu.services.catalog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dbu.enums.CompressType;
+import dbu.enums.StorageType;
+import dbu.exceptions.StorageExecutionException;
+import dbu.models.BackupRecord;
+import dbu.models.StorageFileInfo;
+import dbu.repositories.BackupRecordRepository;
+import dbu.services.storage.StorageService;
+
+public class BackupCatalogServiceTest {
+
+    @Test
+    void testFromKeyParsesBackupName() {
+        BackupRecord record = BackupCatalogService.fromKey("backups/backup_shop_db_2024-03-05_14-30-00.sql.zst");
+
+        assertEquals("backup_shop_db_2024-03-05_14-30-00.sql.zst", record.getFileName());
+        assertEquals("shop_db", record.getDatabaseName());
+        assertEquals(LocalDateTime.of(2024, 3, 5, 14, 30, 0), record.getCreatedAt());
+        assertEquals(CompressType.ZSTD, record.getCompressType());
+    }
+
+    @Test
+    void testFromKeyKeepsUnknownNames() {
+        BackupRecord record = BackupCatalogService.fromKey("notes.txt");
+
+        assertEquals("notes.txt", record.getFileName());
+        assertNull(record.getDatabaseName());
+        assertEquals(CompressType.NONE, record.getCompressType());
+    }
+
+    @Test
+    void testSyncOnlyWritesChangedObjects() {
+        LocalDateTime modified = LocalDateTime.of(2024, 3, 5, 15, 0, 0);
+        BackupRecord unchanged = stored("backup_a_2024-03-05_14-30-00.zip", 100L, modified, null);
+        BackupRecord changed = stored("backup_b_2024-03-05_14-30-00.zip", 100L, modified, null);
+        BackupRecord vanished = stored("backup_c_2024-03-05_14-30-00.zip", 100L, modified, null);
+        BackupRecord vanishedLocal = stored("backup_d_2024-03-05_14-30-00.zip", 100L, modified, "/tmp/backup_d.zip");
+
+        BackupRecordRepository repository = mock(BackupRecordRepository.class);
+        when(repository.findByStorageType(StorageType.AWS))
+                .thenReturn(List.of(unchanged, changed, vanished, vanishedLocal));
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.streamFiles(null, null)).thenReturn(Stream.of(
+                new StorageFileInfo("backup_a_2024-03-05_14-30-00.zip", 100L, modified),
+                new StorageFileInfo("backup_b_2024-03-05_14-30-00.zip", 200L, modified.plusHours(1)),
+                new StorageFileInfo("backup_e_2024-03-06_08-00-00.tar.gz", 300L, modified)));
+
+        BackupCatalogService.SyncResult result = new BackupCatalogService(repository).sync(StorageType.AWS,
+                storageService);
+
+        assertEquals(new BackupCatalogService.SyncResult(1, 1, 2), result);
+        assertEquals(200L, changed.getSize());
+        verify(repository, never()).save(unchanged);
+        verify(repository).delete(vanished);
+        verify(repository, never()).delete(vanishedLocal);
+        assertNull(vanishedLocal.getStorageKey());
+        // changed, added and the unlinked local backup
+        verify(repository, times(3)).save(any());
+    }
+
+    @Test
+    void testSyncLeavesCatalogUntouchedWhenListingFails() {
+        BackupRecord record = stored("backup_a_2024-03-05_14-30-00.zip", 100L, LocalDateTime.now(), null);
+        BackupRecordRepository repository = mock(BackupRecordRepository.class);
+        when(repository.findByStorageType(StorageType.GCP)).thenReturn(List.of(record));
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.streamFiles(null, null)).thenReturn(Stream.of(
+                new StorageFileInfo("backup_b_2024-03-05_14-30-00.zip", 100L, LocalDateTime.now()))
+                .peek(file -> {
+                    throw new StorageExecutionException("Listing GCP bucket failed");
+                }));
+
+        BackupCatalogService catalog = new BackupCatalogService(repository);
+
+        assertThrows(StorageExecutionException.class, () -> catalog.sync(StorageType.GCP, storageService));
+        verify(repository, never()).save(any());
+        verify(repository, never()).delete(any());
+    }
+
+    private BackupRecord stored(String key, Long size, LocalDateTime modified, String localPath) {
+        BackupRecord record = BackupCatalogService.fromKey(key);
+        record.setStorageType(StorageType.AWS);
+        record.setStorageKey(key);
+        record.setSize(size);
+        record.setStorageLastModified(modified);
+        record.setLocalPath(localPath);
+        return record;
+    }
+}
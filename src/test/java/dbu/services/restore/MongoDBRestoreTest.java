@@ -1,8 +1,8 @@
 package dbu.services.restore;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -35,8 +35,6 @@ public class MongoDBRestoreTest {
         when(mockParams.getPort()).thenReturn(27017);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedPath = Paths.get("mock/decompressed");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -45,9 +43,11 @@ public class MongoDBRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedPath);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             MongoDBRestore restoreService = new MongoDBRestore();
             boolean result = restoreService.restore(mockRestoreConfig);
@@ -68,8 +68,6 @@ public class MongoDBRestoreTest {
         when(mockParams.getPort()).thenReturn(27017);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedPath = Paths.get("mock/decompressed");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -78,9 +76,11 @@ public class MongoDBRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(1);
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedPath);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             MongoDBRestore restoreService = new MongoDBRestore();
 
@@ -102,7 +102,7 @@ public class MongoDBRestoreTest {
 
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class)) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any()))
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
                     .thenThrow(new IOException("Decompression failure"));
 
             MongoDBRestore restoreService = new MongoDBRestore();
@@ -128,8 +128,6 @@ public class MongoDBRestoreTest {
         when(mockParams.getPort()).thenReturn(27017);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedPath = Paths.get("mock/decompressed");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -138,9 +136,11 @@ public class MongoDBRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenThrow(new InterruptedException("Interrupted"));
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedPath);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             MongoDBRestore restoreService = new MongoDBRestore();
 
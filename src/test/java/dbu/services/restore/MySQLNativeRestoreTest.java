@@ -0,0 +1,54 @@
+package dbu.services.restore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class MySQLNativeRestoreTest {
+
+    @Test
+    void testDeferSecondaryIndexesMovesKeysAndForeignKeysToAlterTable() {
+        String createTable = """
+                CREATE TABLE `orders` (
+                  `id` int NOT NULL AUTO_INCREMENT,
+                  `customer_id` int NOT NULL,
+                  `note` text,
+                  PRIMARY KEY (`id`),
+                  KEY `idx_customer` (`customer_id`),
+                  FULLTEXT KEY `ft_note` (`note`),
+                  CONSTRAINT `fk_customer` FOREIGN KEY (`customer_id`) REFERENCES `customers` (`id`)
+                ) ENGINE=InnoDB""";
+        MySQLNativeRestore.RestorePlan plan = new MySQLNativeRestore.RestorePlan();
+
+        String rewritten = MySQLNativeRestore.deferSecondaryIndexes(createTable, "orders", plan);
+
+        assertEquals("""
+                CREATE TABLE `orders` (
+                  `id` int NOT NULL AUTO_INCREMENT,
+                  `customer_id` int NOT NULL,
+                  `note` text,
+                  PRIMARY KEY (`id`)
+                ) ENGINE=InnoDB""", rewritten);
+        assertEquals("ALTER TABLE `orders` ADD KEY `idx_customer` (`customer_id`), ADD FULLTEXT KEY `ft_note` (`note`)",
+                plan.indexes.get("orders"));
+        assertEquals("ALTER TABLE `orders` ADD CONSTRAINT `fk_customer` FOREIGN KEY (`customer_id`) "
+                + "REFERENCES `customers` (`id`)", plan.foreignKeys.get("orders"));
+    }
+
+    @Test
+    void testDeferSecondaryIndexesKeepsKeyLeadingWithAutoIncrementColumn() {
+        String createTable = """
+                CREATE TABLE `events` (
+                  `seq` bigint NOT NULL AUTO_INCREMENT,
+                  `day` date NOT NULL,
+                  PRIMARY KEY (`day`,`seq`),
+                  KEY `idx_seq` (`seq`)
+                ) ENGINE=InnoDB""";
+        MySQLNativeRestore.RestorePlan plan = new MySQLNativeRestore.RestorePlan();
+
+        String rewritten = MySQLNativeRestore.deferSecondaryIndexes(createTable, "events", plan);
+
+        assertEquals(createTable, rewritten);
+        assertTrue(plan.indexes.isEmpty());
+    }
+}
@@ -1,8 +1,8 @@
 package dbu.services.restore;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,8 +36,6 @@ public class MySQLRestoreTest {
         when(mockParams.getPort()).thenReturn(3306);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedFile = Paths.get("mock/backup.sql");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -46,9 +44,11 @@ public class MySQLRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedFile);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             MySQLRestore mysqlRestore = new MySQLRestore();
 
@@ -71,8 +71,6 @@ public class MySQLRestoreTest {
         when(mockParams.getPort()).thenReturn(3306);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedFile = Paths.get("mock/backup.sql");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -81,9 +79,11 @@ public class MySQLRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(1); // exit code 1 -> failure
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedFile);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             MySQLRestore mysqlRestore = new MySQLRestore();
 
@@ -113,7 +113,7 @@ public class MySQLRestoreTest {
 
                 @SuppressWarnings("unused")
                 MockedConstruction<ProcessBuilder> mockedProcessBuilder = mockConstruction(ProcessBuilder.class)) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any()))
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
                     .thenThrow(new IOException("Decompression failed"));
 
             MySQLRestore mysqlRestore = new MySQLRestore();
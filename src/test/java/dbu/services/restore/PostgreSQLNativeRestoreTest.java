@@ -0,0 +1,119 @@
+package dbu.services.restore;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PostgreSQLNativeRestoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadPlainDumpSplitsSections() throws Exception {
+        String dump = """
+                --
+                -- PostgreSQL database dump
+                --
+
+                SET statement_timeout = 0;
+                SELECT pg_catalog.set_config('search_path', '', false);
+
+                --
+                -- Name: orders; Type: TABLE; Schema: public; Owner: app
+                --
+
+                CREATE TABLE public.orders (
+                    id integer NOT NULL,
+                    customer_id integer
+                );
+
+                --
+                -- Data for Name: orders; Type: TABLE DATA; Schema: public; Owner: app
+                --
+
+                COPY public.orders (id, customer_id) FROM stdin;
+                1\t10
+                2\t\\N
+                \\.
+
+                --
+                -- Name: orders orders_pkey; Type: CONSTRAINT; Schema: public; Owner: app
+                --
+
+                ALTER TABLE ONLY public.orders
+                    ADD CONSTRAINT orders_pkey PRIMARY KEY (id);
+
+                --
+                -- Name: orders_customer_idx; Type: INDEX; Schema: public; Owner: app
+                --
+
+                CREATE INDEX orders_customer_idx ON public.orders USING btree (customer_id);
+
+                --
+                -- Name: orders orders_customer_fkey; Type: FK CONSTRAINT; Schema: public; Owner: app
+                --
+
+                ALTER TABLE ONLY public.orders
+                    ADD CONSTRAINT orders_customer_fkey FOREIGN KEY (customer_id) REFERENCES public.customers(id);
+
+                --
+                -- Name: orders audit; Type: TRIGGER; Schema: public; Owner: app
+                --
+
+                CREATE TRIGGER audit AFTER INSERT ON public.orders FOR EACH ROW EXECUTE FUNCTION public.audit();
+                """;
+
+        PostgreSQLNativeRestore.RestorePlan plan = PostgreSQLNativeRestore.readPlainDump(new StringReader(dump),
+                tempDir);
+
+        assertEquals(1, plan.session.size());
+        assertTrue(plan.session.get(0).contains("set_config('search_path'"));
+        assertEquals(1, plan.preData.size());
+        assertTrue(plan.preData.get(0).startsWith("CREATE TABLE public.orders"));
+
+        assertEquals(1, plan.data.size());
+        PostgreSQLNativeRestore.DataTask data = plan.data.get(0);
+        assertEquals("public.orders", data.table());
+        assertEquals("COPY public.orders (id, customer_id) FROM stdin", data.sql());
+        assertEquals(List.of("1\t10", "2\t\\N"), Files.readAllLines(data.file()));
+
+        assertEquals(2, plan.indexes.size());
+        assertTrue(plan.indexes.stream().allMatch(task -> task.table().equals("public.orders")));
+        assertEquals(1, plan.foreignKeys.size());
+        assertEquals("public.orders", plan.foreignKeys.get(0).table());
+        assertEquals(1, plan.finalStatements.size());
+        assertTrue(plan.finalStatements.get(0).startsWith("CREATE TRIGGER audit"));
+    }
+
+    @Test
+    void testReadNativeDumpBuildsCopyStatementsFromToc() throws Exception {
+        Files.createDirectories(tempDir.resolve("data"));
+        Files.writeString(tempDir.resolve("pre-data.sql"), "CREATE TABLE \"public\".\"t\" (\n    id integer\n);\n");
+        Files.writeString(tempDir.resolve("data/0001.copy.gz"), "segment");
+        Files.writeString(tempDir.resolve("toc.tsv"), "0001\tpublic\tt\t\"id\"\tdata/0001.copy.gz\t3\n");
+        Files.writeString(tempDir.resolve("post-data.sql"), """
+                ALTER TABLE ONLY "public"."t" ADD CONSTRAINT "t_pkey" PRIMARY KEY (id);
+                CREATE INDEX t_id_idx ON public.t USING btree (id);
+                ALTER TABLE ONLY "public"."t" ADD CONSTRAINT "t_fk" FOREIGN KEY (id) REFERENCES public.u(id);
+                SELECT pg_catalog.setval('"public"."t_id_seq"', 3, true);
+                """);
+
+        PostgreSQLNativeRestore.RestorePlan plan = PostgreSQLNativeRestore.readNativeDump(tempDir);
+
+        assertEquals(1, plan.data.size());
+        assertEquals("COPY \"public\".\"t\" (\"id\") FROM STDIN", plan.data.get(0).sql());
+        assertEquals(tempDir.resolve("data/0001.copy.gz"), plan.data.get(0).file());
+        assertEquals(2, plan.indexes.size());
+        assertTrue(plan.indexes.stream().allMatch(task -> task.table().equals("public.t")));
+        assertEquals(1, plan.foreignKeys.size());
+        assertEquals(List.of("SELECT pg_catalog.setval('\"public\".\"t_id_seq\"', 3, true);"),
+                plan.finalStatements);
+    }
+}
@@ -1,8 +1,8 @@
 package dbu.services.restore;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -14,6 +14,7 @@ import org.mockito.MockedStatic;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 
 import dbu.exceptions.RestoreExecutionException;
@@ -35,8 +36,6 @@ public class PostgreSQLRestoreTest {
         when(mockParams.getPort()).thenReturn(5432);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedFile = Paths.get("mock/backup.sql");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -45,9 +44,11 @@ public class PostgreSQLRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedFile);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             PostgreSQLRestore restoreService = new PostgreSQLRestore();
 
@@ -69,8 +70,6 @@ public class PostgreSQLRestoreTest {
         when(mockParams.getPort()).thenReturn(5432);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedFile = Paths.get("mock/backup.sql");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -79,9 +78,11 @@ public class PostgreSQLRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenReturn(1); // fail exit code
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedFile);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             PostgreSQLRestore restoreService = new PostgreSQLRestore();
 
@@ -93,6 +94,41 @@ public class PostgreSQLRestoreTest {
         }
     }
 
+    @Test
+    void testParallelRestoreOfPlainDumpFallsBackToPsql() throws Exception {
+        RestoreConfig mockRestoreConfig = mock(RestoreConfig.class);
+        ConnectionParams mockParams = mock(ConnectionParams.class);
+        when(mockRestoreConfig.getConnectionParams()).thenReturn(mockParams);
+        when(mockRestoreConfig.getBackupFilePath()).thenReturn("mock/backup.sql.gz");
+        when(mockRestoreConfig.getJobs()).thenReturn(4);
+        when(mockParams.getUsername()).thenReturn("user");
+        when(mockParams.getPassword()).thenReturn("pass");
+        when(mockParams.getHost()).thenReturn("localhost");
+        when(mockParams.getPort()).thenReturn(5432);
+        when(mockParams.getDatabaseName()).thenReturn("testdb");
+
+        try (
+                MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
+
+                MockedConstruction<ProcessBuilder> mockedProcessBuilder = mockConstruction(ProcessBuilder.class,
+                        (mockBuilder, context) -> {
+                            Process mockProcess = mock(Process.class);
+                            when(mockProcess.waitFor()).thenReturn(0);
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
+                            when(mockBuilder.start()).thenReturn(mockProcess);
+                        })) {
+            decompressUtilsMock.when(() -> DecompressUtils.isMultiFileArchive(any())).thenReturn(false);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
+
+            PostgreSQLRestore restoreService = new PostgreSQLRestore();
+
+            assertTrue(restoreService.restore(mockRestoreConfig));
+            assertEquals(1, mockedProcessBuilder.constructed().size());
+            decompressUtilsMock.verify(() -> DecompressUtils.extractArchive(any()), never());
+        }
+    }
+
     @Test
     void testRestoreThrowsIOException() throws Exception {
         RestoreConfig mockRestoreConfig = mock(RestoreConfig.class);
@@ -102,7 +138,7 @@ public class PostgreSQLRestoreTest {
 
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class)) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any()))
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
                     .thenThrow(new IOException("Decompression error"));
 
             PostgreSQLRestore restoreService = new PostgreSQLRestore();
@@ -128,8 +164,6 @@ public class PostgreSQLRestoreTest {
         when(mockParams.getPort()).thenReturn(5432);
         when(mockParams.getDatabaseName()).thenReturn("testdb");
 
-        Path decompressedFile = Paths.get("mock/backup.sql");
-
         try (
                 MockedStatic<DecompressUtils> decompressUtilsMock = mockStatic(DecompressUtils.class);
 
@@ -138,9 +172,11 @@ public class PostgreSQLRestoreTest {
                         (mockBuilder, context) -> {
                             Process mockProcess = mock(Process.class);
                             when(mockProcess.waitFor()).thenThrow(new InterruptedException("Interrupted"));
+                            when(mockProcess.getOutputStream()).thenReturn(OutputStream.nullOutputStream());
                             when(mockBuilder.start()).thenReturn(mockProcess);
                         })) {
-            decompressUtilsMock.when(() -> DecompressUtils.decompressIfNeeded(any())).thenReturn(decompressedFile);
+            decompressUtilsMock.when(() -> DecompressUtils.openDecompressedStream(any()))
+                    .thenReturn(InputStream.nullInputStream());
 
             PostgreSQLRestore restoreService = new PostgreSQLRestore();
 
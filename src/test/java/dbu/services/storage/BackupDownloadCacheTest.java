@@ -0,0 +1,156 @@
+package dbu.services.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dbu.config.AppProperties;
+import dbu.enums.StorageType;
+import dbu.services.catalog.BackupCatalogService;
+import dbu.utils.BackupManifest;
+import dbu.utils.ChecksumOutputStream;
+import dbu.utils.RangeReader;
+
+public class BackupDownloadCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AppProperties props = new AppProperties();
+    private final BackupCatalogService catalog = mock(BackupCatalogService.class);
+    private final StorageService storage = mock(StorageService.class);
+    private final Map<String, byte[]> objects = new HashMap<>();
+    private final Map<String, String> digests = new HashMap<>();
+    private final Map<String, Path> manifests = new HashMap<>();
+    private BackupDownloadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        props.getDownloadCache().setDirectory(tempDir.resolve("cache").toString());
+        cache = new BackupDownloadCache(props, catalog);
+        when(catalog.findSha256(any(), anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(digests.get(invocation.getArgument(1, String.class))));
+        when(storage.exists(anyString())).thenAnswer(invocation -> manifests.containsKey(invocation.getArgument(0)));
+        when(storage.openRangeReader(anyString()))
+                .thenAnswer(invocation -> RangeReader.of(manifests.get(invocation.<String>getArgument(0))));
+        when(storage.downloadFile(anyString(), any())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            Path target = invocation.<Path>getArgument(1).resolve(key);
+            try (OutputStream out = new ChecksumOutputStream(Files.newOutputStream(target), target)) {
+                out.write(objects.get(key));
+            }
+            return target;
+        });
+    }
+
+    @Test
+    void testWarmBackupIsServedWithoutDownloading() throws IOException {
+        put("backup_a.sql.gz", "first backup");
+
+        Path first = cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false);
+        Path second = cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false);
+
+        assertEquals(first, second);
+        assertTrue(first.startsWith(tempDir.resolve("cache")));
+        assertEquals("first backup", Files.readString(second));
+        verify(storage, times(1)).downloadFile(eq("backup_a.sql.gz"), any());
+        assertEquals(Optional.of(first), cache.findCached(StorageType.AWS, storage, "backup_a.sql.gz", false));
+        // Warm hits are resolved from the catalog and the entry's own manifest, without asking the storage.
+        verify(storage, times(1)).exists(anyString());
+        verify(storage, times(1)).openRangeReader(anyString());
+
+        cache.release(first);
+        assertTrue(Files.exists(first));
+    }
+
+    @Test
+    void testCorruptedEntryIsDownloadedAgain() throws IOException {
+        put("backup_a.sql.gz", "first backup");
+        Path cached = cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false);
+        Files.writeString(cached, "FIRST BACKUP");
+
+        Path refetched = cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false);
+
+        assertEquals("first backup", Files.readString(refetched));
+        verify(storage, times(2)).downloadFile(eq("backup_a.sql.gz"), any());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvictedOverQuota() throws IOException {
+        props.getDownloadCache().setMaxSize(750);
+        put("backup_a.zip", "a".repeat(200));
+        put("backup_b.zip", "b".repeat(200));
+        put("backup_c.zip", "c".repeat(200));
+
+        Path a = cache.fetch(StorageType.GCP, storage, "backup_a.zip", false);
+        Files.setLastModifiedTime(a.getParent(), FileTime.fromMillis(1_000));
+        Path b = cache.fetch(StorageType.GCP, storage, "backup_b.zip", false);
+        Files.setLastModifiedTime(b.getParent(), FileTime.fromMillis(2_000));
+        cache.fetch(StorageType.GCP, storage, "backup_c.zip", false);
+
+        assertFalse(Files.exists(a));
+        assertTrue(Files.exists(b));
+    }
+
+    @Test
+    void testRevalidatedBackupIsNotServedFromTheCatalogDigest() throws IOException {
+        put("backup_a.sql.gz", "first backup");
+        cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false);
+        String catalogued = digests.get("backup_a.sql.gz");
+
+        // The key is overwritten but the catalog still records the first upload.
+        put("backup_a.sql.gz", "second backup");
+        digests.put("backup_a.sql.gz", catalogued);
+        assertEquals("first backup", Files.readString(cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", false)));
+        Path fetched = cache.fetch(StorageType.AWS, storage, "backup_a.sql.gz", true);
+
+        assertEquals("second backup", Files.readString(fetched));
+        verify(storage, times(2)).downloadFile(eq("backup_a.sql.gz"), any());
+    }
+
+    @Test
+    void testBackupWithoutManifestIsNotCached() {
+        objects.put("legacy.sql", "plain".getBytes(StandardCharsets.UTF_8));
+
+        Path downloaded = cache.fetch(StorageType.AZURE, storage, "legacy.sql", false);
+
+        assertFalse(downloaded.startsWith(tempDir.resolve("cache").resolve("objects")));
+        assertNotEquals(Optional.of(downloaded), cache.findCached(StorageType.AZURE, storage, "legacy.sql", false));
+
+        // The uncached download only lives until the restore releases it.
+        cache.release(downloaded);
+        assertFalse(Files.exists(downloaded.getParent()));
+    }
+
+    private void put(String key, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        objects.put(key, bytes);
+        Path staged = tempDir.resolve("staged-" + key);
+        try (OutputStream out = new ChecksumOutputStream(Files.newOutputStream(staged), staged)) {
+            out.write(bytes);
+        }
+        digests.put(key, BackupManifest.read(staged).sha256());
+        manifests.put(key + BackupManifest.EXTENSION, BackupManifest.sidecar(staged));
+    }
+}
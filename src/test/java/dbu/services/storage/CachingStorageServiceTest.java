@@ -0,0 +1,94 @@
+package dbu.services.storage;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dbu.models.StorageFileInfo;
+
+public class CachingStorageServiceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final StorageService delegate = mock(StorageService.class);
+    private final CachingStorageService cache = new CachingStorageService(delegate,
+            new TtlLruCache<>(2, Duration.ofSeconds(30), clock::get),
+            new TtlLruCache<>(2, Duration.ofSeconds(30), clock::get), 10);
+
+    @Test
+    void testExistsIsCachedUntilTtlExpires() {
+        when(delegate.exists("a.zip")).thenReturn(true);
+
+        assertTrue(cache.exists("a.zip"));
+        assertTrue(cache.exists("a.zip"));
+        verify(delegate, times(1)).exists("a.zip");
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(cache.exists("a.zip"));
+        verify(delegate, times(2)).exists("a.zip");
+
+        CacheStats stats = cache.existenceStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        cache.exists("a.zip");
+        cache.exists("b.zip");
+        cache.exists("a.zip");
+        cache.exists("c.zip");
+        cache.exists("a.zip");
+        cache.exists("b.zip");
+
+        verify(delegate, times(1)).exists("a.zip");
+        verify(delegate, times(2)).exists("b.zip");
+        assertEquals(2, cache.existenceStats().evictions());
+    }
+
+    @Test
+    void testUploadInvalidatesExistsAndCoveringListings() {
+        when(delegate.exists("backups/a.zip")).thenReturn(false);
+        when(delegate.streamFiles("backups/", null)).thenAnswer(invocation -> Stream.of(file("backups/b.zip")));
+        when(delegate.streamFiles("other/", null)).thenAnswer(invocation -> Stream.of(file("other/c.zip")));
+
+        assertFalse(cache.exists("backups/a.zip"));
+        assertEquals(1, cache.streamFiles("backups/", null).toList().size());
+        assertEquals(1, cache.streamFiles("other/", null).toList().size());
+
+        cache.uploadFile("backups/a.zip", Path.of("a.zip"));
+        when(delegate.exists("backups/a.zip")).thenReturn(true);
+
+        assertTrue(cache.exists("backups/a.zip"));
+        cache.streamFiles("backups/", null).toList();
+        cache.streamFiles("other/", null).toList();
+        verify(delegate, times(2)).streamFiles("backups/", null);
+        verify(delegate, times(1)).streamFiles("other/", null);
+    }
+
+    @Test
+    void testOnlyCompleteListingsAreCached() {
+        when(delegate.streamFiles(null, null)).thenAnswer(invocation -> Stream.of(file("a.zip"), file("b.zip")));
+
+        assertEquals(List.of("a.zip"), cache.streamFiles(null, null).limit(1).map(StorageFileInfo::getName).toList());
+        assertEquals(2, cache.streamFiles(null, null).toList().size());
+        assertEquals(2, cache.streamFiles(null, null).toList().size());
+
+        verify(delegate, times(2)).streamFiles(null, null);
+        assertEquals(1, cache.listingStats().hits());
+    }
+
+    private StorageFileInfo file(String name) {
+        return new StorageFileInfo(name, 1L, null);
+    }
+}
@@ -0,0 +1,66 @@
+package dbu.services.storage;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dbu.exceptions.StorageExecutionException;
+import dbu.models.StorageFileInfo;
+
+public class StorageListingsTest {
+
+    @Test
+    void testShardedListingCoversEveryPrefix() {
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.streamFiles("backups/", "/")).thenReturn(Stream.of(
+                file("backups/root.zip"),
+                StorageFileInfo.ofPrefix("backups/mysql/"),
+                StorageFileInfo.ofPrefix("backups/postgres/")));
+        when(storageService.streamFiles("backups/mysql/", null)).thenReturn(Stream.of(
+                file("backups/mysql/a.zip"), file("backups/mysql/b.zip")));
+        when(storageService.streamFiles("backups/postgres/", null)).thenReturn(Stream.of(
+                file("backups/postgres/c.zip")));
+
+        Set<String> names;
+        try (Stream<StorageFileInfo> files = StorageListings.sharded(storageService, "backups/", 4)) {
+            names = files.map(StorageFileInfo::getName).collect(Collectors.toSet());
+        }
+
+        assertEquals(Set.of("backups/root.zip", "backups/mysql/a.zip", "backups/mysql/b.zip",
+                "backups/postgres/c.zip"), names);
+    }
+
+    @Test
+    void testShardedListingReportsShardFailure() {
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.streamFiles(null, "/")).thenReturn(Stream.of(StorageFileInfo.ofPrefix("a/")));
+        when(storageService.streamFiles("a/", null)).thenThrow(new StorageExecutionException("Listing failed"));
+
+        try (Stream<StorageFileInfo> files = StorageListings.sharded(storageService, null, 2)) {
+            assertThrows(StorageExecutionException.class, files::toList);
+        }
+    }
+
+    @Test
+    void testLazyListingTranslatesProviderErrors() {
+        Iterable<String> pages = () -> List.of("page-1").iterator();
+        assertEquals(List.of("page-1"), StorageListings.lazily(pages, IllegalStateException.class, "Listing").toList());
+
+        Iterable<String> failing = () -> {
+            throw new IllegalStateException("throttled");
+        };
+        assertThrows(StorageExecutionException.class,
+                () -> StorageListings.lazily(failing, IllegalStateException.class, "Listing").toList());
+    }
+
+    private StorageFileInfo file(String name) {
+        return new StorageFileInfo(name, 1L, null);
+    }
+}
@@ -0,0 +1,91 @@
+package dbu.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dbu.enums.CompressType;
+import dbu.models.BackupConfig;
+
+public class CompressUtilsTest {
+
+    private static final String DUMP = "INSERT INTO t VALUES (1, 'a');\n".repeat(10_000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testZstdRoundTripWithWorkersAndLevel() throws Exception {
+        BackupConfig config = config(CompressType.ZSTD, 19, 2);
+
+        Path compressed = CompressUtils.compress(writeDump(), tempDir.resolve("backup.sql.zst"), config);
+        Path restored = DecompressUtils.decompressIfNeeded(compressed);
+
+        assertEquals(DUMP, Files.readString(restored, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLz4HighCompressionRoundTrip() throws Exception {
+        BackupConfig config = config(CompressType.LZ4, 9, 1);
+
+        Path compressed = CompressUtils.compress(writeDump(), tempDir.resolve("backup.sql.lz4"), config);
+        Path restored = DecompressUtils.decompressIfNeeded(compressed);
+
+        assertEquals(DUMP, Files.readString(restored, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testZstdDirectoryIsPackedAsTar() throws Exception {
+        Path dumpDir = Files.createDirectory(tempDir.resolve("dump"));
+        Files.writeString(dumpDir.resolve("users.bson"), DUMP, StandardCharsets.UTF_8);
+        BackupConfig config = config(CompressType.ZSTD, null, 1);
+
+        Path compressed = CompressUtils.compress(dumpDir, tempDir.resolve("backup.tar.zst"), config);
+        Path restored = DecompressUtils.decompressIfNeeded(compressed);
+
+        assertEquals("users.bson", restored.getFileName().toString());
+        assertEquals(DUMP, Files.readString(restored, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testZipDirectoryStoresPrecompressedEntries() throws Exception {
+        Path dumpDir = Files.createDirectories(tempDir.resolve("dump/shop"));
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(dumpDir.resolve("c" + i + ".bson"), DUMP + i, StandardCharsets.UTF_8);
+        }
+        Path gzipped = CompressUtils.compressGzip(writeDump(), dumpDir.resolve("orders.bson.gz"));
+
+        Path archive = CompressUtils.compressZip(tempDir.resolve("dump"), tempDir.resolve("backup.zip"));
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(21, zip.size());
+            for (int i = 0; i < 20; i++) {
+                ZipEntry entry = zip.getEntry("shop/c" + i + ".bson");
+                assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+                assertEquals(DUMP + i, new String(zip.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8));
+            }
+            ZipEntry stored = zip.getEntry("shop/orders.bson.gz");
+            assertEquals(ZipEntry.STORED, stored.getMethod());
+            assertArrayEquals(Files.readAllBytes(gzipped), zip.getInputStream(stored).readAllBytes());
+        }
+    }
+
+    private Path writeDump() throws Exception {
+        return Files.writeString(tempDir.resolve("backup.sql"), DUMP, StandardCharsets.UTF_8);
+    }
+
+    private BackupConfig config(CompressType compressType, Integer level, int threads) {
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(compressType);
+        config.setCompressLevel(level);
+        config.setCompressThreads(threads);
+        return config;
+    }
+}
@@ -0,0 +1,210 @@
+package dbu.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dbu.enums.CompressType;
+import dbu.models.BackupConfig;
+
+public class DecompressUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testOpenDecompressedStreamReadsGzipBackup() throws Exception {
+        String sql = "CREATE TABLE t (id INT);\nINSERT INTO t VALUES (1);\n";
+        Path input = Files.writeString(tempDir.resolve("backup.sql"), sql);
+        Path output = CompressUtils.compressGzip(input, tempDir.resolve("backup.sql.gzip"));
+
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(sql, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testManifestIsWrittenAndVerifiedOnRead() throws Exception {
+        String sql = "INSERT INTO t VALUES (1);\n".repeat(1_000);
+        Path input = Files.writeString(tempDir.resolve("backup.sql"), sql);
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZSTD);
+        Path output = CompressUtils.compress(input, tempDir.resolve("backup.sql.zst"), config);
+
+        BackupManifest manifest = BackupManifest.read(output);
+        byte[] stored = Files.readAllBytes(output);
+        assertEquals(stored.length, manifest.size());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(stored)),
+                manifest.sha256());
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(sql, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        // Corruption is reported against the manifest as the stream is read.
+        stored[stored.length - 1] ^= 1;
+        Files.write(output, stored);
+        IOException error = assertThrows(IOException.class, () -> {
+            try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+                in.readAllBytes();
+            }
+        });
+        assertTrue(error.getMessage().contains("backup.sql.zst"));
+    }
+
+    @Test
+    void testOpenDecompressedStreamReadsZipEntry() throws Exception {
+        String sql = "SELECT 1;\n";
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZIP);
+        Path output = tempDir.resolve("backup.zip");
+        try (InputStream in = new ByteArrayInputStream(sql.getBytes(StandardCharsets.UTF_8))) {
+            CompressUtils.compressStream(in, output, config, "backup.sql");
+        }
+
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(sql, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testZipBackupIsVerifiedPastItsFirstEntry() throws Exception {
+        String sql = "SELECT 1;\n";
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZIP);
+        Path output = tempDir.resolve("backup.zip");
+        try (InputStream in = new ByteArrayInputStream(sql.getBytes(StandardCharsets.UTF_8))) {
+            CompressUtils.compressStream(in, output, config, "backup.sql");
+        }
+
+        // The entry itself is intact; only the central directory, never read for the entry, is damaged.
+        byte[] stored = Files.readAllBytes(output);
+        stored[stored.length - 1] ^= 1;
+        Files.write(output, stored);
+        IOException error = assertThrows(IOException.class, () -> {
+            try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+                assertEquals(sql, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        });
+        assertTrue(error.getMessage().contains("backup.zip"));
+    }
+
+    @Test
+    void testClosingEarlyDoesNotReadTheRestOfTheBackup() throws Exception {
+        byte[] content = new byte[1 << 20];
+        new Random(7).nextBytes(content);
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZIP);
+        Path output = tempDir.resolve("backup.zip");
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            CompressUtils.compressStream(in, output, config, "backup.sql");
+        }
+        byte[] stored = Files.readAllBytes(output);
+        stored[stored.length - 1] ^= 1;
+        Files.write(output, stored);
+
+        // A restore that stops early only releases the file; the damaged tail is never reached or reported.
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(content[0] & 0xff, in.read());
+        }
+    }
+
+    @Test
+    void testOpenDecompressedStreamDetectsFormatRegardlessOfName() throws Exception {
+        String sql = "INSERT INTO t VALUES (1);\n";
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.ZSTD);
+        Path tar = tempDir.resolve("backup.tar");
+        try (TarArchiveOutputStream tos = new TarArchiveOutputStream(Files.newOutputStream(tar))) {
+            TarArchiveEntry entry = new TarArchiveEntry("backup.sql");
+            entry.setSize(sql.length());
+            tos.putArchiveEntry(entry);
+            tos.write(sql.getBytes(StandardCharsets.UTF_8));
+            tos.closeArchiveEntry();
+        }
+        Path output = tempDir.resolve("backup.bin");
+        try (InputStream in = Files.newInputStream(tar)) {
+            CompressUtils.compressStream(in, output, config, "backup.tar");
+        }
+
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(sql, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testDecompressIfNeededHandlesGzipSuffix() throws Exception {
+        String sql = "SELECT 1;\n";
+        Path input = Files.writeString(tempDir.resolve("backup.sql"), sql);
+        Path compressed = CompressUtils.compressGzip(input, tempDir.resolve("backup.sql.gzip"));
+        Files.delete(input);
+
+        Path output = DecompressUtils.decompressIfNeeded(compressed);
+
+        assertEquals(tempDir.resolve("backup.sql"), output);
+        assertEquals(sql, Files.readString(output));
+    }
+
+    @Test
+    void testExtractArchiveRestoresEveryZipEntry() throws Exception {
+        Path dumpDir = writeDumpDirectory();
+        Path archive = CompressUtils.compressZip(dumpDir, tempDir.resolve("backup.zip"));
+
+        assertDumpDirectory(DecompressUtils.extractArchive(archive));
+    }
+
+    @Test
+    void testExtractArchiveRestoresEveryTarEntry() throws Exception {
+        Path dumpDir = writeDumpDirectory();
+        Path archive = CompressUtils.compressTarGz(dumpDir, tempDir.resolve("backup.tar.gz"));
+
+        assertDumpDirectory(DecompressUtils.extractArchive(archive));
+    }
+
+    @Test
+    void testExtractArchiveRejectsEntriesOutsideTargetDirectory() throws Exception {
+        Path archive = tempDir.resolve("evil.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zos.putNextEntry(new ZipEntry("../escaped.txt"));
+            zos.write(1);
+            zos.closeEntry();
+        }
+
+        assertThrows(IOException.class, () -> DecompressUtils.extractArchive(archive));
+        assertFalse(Files.exists(tempDir.resolve("escaped.txt")));
+    }
+
+    // Many small collection files plus one larger than the in-memory limit of the tar writer queue.
+    private Path writeDumpDirectory() throws Exception {
+        Path dumpDir = Files.createDirectories(tempDir.resolve("dump/shop"));
+        for (int i = 0; i < 50; i++) {
+            Files.writeString(dumpDir.resolve("c" + i + ".bson"), "collection " + i);
+        }
+        Files.write(dumpDir.resolve("large.bson"), new byte[5 << 20]);
+        return tempDir.resolve("dump");
+    }
+
+    private void assertDumpDirectory(Path extracted) throws Exception {
+        Path collections = extracted.resolve("shop");
+        for (int i = 0; i < 50; i++) {
+            assertEquals("collection " + i, Files.readString(collections.resolve("c" + i + ".bson")));
+        }
+        assertEquals(5 << 20, Files.size(collections.resolve("large.bson")));
+    }
+}
@@ -0,0 +1,69 @@
+package dbu.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+public class ParallelGzipOutputStreamTest {
+
+    @Test
+    void testOutputIsReadableAsStandardGzip() throws Exception {
+        byte[] input = sampleData(1_000_000);
+
+        byte[] compressed = compress(input, 4, 64 * 1024);
+
+        assertArrayEquals(input, gunzip(compressed));
+    }
+
+    @Test
+    void testInputThatFillsExactBlocks() throws Exception {
+        byte[] input = sampleData(4 * 32 * 1024);
+
+        byte[] compressed = compress(input, 2, 32 * 1024);
+
+        assertArrayEquals(input, gunzip(compressed));
+    }
+
+    @Test
+    void testEmptyInput() throws Exception {
+        byte[] compressed = compress(new byte[0], 2, 32 * 1024);
+
+        assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    void testRejectsBlockSizeSmallerThanDictionary() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelGzipOutputStream(new ByteArrayOutputStream(), 2, 1024));
+    }
+
+    private byte[] compress(byte[] input, int threads, int blockSize) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream pgos = new ParallelGzipOutputStream(bos, threads, blockSize)) {
+            pgos.write(input);
+        }
+        return bos.toByteArray();
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gis.readAllBytes();
+        }
+    }
+
+    private byte[] sampleData(int size) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            sb.append("INSERT INTO t VALUES (").append(random.nextInt(1000)).append(", 'row');\n");
+        }
+        return sb.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+}
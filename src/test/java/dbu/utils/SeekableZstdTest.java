@@ -0,0 +1,173 @@
+package dbu.utils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import dbu.enums.CompressType;
+import dbu.models.BackupConfig;
+
+public class SeekableZstdTest {
+
+    private static final String DUMP = "INSERT INTO t VALUES (1, 'a');\n".repeat(5_000);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSingleFileRangesAcrossBlocks() throws Exception {
+        Path input = Files.writeString(tempDir.resolve("backup.sql"), DUMP, StandardCharsets.UTF_8);
+        Path output = CompressUtils.compress(input, tempDir.resolve("backup.sql.szst"), config());
+
+        try (SeekableZstdReader reader = SeekableZstdReader.open(output)) {
+            assertTrue(reader.index().blocks().size() > 1);
+            assertEquals(DUMP.length(), reader.index().uncompressedSize());
+            assertEquals(DUMP.length(), reader.index().entry("backup.sql").length());
+
+            int offset = 40_000;
+            int length = 70_000;
+            try (InputStream in = reader.openRange(offset, length)) {
+                assertEquals(DUMP.substring(offset, offset + length),
+                        new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        // The index sits in a skippable frame, so standard zstd decoders still read the file.
+        try (InputStream in = new ZstdInputStream(Files.newInputStream(output))) {
+            assertEquals(DUMP, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream in = DecompressUtils.openDecompressedStream(output)) {
+            assertEquals(DUMP, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testDirectoryEntriesCanBeReadOnTheirOwn() throws Exception {
+        Path dumpDir = Files.createDirectories(tempDir.resolve("dump/shop"));
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(dumpDir.resolve("c" + i + ".bson"), DUMP + i, StandardCharsets.UTF_8);
+        }
+        Path output = CompressUtils.compress(tempDir.resolve("dump"), tempDir.resolve("backup.tar.szst"),
+                config());
+
+        try (SeekableZstdReader reader = SeekableZstdReader.open(output);
+                TarArchiveInputStream tar = new TarArchiveInputStream(reader.openEntry("shop/c3.bson"))) {
+            TarArchiveEntry entry = tar.getNextEntry();
+            assertNotNull(entry);
+            assertEquals("shop/c3.bson", entry.getName());
+            assertEquals(DUMP + 3, new String(tar.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        Path extracted = DecompressUtils.extractArchive(output);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(DUMP + i, Files.readString(extracted.resolve("shop/c" + i + ".bson")));
+        }
+    }
+
+    @Test
+    void testSqlDumpTablesAreIndexed() throws Exception {
+        String preamble = "SET statement_timeout = 0;\n\n";
+        String orders = "--\n-- Name: orders; Type: TABLE; Schema: public; Owner: app\n--\n\n"
+                + "CREATE TABLE public.orders (id integer);\n\n";
+        String customers = "--\n-- Name: customers; Type: TABLE; Schema: public; Owner: app\n--\n\n"
+                + "CREATE TABLE public.customers (id integer);\n\n";
+        String ordersData = "--\n-- Data for Name: orders; Type: TABLE DATA; Schema: public; Owner: app\n--\n\n"
+                + "COPY public.orders (id) FROM stdin;\n" + "1\n".repeat(20_000) + "\\.\n\n";
+        String customersData = "--\n-- Data for Name: customers; Type: TABLE DATA; Schema: public; Owner: app\n--\n\n"
+                + "COPY public.customers (id) FROM stdin;\n" + "2\n".repeat(20_000) + "\\.\n\n";
+        String ordersIndex = "--\n-- Name: orders_id_idx; Type: INDEX; Schema: public; Owner: app\n--\n\n"
+                + "CREATE INDEX orders_id_idx ON public.orders USING btree (id);\n\n";
+        String ordersKey = "--\n-- Name: orders orders_pkey; Type: CONSTRAINT; Schema: public; Owner: app\n--\n\n"
+                + "ALTER TABLE ONLY public.orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id);\n\n";
+        Path input = Files.writeString(tempDir.resolve("backup.sql"),
+                preamble + orders + customers + ordersData + customersData + ordersIndex + ordersKey,
+                StandardCharsets.UTF_8);
+        Path output = CompressUtils.compress(input, tempDir.resolve("backup.sql.szst"), config());
+
+        try (SeekableZstdReader reader = SeekableZstdReader.open(output);
+                InputStream in = reader.openEntries(reader.index().objectEntries("public.orders"))) {
+            assertEquals(preamble + orders + ordersData + ordersIndex + ordersKey,
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertTrue(reader.index().objectEntries("public.missing").isEmpty());
+        }
+    }
+
+    @Test
+    void testSerialAndIdentitySequencesAreIndexedWithTheirTable() throws Exception {
+        String orders = "--\n-- Name: orders; Type: TABLE; Schema: public; Owner: app\n--\n\n"
+                + "CREATE TABLE public.orders (id integer NOT NULL);\n\n";
+        String ordersSeq = "--\n-- Name: orders_id_seq; Type: SEQUENCE; Schema: public; Owner: app\n--\n\n"
+                + "CREATE SEQUENCE public.orders_id_seq\n    AS integer\n    START WITH 1\n    CACHE 1;\n\n";
+        String ordersSeqOwner = "--\n-- Name: orders_id_seq; Type: SEQUENCE OWNED BY; Schema: public; Owner: app\n"
+                + "--\n\nALTER SEQUENCE public.orders_id_seq OWNED BY public.orders.id;\n\n";
+        String customers = "--\n-- Name: customers; Type: TABLE; Schema: public; Owner: app\n--\n\n"
+                + "CREATE TABLE public.customers (id integer NOT NULL);\n\n";
+        String customersSeq = "--\n-- Name: customers_id_seq; Type: SEQUENCE; Schema: public; Owner: app\n--\n\n"
+                + "ALTER TABLE public.customers ALTER COLUMN id ADD GENERATED ALWAYS AS IDENTITY (\n"
+                + "    SEQUENCE NAME public.customers_id_seq\n);\n\n";
+        String ordersDefault = "--\n-- Name: orders id; Type: DEFAULT; Schema: public; Owner: app\n--\n\n"
+                + "ALTER TABLE ONLY public.orders ALTER COLUMN id SET DEFAULT "
+                + "nextval('public.orders_id_seq'::regclass);\n\n";
+        String ordersData = "--\n-- Data for Name: orders; Type: TABLE DATA; Schema: public; Owner: app\n--\n\n"
+                + "COPY public.orders (id) FROM stdin;\n" + "1\n".repeat(20_000) + "\\.\n\n";
+        String ordersSeqSet = "--\n-- Name: orders_id_seq; Type: SEQUENCE SET; Schema: public; Owner: app\n--\n\n"
+                + "SELECT pg_catalog.setval('public.orders_id_seq', 20000, true);\n\n";
+        String customersSeqSet = "--\n-- Name: customers_id_seq; Type: SEQUENCE SET; Schema: public; Owner: app\n"
+                + "--\n\nSELECT pg_catalog.setval('public.customers_id_seq', 1, false);\n\n";
+        Path input = Files.writeString(tempDir.resolve("backup.sql"),
+                orders + ordersSeq + ordersSeqOwner + customers + customersSeq + ordersDefault + ordersData
+                        + ordersSeqSet + customersSeqSet,
+                StandardCharsets.UTF_8);
+        Path output = CompressUtils.compress(input, tempDir.resolve("backup.sql.szst"), config());
+
+        try (SeekableZstdReader reader = SeekableZstdReader.open(output)) {
+            try (InputStream in = reader.openEntries(reader.index().objectEntries("public.orders"))) {
+                assertEquals(orders + ordersSeq + ordersSeqOwner + ordersDefault + ordersData + ordersSeqSet,
+                        new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            try (InputStream in = reader.openEntries(reader.index().objectEntries("public.customers"))) {
+                assertEquals(customers + customersSeq + customersSeqSet,
+                        new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertTrue(reader.index().objectEntries("public.orders_id_seq").isEmpty());
+        }
+    }
+
+    @Test
+    void testMysqlDumpTablesAreIndexed() throws Exception {
+        String preamble = "/*!40101 SET NAMES utf8mb4 */;\n\n";
+        String orders = "--\n-- Table structure for table `orders`\n--\n\nCREATE TABLE `orders` (`id` int);\n\n"
+                + "--\n-- Dumping data for table `orders`\n--\n\n" + "INSERT INTO `orders` VALUES (1);\n".repeat(5_000);
+        String customers = "--\n-- Table structure for table `customers`\n--\n\nCREATE TABLE `customers` (`id` int);\n";
+        Path input = Files.writeString(tempDir.resolve("backup.sql"), preamble + orders + customers,
+                StandardCharsets.UTF_8);
+
+        try (InputStream source = Files.newInputStream(input)) {
+            CompressUtils.compressStream(source, tempDir.resolve("backup.sql.szst"), config(), "backup.sql");
+        }
+
+        try (SeekableZstdReader reader = SeekableZstdReader.open(tempDir.resolve("backup.sql.szst"));
+                InputStream in = reader.openEntries(reader.index().objectEntries("orders"))) {
+            assertEquals(preamble + orders, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private BackupConfig config() {
+        BackupConfig config = new BackupConfig();
+        config.setCompressType(CompressType.SEEKABLE);
+        config.setCompressThreads(2);
+        config.setCompressBlockSize(32 * 1024);
+        return config;
+    }
+}
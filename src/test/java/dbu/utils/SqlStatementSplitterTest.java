@@ -0,0 +1,54 @@
+package dbu.utils;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementSplitterTest {
+
+    @Test
+    void testSplitsStatementsAndIgnoresQuotedDelimiters() throws Exception {
+        String script = """
+                -- MySQL dump
+                /*!40101 SET NAMES utf8mb4 */;
+                INSERT INTO `t` VALUES (1,'a;b'),(2,'it\\'s; \"x\"');
+                /* plain comment; dropped */
+                INSERT INTO `semi;colon` VALUES (3,'');
+                """;
+
+        assertEquals(List.of(
+                "/*!40101 SET NAMES utf8mb4 */",
+                "INSERT INTO `t` VALUES (1,'a;b'),(2,'it\\'s; \"x\"')",
+                "INSERT INTO `semi;colon` VALUES (3,'')"), split(script));
+    }
+
+    @Test
+    void testHonoursDelimiterCommand() throws Exception {
+        String script = """
+                DELIMITER ;;
+                /*!50003 CREATE TRIGGER `trg` BEFORE INSERT ON `t` FOR EACH ROW BEGIN
+                  SET NEW.x = 1;
+                END */;;
+                DELIMITER ;
+                SELECT 1;
+                """;
+
+        assertEquals(List.of(
+                "/*!50003 CREATE TRIGGER `trg` BEFORE INSERT ON `t` FOR EACH ROW BEGIN\n  SET NEW.x = 1;\nEND */",
+                "SELECT 1"), split(script));
+    }
+
+    private List<String> split(String script) throws Exception {
+        List<String> statements = new ArrayList<>();
+        try (SqlStatementSplitter splitter = new SqlStatementSplitter(new StringReader(script))) {
+            String statement;
+            while ((statement = splitter.next()) != null) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+}